@@ -0,0 +1,80 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Base64s}, {@link Base32s}, compared with jdk Base64; and {@link Base58s} for short ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseCodecsBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private byte[] data;
+    private String base64;
+    private byte[] base64Bytes;
+    private byte[] encodeBuffer;
+    private byte[] decodeBuffer;
+    private byte[] id;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.bytes(size);
+        base64 = Base64.getEncoder().encodeToString(data);
+        base64Bytes = Base64.getEncoder().encode(data);
+        encodeBuffer = new byte[Base32s.encoder().encodedLength(size)];
+        decodeBuffer = new byte[size];
+        id = BenchmarkData.bytes(16);
+    }
+
+    @Benchmark
+    public String base64Encode() {
+        return Base64s.encoder().encode(data);
+    }
+
+    @Benchmark
+    public String jdkBase64Encode() {
+        return Base64.getEncoder().encodeToString(data);
+    }
+
+    @Benchmark
+    public byte[] base64EncodeToBytes() {
+        Base64s.encoder().encode(data, 0, data.length, encodeBuffer, 0);
+        return encodeBuffer;
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64s.decoder().decode(base64);
+    }
+
+    @Benchmark
+    public byte[] jdkBase64Decode() {
+        return Base64.getDecoder().decode(base64);
+    }
+
+    @Benchmark
+    public byte[] base64DecodeAsciiToBytes() {
+        Base64s.decoder().decode(base64Bytes, 0, base64Bytes.length, decodeBuffer, 0);
+        return decodeBuffer;
+    }
+
+    @Benchmark
+    public String base32Encode() {
+        return Base32s.encoder().encode(data);
+    }
+
+    @Benchmark
+    public String base58EncodeId() {
+        return Base58s.encoder().encode(id);
+    }
+}
@@ -0,0 +1,79 @@
+package net.dongliu.commons;
+
+import java.util.Random;
+
+/**
+ * Deterministic input generators shared by benchmarks.
+ */
+public class BenchmarkData {
+
+    /**
+     * Text kind contains only ascii letters and digits
+     */
+    public static final String ASCII = "ascii";
+    /**
+     * Text kind contains only CJK unified ideographs
+     */
+    public static final String NON_LATIN = "nonLatin";
+
+    private static final long SEED = 20180826L;
+
+    /**
+     * Generate text with chars of the given kind. The result is the same for same arguments.
+     *
+     * @param length the char count of text
+     * @param kind   {@link #ASCII} or {@link #NON_LATIN}
+     * @return the text
+     */
+    public static String text(int length, String kind) {
+        Random random = new Random(SEED);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            if (NON_LATIN.equals(kind)) {
+                chars[i] = (char) (0x4E00 + random.nextInt(0x5000));
+            } else {
+                int v = random.nextInt(36);
+                chars[i] = (char) (v < 10 ? '0' + v : 'a' + v - 10);
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Generate text, and insert separator every interval chars. If text is shorter than interval,
+     * the separator is put at the middle.
+     *
+     * @param length    the char count of text, without separators
+     * @param kind      {@link #ASCII} or {@link #NON_LATIN}
+     * @param separator the separator to insert
+     * @param interval  the chars count between two separators
+     * @return the text
+     */
+    public static String text(int length, String kind, String separator, int interval) {
+        String text = text(length, kind);
+        if (length < interval) {
+            int mid = length / 2;
+            return text.substring(0, mid) + separator + text.substring(mid);
+        }
+        StringBuilder sb = new StringBuilder(length + length / interval * separator.length());
+        for (int i = 0; i < length; i += interval) {
+            if (i != 0) {
+                sb.append(separator);
+            }
+            sb.append(text, i, Math.min(length, i + interval));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generate random bytes. The result is the same for same size.
+     *
+     * @param size the byte count
+     * @return the bytes
+     */
+    public static byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        new Random(SEED).nextBytes(data);
+        return data;
+    }
+}
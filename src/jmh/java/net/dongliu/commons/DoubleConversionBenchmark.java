@@ -0,0 +1,114 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for double parsing and formatting methods of {@link Strings}, compared with jdk, for metrics like
+ * values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleConversionBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private double[] values;
+    private String[] strings;
+    private byte[] line;
+    private int[] fieldEnds;
+    private StringBuilder sb;
+    private byte[] buffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        values = new double[COUNT];
+        strings = new String[COUNT];
+        fieldEnds = new int[COUNT];
+        StringBuilder lineBuilder = new StringBuilder();
+        for (int i = 0; i < COUNT; i++) {
+            // mix of short decimals, full precision values, and large/small exponents
+            switch (i % 3) {
+                case 0:
+                    values[i] = random.nextInt(1000000) / 100.0;
+                    break;
+                case 1:
+                    values[i] = random.nextDouble();
+                    break;
+                default:
+                    values[i] = random.nextGaussian() * Math.pow(10, random.nextInt(60) - 30);
+            }
+            strings[i] = Double.toString(values[i]);
+            lineBuilder.append(strings[i]);
+            fieldEnds[i] = lineBuilder.length();
+            lineBuilder.append(',');
+        }
+        line = lineBuilder.toString().getBytes(StandardCharsets.US_ASCII);
+        sb = new StringBuilder();
+        buffer = new byte[COUNT * 25];
+    }
+
+    @Benchmark
+    public double toDouble() {
+        double sum = 0;
+        for (String str : strings) {
+            sum += Strings.toDouble(str, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double toDoubleBytes() {
+        double sum = 0;
+        int from = 0;
+        for (int end : fieldEnds) {
+            sum += Strings.toDouble(line, from, end, 0);
+            from = end + 1;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double jdkParseDouble() {
+        double sum = 0;
+        for (String str : strings) {
+            sum += Double.parseDouble(str);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int appendDouble() {
+        sb.setLength(0);
+        for (double value : values) {
+            Strings.appendDouble(sb, value);
+        }
+        return sb.length();
+    }
+
+    @Benchmark
+    public int jdkAppendDouble() {
+        sb.setLength(0);
+        for (double value : values) {
+            sb.append(value);
+        }
+        return sb.length();
+    }
+
+    @Benchmark
+    public int writeDouble() {
+        int offset = 0;
+        for (double value : values) {
+            offset = Strings.writeDouble(buffer, offset, value);
+        }
+        return offset;
+    }
+}
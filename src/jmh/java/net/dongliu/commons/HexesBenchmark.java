@@ -0,0 +1,103 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Hexes} encoder and decoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HexesBenchmark {
+
+    @Param({"8", "1024", "65536", "1048576"})
+    private int size;
+
+    private byte[] data;
+    private String hex;
+    private char[] charBuffer;
+    private byte[] byteBuffer;
+    private byte[] asciiHex;
+    private byte[] decodeBuffer;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.bytes(size);
+        hex = Hexes.encoder().encode(data);
+        charBuffer = new char[size * 2];
+        byteBuffer = new byte[size * 2];
+        asciiHex = hex.getBytes(StandardCharsets.US_ASCII);
+        decodeBuffer = new byte[size];
+    }
+
+    @Benchmark
+    public String encodeUpper() {
+        return Hexes.encoder().encode(data);
+    }
+
+    @Benchmark
+    public String encodeLower() {
+        return Hexes.encoder(false).encode(data);
+    }
+
+    @Benchmark
+    public char[] encodeToChars() {
+        Hexes.encoder().encode(data, 0, data.length, charBuffer, 0);
+        return charBuffer;
+    }
+
+    @Benchmark
+    public byte[] encodeToBytes() {
+        Hexes.encoder().encode(data, 0, data.length, byteBuffer, 0);
+        return byteBuffer;
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Hexes.decoder().decode(hex);
+    }
+
+    @Benchmark
+    public byte[] decodeToBytes() {
+        Hexes.decoder().decode(hex, 0, hex.length(), decodeBuffer, 0);
+        return decodeBuffer;
+    }
+
+    @Benchmark
+    public byte[] decodeAsciiToBytes() {
+        Hexes.decoder().decode(asciiHex, 0, asciiHex.length, decodeBuffer, 0);
+        return decodeBuffer;
+    }
+
+    @Benchmark
+    public byte[] encodeAsciiScalar() {
+        Hexes.encoder().encodeBytesScalar(data, 0, data.length, byteBuffer, 0);
+        return byteBuffer;
+    }
+
+    @Benchmark
+    public byte[] encodeAsciiSwar() {
+        int bulk = Hexes.encoder().encodeBytesSwar(data, 0, data.length, byteBuffer, 0);
+        Hexes.encoder().encodeBytesScalar(data, bulk, data.length - bulk, byteBuffer, bulk * 2);
+        return byteBuffer;
+    }
+
+    @Benchmark
+    public byte[] decodeAsciiScalar() {
+        Hexes.Decoder.decodeBytesScalar(asciiHex, 0, asciiHex.length, decodeBuffer, 0);
+        return decodeBuffer;
+    }
+
+    @Benchmark
+    public byte[] decodeAsciiSwar() {
+        int bulk = Hexes.Decoder.decodeBytesSwar(asciiHex, 0, asciiHex.length, decodeBuffer, 0);
+        Hexes.Decoder.decodeBytesScalar(asciiHex, bulk, asciiHex.length, decodeBuffer, bulk / 2);
+        return decodeBuffer;
+    }
+}
@@ -0,0 +1,84 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for {@link Joiner}. The total chars of joined items are from 8 to 1M.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinerBenchmark {
+
+    private static final int ITEM_SIZE = 8;
+
+    @Param({"8", "1024", "65536", "1048576"})
+    private int size;
+
+    @Param({BenchmarkData.ASCII, BenchmarkData.NON_LATIN})
+    private String kind;
+
+    private final Joiner joiner = Joiner.of("(", ")", ", ");
+    private final Joiner skipNullsJoiner = joiner.skipNulls(true);
+    private List<String> items;
+    private Object[] array;
+    private long[] ids;
+
+    @Setup
+    public void setup() {
+        String text = BenchmarkData.text(size, kind);
+        items = new ArrayList<>(size / ITEM_SIZE);
+        for (int i = 0; i < size; i += ITEM_SIZE) {
+            items.add(text.substring(i, i + ITEM_SIZE));
+        }
+        array = items.toArray();
+        ids = new long[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1_000_000_000L + i * 7919L;
+        }
+    }
+
+    @Benchmark
+    public String joinIterable() {
+        return joiner.join(items);
+    }
+
+    @Benchmark
+    public String joinArray() {
+        return joiner.join(array);
+    }
+
+    @Benchmark
+    public String joinSkipNulls() {
+        return skipNullsJoiner.join(items);
+    }
+
+    @Benchmark
+    public String jdkStringJoin() {
+        return "(" + String.join(", ", items) + ")";
+    }
+
+    @Benchmark
+    public String collector() {
+        return items.stream().collect(joiner.collector());
+    }
+
+    @Benchmark
+    public String joinLongs() {
+        return joiner.join(ids);
+    }
+
+    @Benchmark
+    public String joinBoxedLongs() {
+        return Arrays.stream(ids).mapToObj(String::valueOf).collect(Collectors.joining(", ", "(", ")"));
+    }
+}
@@ -0,0 +1,131 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmarks for {@link Lazy}.
+ * <p>
+ * The read* groups measure get throughput after value initialized.
+ * The init* groups measure initialization under contention: all threads in group walk through the same
+ * fresh Lazy instances, so every get call races with other threads to initialize the value.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyBenchmark {
+
+    private static final int BATCH = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Initialized {
+        private Lazy<Object> lazy;
+        private volatile Object field;
+
+        @Setup
+        public void setup() {
+            lazy = Lazy.of(Object::new);
+            lazy.get();
+            field = new Object();
+        }
+    }
+
+    @State(Scope.Group)
+    public static class Fresh {
+        private Lazy<?>[] lazies;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            lazies = new Lazy<?>[BATCH];
+            for (int i = 0; i < lazies.length; i++) {
+                lazies[i] = Lazy.of(Object::new);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            index = 0;
+        }
+
+        private Object next(Fresh fresh) {
+            return fresh.lazies[index++].get();
+        }
+    }
+
+    @Benchmark
+    @Group("read1")
+    @GroupThreads(1)
+    public Object read1(Initialized s) {
+        return s.lazy.get();
+    }
+
+    @Benchmark
+    @Group("read16")
+    @GroupThreads(16)
+    public Object read16(Initialized s) {
+        return s.lazy.get();
+    }
+
+    @Benchmark
+    @Group("read64")
+    @GroupThreads(64)
+    public Object read64(Initialized s) {
+        return s.lazy.get();
+    }
+
+    @Benchmark
+    @Group("volatileRead16")
+    @GroupThreads(16)
+    public Object volatileRead16(Initialized s) {
+        return s.field;
+    }
+
+    @Benchmark
+    @Group("init1")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public Object init1(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+
+    @Benchmark
+    @Group("init4")
+    @GroupThreads(4)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public Object init4(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+
+    @Benchmark
+    @Group("init16")
+    @GroupThreads(16)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public Object init16(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+
+    @Benchmark
+    @Group("init64")
+    @GroupThreads(64)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public Object init64(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+}
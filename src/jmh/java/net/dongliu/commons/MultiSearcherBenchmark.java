@@ -0,0 +1,76 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link MultiSearcher}, compared with calling String.indexOf for every needle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiSearcherBenchmark {
+
+    @Param({"100", "5000"})
+    private int needleCount;
+
+    private List<String> needles;
+    private MultiSearcher searcher;
+    private String text;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        needles = new ArrayList<>();
+        for (int i = 0; i < needleCount; i++) {
+            needles.add(word(random, 5 + random.nextInt(6)));
+        }
+        searcher = Strings.multiSearcher(needles);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 1024) {
+            sb.append(word(random, 2 + random.nextInt(8))).append(' ');
+        }
+        text = sb.toString();
+    }
+
+    private static String word(Random random, int len) {
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public int count() {
+        return searcher.count(text);
+    }
+
+    @Benchmark
+    public boolean containsAny() {
+        return searcher.containsAny(text);
+    }
+
+    @Benchmark
+    public int indexOfEach() {
+        int count = 0;
+        for (String needle : needles) {
+            for (int from = text.indexOf(needle); from >= 0; from = text.indexOf(needle, from + 1)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public MultiSearcher compile() {
+        return Strings.multiSearcher(needles);
+    }
+}
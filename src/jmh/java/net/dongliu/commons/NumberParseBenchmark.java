@@ -0,0 +1,100 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for number parsing methods of {@link Strings}, with 30% invalid input, compared with jdk parse methods
+ * which throw NumberFormatException.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberParseBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private String[] ints;
+    private String[] doubles;
+    private byte[] line;
+    private int[] fieldEnds;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        ints = new String[COUNT];
+        doubles = new String[COUNT];
+        StringBuilder sb = new StringBuilder();
+        fieldEnds = new int[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            boolean invalid = random.nextInt(10) < 3;
+            ints[i] = invalid ? "n/a" : String.valueOf(random.nextInt());
+            doubles[i] = invalid ? "-" : String.valueOf(random.nextInt(1000000) / 1000.0);
+            sb.append(doubles[i]);
+            fieldEnds[i] = sb.length();
+            sb.append(',');
+        }
+        line = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public long toInt() {
+        long sum = 0;
+        for (String str : ints) {
+            sum += Strings.toInt(str, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkParseInt() {
+        long sum = 0;
+        for (String str : ints) {
+            try {
+                sum += Integer.parseInt(str);
+            } catch (NumberFormatException e) {
+                // use default value 0
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double toDouble() {
+        double sum = 0;
+        for (String str : doubles) {
+            sum += Strings.toDouble(str, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double jdkParseDouble() {
+        double sum = 0;
+        for (String str : doubles) {
+            try {
+                sum += Double.parseDouble(str);
+            } catch (NumberFormatException e) {
+                // use default value 0
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double toDoubleBytes() {
+        double sum = 0;
+        int from = 0;
+        for (int end : fieldEnds) {
+            sum += Strings.toDouble(line, from, end, 0);
+            from = end + 1;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,62 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Searcher}, compared with String.indexOf, searching a needle which occurs at the end of a long
+ * text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearcherBenchmark {
+
+    private static final int SIZE = 1 << 20;
+
+    @Param({"4", "16", "64"})
+    private int needleLength;
+
+    @Param({BenchmarkData.ASCII, BenchmarkData.NON_LATIN})
+    private String kind;
+
+    private String text;
+    private byte[] data;
+    private String needle;
+    private Searcher searcher;
+
+    @Setup
+    public void setup() {
+        String needleText = BenchmarkData.text(needleLength, kind).toUpperCase();
+        // the needle shares prefix with text, to avoid early mismatch
+        needle = needleText.substring(0, needleLength - 1) + "#";
+        text = BenchmarkData.text(SIZE, kind) + needle;
+        data = text.getBytes(StandardCharsets.UTF_8);
+        searcher = Strings.searcher(needle);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return searcher.indexOf(text);
+    }
+
+    @Benchmark
+    public int stringIndexOf() {
+        return text.indexOf(needle);
+    }
+
+    @Benchmark
+    public int lastIndexOf() {
+        return searcher.lastIndexOf(text);
+    }
+
+    @Benchmark
+    public int indexOfBytes() {
+        return searcher.indexOf(data, 0, data.length);
+    }
+}
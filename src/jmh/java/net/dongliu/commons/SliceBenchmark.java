@@ -0,0 +1,48 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for slice methods in {@link Strings}, compared with subString methods, parsing numbers from key-value
+ * fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SliceBenchmark {
+
+    private String[] fields;
+
+    @Setup
+    public void setup() {
+        fields = new String[64];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = "[field_" + i + "=" + (i * 7919L * 104729L) + "]";
+        }
+    }
+
+    @Benchmark
+    public long subString() {
+        long sum = 0;
+        for (String field : fields) {
+            String value = Strings.subStringAfter(Strings.removePrefixAndSuffix(field, "[", "]"), "=");
+            sum += Strings.toLong(value, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long slice() {
+        long sum = 0;
+        for (String field : fields) {
+            CharSequence value = Strings.sliceAfter(Strings.sliceRemovePrefixAndSuffix(field, "[", "]"), "=");
+            sum += Strings.toLong(value, 0, value.length(), 0);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,66 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Splitter}, compared with String.split, splitting a csv-like line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitterBenchmark {
+
+    @Param({",", ", "})
+    private String separator;
+
+    private String line;
+    private Splitter splitter;
+    private int totalLength;
+    private final Splitter.PieceConsumer consumer = (start, end) -> totalLength += end - start;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 32; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(BenchmarkData.text(4 + i % 12, BenchmarkData.ASCII).replace(",", ""));
+        }
+        line = sb.toString();
+        splitter = Splitter.of(separator);
+    }
+
+    @Benchmark
+    public int stringSplit() {
+        return line.split(separator).length;
+    }
+
+    @Benchmark
+    public int splitToList() {
+        List<String> list = splitter.splitToList(line);
+        return list.size();
+    }
+
+    @Benchmark
+    public int split() {
+        int length = 0;
+        for (CharSequence piece : splitter.split(line)) {
+            length += piece.length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int forEach() {
+        totalLength = 0;
+        splitter.forEach(line, consumer);
+        return totalLength;
+    }
+}
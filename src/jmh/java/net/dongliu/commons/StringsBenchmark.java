@@ -0,0 +1,70 @@
+package net.dongliu.commons;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for search, slice and padding methods of {@link Strings}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringsBenchmark {
+
+    private static final String SEPARATOR = "|#|";
+
+    @Param({"8", "1024", "65536", "1048576"})
+    private int size;
+
+    @Param({BenchmarkData.ASCII, BenchmarkData.NON_LATIN})
+    private String kind;
+
+    @Param({"true", "false"})
+    private boolean hit;
+
+    private String str;
+
+    @Setup
+    public void setup() {
+        str = hit ? BenchmarkData.text(size, kind, SEPARATOR, 64) : BenchmarkData.text(size, kind);
+    }
+
+    @Benchmark
+    public String subStringBefore() {
+        return Strings.subStringBefore(str, SEPARATOR);
+    }
+
+    @Benchmark
+    public String subStringAfter() {
+        return Strings.subStringAfter(str, SEPARATOR);
+    }
+
+    @Benchmark
+    public String subStringAfterLast() {
+        return Strings.subStringAfterLast(str, SEPARATOR);
+    }
+
+    @Benchmark
+    public CharSequence sliceBefore() {
+        return Strings.sliceBefore(str, SEPARATOR);
+    }
+
+    @Benchmark
+    public CharSequence sliceAfter() {
+        return Strings.sliceAfter(str, SEPARATOR);
+    }
+
+    @Benchmark
+    public int countOf() {
+        return Strings.countOf(str, SEPARATOR);
+    }
+
+    @Benchmark
+    public String padLeft() {
+        return Strings.padLeft(str, str.length() + 8, ' ');
+    }
+}
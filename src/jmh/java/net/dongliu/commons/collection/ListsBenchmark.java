@@ -0,0 +1,98 @@
+package net.dongliu.commons.collection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for {@link Lists}, compared with jdk streams and hand-written loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListsBenchmark {
+
+    @Param({"0", "10", "1000", "1000000"})
+    private int size;
+
+    private List<Integer> list;
+    private Integer[] array;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        array = list.toArray(new Integer[0]);
+    }
+
+    @Benchmark
+    public List<Integer> of() {
+        return Lists.of(array);
+    }
+
+    @Benchmark
+    public List<Integer> jdkOf() {
+        return Collections.unmodifiableList(Arrays.asList(array.clone()));
+    }
+
+    @Benchmark
+    public List<String> convert() {
+        return Lists.convert(list, String::valueOf);
+    }
+
+    @Benchmark
+    public List<String> streamConvert() {
+        return list.stream().map(String::valueOf).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> loopConvert() {
+        List<String> result = new ArrayList<>(list.size());
+        for (Integer v : list) {
+            result.add(String.valueOf(v));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Integer> filter() {
+        return Lists.filter(list, v -> (v & 1) == 0);
+    }
+
+    @Benchmark
+    public List<Integer> streamFilter() {
+        return list.stream().filter(v -> (v & 1) == 0).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> loopFilter() {
+        List<Integer> result = new ArrayList<>();
+        for (Integer v : list) {
+            if ((v & 1) == 0) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Integer> concat() {
+        return Lists.concat(list, list);
+    }
+
+    @Benchmark
+    public List<Integer> streamConcat() {
+        return Stream.concat(list.stream(), list.stream()).collect(Collectors.toList());
+    }
+}
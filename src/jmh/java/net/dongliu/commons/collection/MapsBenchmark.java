@@ -0,0 +1,69 @@
+package net.dongliu.commons.collection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for {@link Maps}, compared with jdk streams and hand-written loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapsBenchmark {
+
+    @Param({"0", "10", "1000", "1000000"})
+    private int size;
+
+    private Map<Integer, Integer> map;
+
+    @Setup
+    public void setup() {
+        map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> of() {
+        return Maps.of("1", 1, "2", 2, "3", 3, "4", 4, "5", 5);
+    }
+
+    @Benchmark
+    public Map<String, Integer> jdkOf() {
+        Map<String, Integer> result = new HashMap<>(8);
+        result.put("1", 1);
+        result.put("2", 2);
+        result.put("3", 3);
+        result.put("4", 4);
+        result.put("5", 5);
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Benchmark
+    public Map<Integer, String> convert() {
+        return Maps.convert(map, String::valueOf);
+    }
+
+    @Benchmark
+    public Map<Integer, String> streamConvert() {
+        return map.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> String.valueOf(e.getValue())));
+    }
+
+    @Benchmark
+    public Map<Integer, String> loopConvert() {
+        Map<Integer, String> result = new HashMap<>((int) (map.size() / 0.75f) + 1);
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            result.put(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package net.dongliu.commons.collection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Pair#hashCode()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PairBenchmark {
+
+    private Pair<String, Integer> pair;
+
+    @Setup
+    public void setup() {
+        pair = Pair.of("key", 100);
+    }
+
+    @Benchmark
+    public int hashCodeOfPair() {
+        return pair.hashCode();
+    }
+
+    @Benchmark
+    public int handWrittenHashCode() {
+        return 31 * (31 + pair.getKey().hashCode()) + pair.getValue().hashCode();
+    }
+}
@@ -0,0 +1,64 @@
+package net.dongliu.commons.collection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for {@link Sets} and {@link HashSets}, compared with jdk streams and hand-written loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetsBenchmark {
+
+    @Param({"0", "10", "1000", "1000000"})
+    private int size;
+
+    private Integer[] array;
+
+    @Setup
+    public void setup() {
+        array = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+    }
+
+    @Benchmark
+    public Set<Integer> of() {
+        return Sets.of(array);
+    }
+
+    @Benchmark
+    public Set<Integer> jdkOf() {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(array)));
+    }
+
+    @Benchmark
+    public Set<Integer> streamOf() {
+        return Arrays.stream(array).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public HashSet<Integer> hashSetsCreate() {
+        return HashSets.create(array);
+    }
+
+    @Benchmark
+    public HashSet<Integer> loopCreate() {
+        HashSet<Integer> set = new HashSet<>((int) (array.length / 0.75f) + 1);
+        for (Integer v : array) {
+            set.add(v);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,58 @@
+package net.dongliu.commons.concurrent;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmarks for {@link Futures#timeout(CompletableFuture, Duration)}.
+ * Each call schedules a timeout task on the shared delay-executor, and then completes the original future,
+ * which cancels the scheduled task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuturesBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static CompletableFuture<Object> timeoutAndComplete() {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> f = Futures.timeout(future, TIMEOUT);
+        future.complete(Boolean.TRUE);
+        return f;
+    }
+
+    @Benchmark
+    @Group("timeout1")
+    @GroupThreads(1)
+    public CompletableFuture<Object> timeout1() {
+        return timeoutAndComplete();
+    }
+
+    @Benchmark
+    @Group("timeout4")
+    @GroupThreads(4)
+    public CompletableFuture<Object> timeout4() {
+        return timeoutAndComplete();
+    }
+
+    @Benchmark
+    @Group("timeout16")
+    @GroupThreads(16)
+    public CompletableFuture<Object> timeout16() {
+        return timeoutAndComplete();
+    }
+
+    @Benchmark
+    @Group("timeout64")
+    @GroupThreads(64)
+    public CompletableFuture<Object> timeout64() {
+        return timeoutAndComplete();
+    }
+}
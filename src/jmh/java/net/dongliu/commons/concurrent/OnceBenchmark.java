@@ -0,0 +1,124 @@
+package net.dongliu.commons.concurrent;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmarks for {@link Once}.
+ * <p>
+ * The run* groups measure run throughput after the runnable already run.
+ * The init* groups measure the first run under contention: all threads in group walk through the same
+ * fresh Once instances, so every call races with other threads to run the runnable.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnceBenchmark {
+
+    private static final int BATCH = 1 << 16;
+    private static final Runnable NOOP = () -> {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Done {
+        private Once once;
+
+        @Setup
+        public void setup() {
+            once = Once.create();
+            once.run(NOOP);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class Fresh {
+        private Once[] onces;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            onces = new Once[BATCH];
+            for (int i = 0; i < onces.length; i++) {
+                onces[i] = Once.create();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            index = 0;
+        }
+
+        private boolean next(Fresh fresh) {
+            return fresh.onces[index++].run(NOOP);
+        }
+    }
+
+    @Benchmark
+    @Group("run1")
+    @GroupThreads(1)
+    public boolean run1(Done s) {
+        return s.once.run(NOOP);
+    }
+
+    @Benchmark
+    @Group("run16")
+    @GroupThreads(16)
+    public boolean run16(Done s) {
+        return s.once.run(NOOP);
+    }
+
+    @Benchmark
+    @Group("run64")
+    @GroupThreads(64)
+    public boolean run64(Done s) {
+        return s.once.run(NOOP);
+    }
+
+    @Benchmark
+    @Group("init1")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public boolean init1(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+
+    @Benchmark
+    @Group("init4")
+    @GroupThreads(4)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public boolean init4(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+
+    @Benchmark
+    @Group("init16")
+    @GroupThreads(16)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public boolean init16(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+
+    @Benchmark
+    @Group("init64")
+    @GroupThreads(64)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public boolean init64(Fresh fresh, Cursor cursor) {
+        return cursor.next(fresh);
+    }
+}
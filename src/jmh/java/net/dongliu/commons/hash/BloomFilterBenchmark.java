@@ -0,0 +1,48 @@
+package net.dongliu.commons.hash;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BloomFilter}, with different bit storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomFilterBenchmark {
+
+    @Param({"heap", "offHeap", "concurrent", "concurrentOffHeap"})
+    private String storage;
+
+    private BloomFilter filter;
+    private long key;
+
+    @Setup
+    public void setup() {
+        filter = BloomFilter.newBuilder().expectedInsertions(10_000_000).fpp(0.01)
+                .offHeap(storage.endsWith("ffHeap")).concurrent(storage.startsWith("concurrent")).build();
+        for (long i = 0; i < 1_000_000; i++) {
+            filter.put(i);
+        }
+    }
+
+    @Benchmark
+    public boolean put() {
+        return filter.put(key++);
+    }
+
+    @Benchmark
+    public boolean mightContain() {
+        return filter.mightContain(key++);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean putThreads() {
+        return filter.put(Thread.currentThread().getId() * 0x9E3779B97F4A7C15L + System.nanoTime());
+    }
+}
@@ -0,0 +1,59 @@
+package net.dongliu.commons.hash;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ConsistentHashRing}, {@link RendezvousHash} and {@link JumpHash}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+    @Param({"8", "64"})
+    private int nodeCount;
+
+    private ConsistentHashRing<String> ring;
+    private RendezvousHash<String> rendezvous;
+    private String key;
+    private long hash;
+
+    @Setup
+    public void setup() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add("node-" + i);
+        }
+        ring = ConsistentHashRing.create(nodes, 160);
+        rendezvous = RendezvousHash.create(nodes);
+        key = "user:1234567890";
+        hash = FastHashes.xxHash64().hash(key);
+    }
+
+    @Benchmark
+    public String ringString() {
+        return ring.node(key);
+    }
+
+    @Benchmark
+    public String ringHash() {
+        return ring.nodeForHash(hash);
+    }
+
+    @Benchmark
+    public String rendezvousHash() {
+        return rendezvous.nodeForHash(hash);
+    }
+
+    @Benchmark
+    public int jumpHash() {
+        return JumpHash.bucket(hash, nodeCount);
+    }
+}
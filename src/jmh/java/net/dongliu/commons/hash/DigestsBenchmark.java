@@ -0,0 +1,63 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Digests}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigestsBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private byte[] data;
+    private Digests.MultiEncoder multi;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.bytes(size);
+        multi = Digests.multi(Digests.md5(), Digests.sha1(), Digests.sha256());
+    }
+
+    @Benchmark
+    public Digests.DigestResult md5() {
+        return Digests.md5().digest(data);
+    }
+
+    @Benchmark
+    public Digests.DigestResult sha256() {
+        return Digests.sha256().digest(data);
+    }
+
+    @Benchmark
+    public byte[] sha256NewInstance() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+
+    @Benchmark
+    public void threeStreams(Blackhole blackhole) throws IOException {
+        blackhole.consume(Digests.md5().digest(new ByteArrayInputStream(data)));
+        blackhole.consume(Digests.sha1().digest(new ByteArrayInputStream(data)));
+        blackhole.consume(Digests.sha256().digest(new ByteArrayInputStream(data)));
+    }
+
+    @Benchmark
+    public List<Digests.DigestResult> multiStream() throws IOException {
+        return multi.digest(new ByteArrayInputStream(data));
+    }
+}
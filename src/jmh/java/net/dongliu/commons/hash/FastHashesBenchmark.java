@@ -0,0 +1,63 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link FastHashes}, compared with the cryptographic digests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastHashesBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.bytes(size);
+    }
+
+    @Benchmark
+    public long xxHash64() {
+        return FastHashes.xxHash64().hash(data);
+    }
+
+    @Benchmark
+    public int murmur3_32() {
+        return FastHashes.murmur3_32().hash(data);
+    }
+
+    @Benchmark
+    public long murmur3_128() {
+        return FastHashes.murmur3_128().hash(data);
+    }
+
+    @Benchmark
+    public int crc32c() {
+        return FastHashes.crc32c().hash(data);
+    }
+
+    @Benchmark
+    public Digests.DigestResult md5() {
+        return Digests.md5().digest(data);
+    }
+
+    @Benchmark
+    public Digests.DigestResult sha1() {
+        return Digests.sha1().digest(data);
+    }
+
+    @Benchmark
+    public Digests.DigestResult sha256() {
+        return Digests.sha256().digest(data);
+    }
+}
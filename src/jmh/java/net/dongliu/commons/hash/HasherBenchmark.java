@@ -0,0 +1,45 @@
+package net.dongliu.commons.hash;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Hasher}, hashing a composite cache key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HasherBenchmark {
+
+    private String user = "user-name-测试";
+    private long id = 1234567890123L;
+    private int shard = 17;
+    private boolean active = true;
+
+    private Hasher sha256Hasher = Digests.sha256().newHasher();
+    private Hasher xxHash64Hasher = FastHashes.xxHash64().newHasher();
+
+    @Benchmark
+    public Digests.DigestResult sha256Concat() {
+        return Digests.sha256().digest(user + ":" + id + ":" + shard + ":" + active);
+    }
+
+    @Benchmark
+    public Digests.DigestResult sha256Hasher() {
+        return sha256Hasher.putString(user).putLong(id).putInt(shard).putBoolean(active).digest();
+    }
+
+    @Benchmark
+    public long xxHash64Concat() {
+        return FastHashes.xxHash64().hash(user + ":" + id + ":" + shard + ":" + active);
+    }
+
+    @Benchmark
+    public long xxHash64Hasher() {
+        return xxHash64Hasher.putString(user).putLong(id).putInt(shard).putBoolean(active).hashLong();
+    }
+}
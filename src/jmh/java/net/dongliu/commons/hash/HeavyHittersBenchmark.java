@@ -0,0 +1,60 @@
+package net.dongliu.commons.hash;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks for {@link CountMinSketch} and {@link HeavyHitters}, compared with counting by ConcurrentHashMap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HeavyHittersBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    private String[] keys;
+    private CountMinSketch sketch;
+    private HeavyHitters<String> hitters;
+    private ConcurrentHashMap<String, LongAdder> map;
+
+    @Setup
+    public void setup() {
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+        }
+        sketch = CountMinSketch.create(0.001, 0.99);
+        hitters = HeavyHitters.create(1024, 16);
+        map = new ConcurrentHashMap<>();
+    }
+
+    private String nextKey() {
+        // half of requests hit 16 hot keys
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return keys[random.nextBoolean() ? random.nextInt(16) : random.nextInt(KEYS)];
+    }
+
+    @Benchmark
+    public void countMinSketch() {
+        sketch.add(nextKey(), 1);
+    }
+
+    @Benchmark
+    public void heavyHitters() {
+        hitters.add(nextKey());
+    }
+
+    @Benchmark
+    public void concurrentHashMap() {
+        map.computeIfAbsent(nextKey(), k -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,41 @@
+package net.dongliu.commons.hash;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link HyperLogLog}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HyperLogLogBenchmark {
+
+    @Param({"false", "true"})
+    private boolean concurrent;
+
+    private HyperLogLog hll;
+    private long key;
+
+    @Setup
+    public void setup() {
+        hll = concurrent ? HyperLogLog.createConcurrent(14) : HyperLogLog.create(14);
+        for (long i = 0; i < 1_000_000; i++) {
+            hll.add(i);
+        }
+    }
+
+    @Benchmark
+    public void add() {
+        hll.add(key++);
+    }
+
+    @Benchmark
+    public long cardinality() {
+        return hll.cardinality();
+    }
+}
@@ -0,0 +1,43 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TreeEncoder}, compared with sequential digest of the same data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeEncoderBenchmark {
+
+    @Param({"1048576", "67108864"})
+    private int size;
+
+    @Param({"1048576"})
+    private int leafSize;
+
+    private byte[] data;
+    private TreeEncoder encoder;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.bytes(size);
+        encoder = Digests.sha256().tree(leafSize);
+    }
+
+    @Benchmark
+    public Digests.DigestResult sequential() {
+        return Digests.sha256().digest(data);
+    }
+
+    @Benchmark
+    public Digests.DigestResult tree() {
+        return encoder.digest(data);
+    }
+}
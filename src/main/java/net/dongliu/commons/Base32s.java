@@ -0,0 +1,88 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.exception.Base32DecodeException;
+
+/**
+ * Base32 utils, using the alphabet defined in RFC 4648.
+ * <p>
+ * Besides the methods work with String, the encoder and decoder can write into caller-supplied char array,
+ * ascii byte array, ByteBuffer or Appendable, and can wrap Reader/Writer/Streams to process data in bounded chunks.
+ * </p>
+ */
+public class Base32s {
+
+    /**
+     * Return a base32 encoder, with padding.
+     *
+     * @return a base32 encoder
+     */
+    public static Encoder encoder() {
+        return encoder(true);
+    }
+
+    /**
+     * Return a base32 encoder.
+     *
+     * @param padding if append padding chars '=' to the last partial block
+     * @return a base32 encoder
+     */
+    public static Encoder encoder(boolean padding) {
+        return padding ? paddingEncoder.get() : noPaddingEncoder.get();
+    }
+
+    private static final Lazy<Encoder> paddingEncoder = Lazy.of(() -> new Encoder(true));
+    private static final Lazy<Encoder> noPaddingEncoder = Lazy.of(() -> new Encoder(false));
+
+    /**
+     * Return a base32 decoder. The decoder accepts input with or without padding, and lower case chars.
+     *
+     * @return a base32 decoder
+     */
+    public static Decoder decoder() {
+        return decoder.get();
+    }
+
+    private static final Lazy<Decoder> decoder = Lazy.of(Decoder::new);
+
+    private static final char[] ALPHABET = {
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+            'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+            '2', '3', '4', '5', '6', '7'
+    };
+
+    /**
+     * Base32 encoder. This class is immutable, and can be reused.
+     */
+    public static class Encoder extends BlockEncoder {
+        private Encoder(boolean padding) {
+            super(ALPHABET, 5, 5, padding);
+        }
+
+        /**
+         * Return a encoder with padding set.
+         *
+         * @param padding if append padding chars '=' to the last partial block
+         * @return the encoder
+         */
+        public Encoder padding(boolean padding) {
+            return encoder(padding);
+        }
+    }
+
+    /**
+     * Base32 decoder. This class is immutable, and can be reused.
+     */
+    public static class Decoder extends BlockDecoder {
+        private Decoder() {
+            super(ALPHABET, 5, 5);
+            for (char c = 'a'; c <= 'z'; c++) {
+                alias(c, Character.toUpperCase(c));
+            }
+        }
+
+        @Override
+        RuntimeException decodeException(String message) {
+            return new Base32DecodeException(message);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.exception.Base58DecodeException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base58 utils, using the bitcoin alphabet.
+ * <p>
+ * Base58 treats the whole input as one big number, so the encoder and decoder have no streaming wrappers, and
+ * use a work buffer sized to the input; the cost is quadratic to input size. It is intended for short data such as
+ * ids and keys.
+ * Leading zero bytes are encoded as leading '1' chars.
+ * </p>
+ */
+public class Base58s {
+
+    /**
+     * Return a base58 encoder.
+     *
+     * @return a base58 encoder
+     */
+    public static Encoder encoder() {
+        return encoder.get();
+    }
+
+    private static final Lazy<Encoder> encoder = Lazy.of(Encoder::new);
+
+    /**
+     * Return a base58 decoder.
+     *
+     * @return a base58 decoder
+     */
+    public static Decoder decoder() {
+        return decoder.get();
+    }
+
+    private static final Lazy<Decoder> decoder = Lazy.of(Decoder::new);
+
+    private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * Base58 encoder. This class is immutable, and can be reused.
+     */
+    public static class Encoder {
+        private final byte[] byteAlphabet = new byte[58];
+
+        private Encoder() {
+            for (int i = 0; i < ALPHABET.length; i++) {
+                byteAlphabet[i] = (byte) ALPHABET[i];
+            }
+        }
+
+        /**
+         * Return the max count of chars of encoded result, for bytes with len.
+         *
+         * @param len the bytes count
+         * @return the max chars count
+         */
+        public int maxEncodedLength(int len) {
+            if (len < 0) {
+                throw new IllegalArgumentException("invalid len: " + len);
+            }
+            // log(256) / log(58) < 1.38
+            return Math.toIntExact((long) len * 138 / 100 + 1);
+        }
+
+        /**
+         * Encode bytes to a String.
+         *
+         * @param data the bytes to encode
+         * @return the encoded String
+         */
+        public String encode(byte[] data) {
+            requireNonNull(data);
+            return encode(data, 0, data.length);
+        }
+
+        /**
+         * Encode a range of bytes to a String.
+         *
+         * @param data   the bytes to encode
+         * @param offset the offset of data
+         * @param len    the count of bytes to encode
+         * @return the encoded String
+         */
+        public String encode(byte[] data, int offset, int len) {
+            Preconditions.checkArrayAndRange(data, offset, len);
+            byte[] digits = new byte[maxEncodedLength(len)];
+            int start = toDigits(data, offset, len, digits);
+            char[] chars = new char[digits.length - start];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = ALPHABET[digits[start + i]];
+            }
+            return new String(chars);
+        }
+
+        /**
+         * Write encoded chars of a range of bytes into char array.
+         *
+         * @param src    the bytes to encode
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to encode
+         * @param dst    the char array to write encoded chars
+         * @param dstOff the offset of char array to start writing
+         * @return the count of chars written
+         * @throws IndexOutOfBoundsException if range out of arrays, or char array has not enough space
+         */
+        public int encode(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            byte[] digits = new byte[maxEncodedLength(len)];
+            int start = toDigits(src, srcOff, len, digits);
+            int size = digits.length - start;
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            for (int i = 0; i < size; i++) {
+                dst[dstOff + i] = ALPHABET[digits[start + i]];
+            }
+            return size;
+        }
+
+        /**
+         * Write encoded chars of a range of bytes into byte array, as ascii bytes.
+         *
+         * @param src    the bytes to encode
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to encode
+         * @param dst    the byte array to write encoded chars
+         * @param dstOff the offset of byte array to start writing
+         * @return the count of bytes written
+         * @throws IndexOutOfBoundsException if range out of arrays, or dst array has not enough space
+         */
+        public int encode(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            byte[] digits = new byte[maxEncodedLength(len)];
+            int start = toDigits(src, srcOff, len, digits);
+            int size = digits.length - start;
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            for (int i = 0; i < size; i++) {
+                dst[dstOff + i] = byteAlphabet[digits[start + i]];
+            }
+            return size;
+        }
+
+        /**
+         * Write encoded chars of a range of bytes into ByteBuffer, as ascii bytes.
+         * The chars are written at the current position of buffer, and the position is advanced.
+         *
+         * @param src    the bytes to encode
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to encode
+         * @param dst    the buffer to write encoded chars
+         * @return the count of bytes written
+         * @throws BufferOverflowException if buffer has not enough remaining space
+         */
+        public int encode(byte[] src, int srcOff, int len, ByteBuffer dst) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            byte[] digits = new byte[maxEncodedLength(len)];
+            int start = toDigits(src, srcOff, len, digits);
+            int size = digits.length - start;
+            if (dst.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+            for (int i = start; i < digits.length; i++) {
+                digits[i] = byteAlphabet[digits[i]];
+            }
+            dst.put(digits, start, size);
+            return size;
+        }
+
+        /**
+         * Append encoded chars of a range of bytes to Appendable.
+         *
+         * @param src        the bytes to encode
+         * @param srcOff     the offset of bytes
+         * @param len        the count of bytes to encode
+         * @param appendable the Appendable to append encoded chars
+         * @param <T>        the Appendable type
+         * @return the appendable
+         * @throws IOException if appendable throws IOException
+         */
+        public <T extends Appendable> T encode(byte[] src, int srcOff, int len, T appendable) throws IOException {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            byte[] digits = new byte[maxEncodedLength(len)];
+            int start = toDigits(src, srcOff, len, digits);
+            if (appendable instanceof Writer) {
+                char[] chars = new char[digits.length - start];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = ALPHABET[digits[start + i]];
+                }
+                ((Writer) appendable).write(chars);
+                return appendable;
+            }
+            for (int i = start; i < digits.length; i++) {
+                appendable.append(ALPHABET[digits[i]]);
+            }
+            return appendable;
+        }
+
+        /**
+         * Convert bytes to base58 digits, put at the end of digits array.
+         *
+         * @param digits the array to hold digits, should be zero-filled and large enough
+         * @return the start index of digits
+         */
+        private static int toDigits(byte[] src, int offset, int len, byte[] digits) {
+            int zeros = 0;
+            while (zeros < len && src[offset + zeros] == 0) {
+                zeros++;
+            }
+            int size = digits.length;
+            // digits in [high, size) are calculated
+            int high = size;
+            for (int i = offset + zeros; i < offset + len; i++) {
+                int carry = src[i] & 0xFF;
+                int j = size - 1;
+                for (; j >= high || carry != 0; j--) {
+                    carry += digits[j] << 8;
+                    digits[j] = (byte) (carry % 58);
+                    carry /= 58;
+                }
+                high = j + 1;
+            }
+            Arrays.fill(digits, high - zeros, high, (byte) 0);
+            return high - zeros;
+        }
+    }
+
+    /**
+     * Base58 decoder. This class is immutable, and can be reused.
+     */
+    public static class Decoder {
+        // the value of char, or -1 if is not a valid char
+        private static final byte[] VALUES = new byte[128];
+
+        static {
+            Arrays.fill(VALUES, (byte) -1);
+            for (int i = 0; i < ALPHABET.length; i++) {
+                VALUES[ALPHABET[i]] = (byte) i;
+            }
+        }
+
+        private Decoder() {
+        }
+
+        /**
+         * Decode a String.
+         *
+         * @param data the encoded chars
+         * @return the decoded bytes
+         * @throws Base58DecodeException if has illegal char
+         */
+        public byte[] decode(String data) throws Base58DecodeException {
+            requireNonNull(data);
+            return decode((CharSequence) data);
+        }
+
+        /**
+         * Decode a sequence of chars.
+         *
+         * @param data the encoded chars
+         * @return the decoded bytes
+         * @throws Base58DecodeException if has illegal char
+         */
+        public byte[] decode(CharSequence data) throws Base58DecodeException {
+            requireNonNull(data);
+            byte[] buf = new byte[data.length()];
+            int start = toBytes(data, 0, data.length(), buf);
+            return Arrays.copyOfRange(buf, start, buf.length);
+        }
+
+        /**
+         * Decode a range of chars, and write the bytes into byte array.
+         *
+         * @param src    the encoded chars
+         * @param from   the start index of chars, inclusive
+         * @param to     the end index of chars, exclusive
+         * @param dst    the byte array to write decoded bytes
+         * @param dstOff the offset of byte array to start writing
+         * @return the count of bytes written
+         * @throws IndexOutOfBoundsException if range out of src or dst
+         * @throws Base58DecodeException     if has illegal char
+         */
+        public int decode(CharSequence src, int from, int to, byte[] dst, int dstOff) throws Base58DecodeException {
+            Preconditions.checkSubRange(src.length(), from, to - from);
+            byte[] buf = new byte[to - from];
+            int start = toBytes(src, from, to, buf);
+            int size = buf.length - start;
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            System.arraycopy(buf, start, dst, dstOff, size);
+            return size;
+        }
+
+        /**
+         * Decode a range of ascii chars bytes, and write the bytes into byte array.
+         *
+         * @param src    the encoded ascii chars
+         * @param from   the start index of src, inclusive
+         * @param to     the end index of src, exclusive
+         * @param dst    the byte array to write decoded bytes
+         * @param dstOff the offset of byte array to start writing
+         * @return the count of bytes written
+         * @throws IndexOutOfBoundsException if range out of src or dst
+         * @throws Base58DecodeException     if has illegal char
+         */
+        public int decode(byte[] src, int from, int to, byte[] dst, int dstOff) throws Base58DecodeException {
+            Preconditions.checkArrayAndRange(src, from, to - from);
+            byte[] buf = new byte[to - from];
+            int start = toBytes(src, from, to, buf);
+            int size = buf.length - start;
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            System.arraycopy(buf, start, dst, dstOff, size);
+            return size;
+        }
+
+        /**
+         * Decode a range of chars, and write the bytes into ByteBuffer.
+         * The bytes are written at the current position of buffer, and the position is advanced.
+         *
+         * @param src  the encoded chars
+         * @param from the start index of chars, inclusive
+         * @param to   the end index of chars, exclusive
+         * @param dst  the buffer to write decoded bytes
+         * @return the count of bytes written
+         * @throws BufferOverflowException if buffer has not enough remaining space
+         * @throws Base58DecodeException   if has illegal char
+         */
+        public int decode(CharSequence src, int from, int to, ByteBuffer dst) throws Base58DecodeException {
+            Preconditions.checkSubRange(src.length(), from, to - from);
+            byte[] buf = new byte[to - from];
+            int start = toBytes(src, from, to, buf);
+            int size = buf.length - start;
+            if (dst.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+            dst.put(buf, start, size);
+            return size;
+        }
+
+        /**
+         * Decode a range of ascii chars bytes, and write the bytes into ByteBuffer.
+         * The bytes are written at the current position of buffer, and the position is advanced.
+         *
+         * @param src  the encoded ascii chars
+         * @param from the start index of src, inclusive
+         * @param to   the end index of src, exclusive
+         * @param dst  the buffer to write decoded bytes
+         * @return the count of bytes written
+         * @throws BufferOverflowException if buffer has not enough remaining space
+         * @throws Base58DecodeException   if has illegal char
+         */
+        public int decode(byte[] src, int from, int to, ByteBuffer dst) throws Base58DecodeException {
+            Preconditions.checkArrayAndRange(src, from, to - from);
+            byte[] buf = new byte[to - from];
+            int start = toBytes(src, from, to, buf);
+            int size = buf.length - start;
+            if (dst.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+            dst.put(buf, start, size);
+            return size;
+        }
+
+        /**
+         * Convert base58 chars to bytes, put at the end of buf.
+         *
+         * @param buf the array to hold bytes, should be zero-filled, and has length not less than chars count
+         * @return the start index of bytes
+         */
+        private static int toBytes(CharSequence src, int from, int to, byte[] buf) {
+            int ones = 0;
+            while (from + ones < to && src.charAt(from + ones) == '1') {
+                ones++;
+            }
+            int size = buf.length;
+            int high = size;
+            for (int i = from + ones; i < to; i++) {
+                char c = src.charAt(i);
+                int carry = c < 128 ? VALUES[c] : -1;
+                if (carry < 0) {
+                    throw new Base58DecodeException("Illegal character " + c + " at index " + i);
+                }
+                high = multiplyAdd(buf, high, carry);
+            }
+            return high - ones;
+        }
+
+        private static int toBytes(byte[] src, int from, int to, byte[] buf) {
+            int ones = 0;
+            while (from + ones < to && src[from + ones] == '1') {
+                ones++;
+            }
+            int size = buf.length;
+            int high = size;
+            for (int i = from + ones; i < to; i++) {
+                byte c = src[i];
+                int carry = c >= 0 ? VALUES[c] : -1;
+                if (carry < 0) {
+                    throw new Base58DecodeException("Illegal character " + (char) (c & 0xFF) + " at index " + i);
+                }
+                high = multiplyAdd(buf, high, carry);
+            }
+            return high - ones;
+        }
+
+        /**
+         * Multiply the big-endian number in [high, buf.length) by 58, and add carry.
+         *
+         * @return the new high index
+         */
+        private static int multiplyAdd(byte[] buf, int high, int carry) {
+            int j = buf.length - 1;
+            for (; j >= high || carry != 0; j--) {
+                carry += (buf[j] & 0xFF) * 58;
+                buf[j] = (byte) carry;
+                carry >>>= 8;
+            }
+            return j + 1;
+        }
+    }
+}
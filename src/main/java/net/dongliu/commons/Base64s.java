@@ -0,0 +1,123 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.exception.Base64DecodeException;
+
+/**
+ * Base64 utils, for the standard and the url-safe alphabet defined in RFC 4648.
+ * <p>
+ * Besides the methods work with String, the encoder and decoder can write into caller-supplied char array,
+ * ascii byte array, ByteBuffer or Appendable, and can wrap Reader/Writer/Streams to process data in bounded chunks.
+ * </p>
+ */
+public class Base64s {
+
+    /**
+     * Return a base64 encoder using standard alphabet, with padding.
+     *
+     * @return a base64 encoder
+     */
+    public static Encoder encoder() {
+        return encoder(false, true);
+    }
+
+    /**
+     * Return a base64 encoder using url-safe alphabet, with padding.
+     *
+     * @return a base64 encoder
+     */
+    public static Encoder urlEncoder() {
+        return encoder(true, true);
+    }
+
+    /**
+     * Return a base64 encoder.
+     *
+     * @param urlSafe if use the url-safe alphabet, which uses '-' and '_' instead of '+' and '/'
+     * @param padding if append padding chars '=' to the last partial block
+     * @return a base64 encoder
+     */
+    public static Encoder encoder(boolean urlSafe, boolean padding) {
+        if (urlSafe) {
+            return padding ? urlPaddingEncoder.get() : urlNoPaddingEncoder.get();
+        }
+        return padding ? paddingEncoder.get() : noPaddingEncoder.get();
+    }
+
+    private static final Lazy<Encoder> paddingEncoder = Lazy.of(() -> new Encoder(false, true));
+    private static final Lazy<Encoder> noPaddingEncoder = Lazy.of(() -> new Encoder(false, false));
+    private static final Lazy<Encoder> urlPaddingEncoder = Lazy.of(() -> new Encoder(true, true));
+    private static final Lazy<Encoder> urlNoPaddingEncoder = Lazy.of(() -> new Encoder(true, false));
+
+    /**
+     * Return a base64 decoder for standard alphabet. The decoder accepts input with or without padding.
+     *
+     * @return a base64 decoder
+     */
+    public static Decoder decoder() {
+        return decoder.get();
+    }
+
+    /**
+     * Return a base64 decoder for url-safe alphabet. The decoder accepts input with or without padding.
+     *
+     * @return a base64 decoder
+     */
+    public static Decoder urlDecoder() {
+        return urlDecoder.get();
+    }
+
+    private static final Lazy<Decoder> decoder = Lazy.of(() -> new Decoder(false));
+    private static final Lazy<Decoder> urlDecoder = Lazy.of(() -> new Decoder(true));
+
+    private static final char[] ALPHABET = {
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+            'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+            'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
+            'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/'
+    };
+
+    private static final char[] URL_ALPHABET = {
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+            'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+            'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
+            'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '_'
+    };
+
+    /**
+     * Base64 encoder. This class is immutable, and can be reused.
+     */
+    public static class Encoder extends BlockEncoder {
+        private final boolean urlSafe;
+
+        private Encoder(boolean urlSafe, boolean padding) {
+            super(urlSafe ? URL_ALPHABET : ALPHABET, 6, 3, padding);
+            this.urlSafe = urlSafe;
+        }
+
+        /**
+         * Return a encoder with the same alphabet, and with padding set.
+         *
+         * @param padding if append padding chars '=' to the last partial block
+         * @return the encoder
+         */
+        public Encoder padding(boolean padding) {
+            return encoder(urlSafe, padding);
+        }
+    }
+
+    /**
+     * Base64 decoder. This class is immutable, and can be reused.
+     */
+    public static class Decoder extends BlockDecoder {
+        private Decoder(boolean urlSafe) {
+            super(urlSafe ? URL_ALPHABET : ALPHABET, 6, 3);
+        }
+
+        @Override
+        RuntimeException decodeException(String message) {
+            return new Base64DecodeException(message);
+        }
+    }
+}
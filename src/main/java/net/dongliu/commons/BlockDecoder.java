@@ -0,0 +1,546 @@
+package net.dongliu.commons;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base decoder for binary-to-text encodings which convert each block of bytes to a fixed count of chars,
+ * such as base64(3 bytes to 4 chars) and base32(5 bytes to 8 chars).
+ * The decoder accept input with or without padding chars '='. If padding chars present, the total chars count
+ * must be multiple of block chars count.
+ * This class is immutable, and can be reused.
+ */
+abstract class BlockDecoder {
+    private static final char PAD = '=';
+    // blocks count of chunk, used when read from streams
+    private static final int CHUNK_BLOCKS = 1024;
+
+    // the value of char, or -1 if is not a valid char
+    private final byte[] values = new byte[128];
+    private final int bitsPerChar;
+    private final int bytesPerBlock;
+    private final int charsPerBlock;
+
+    BlockDecoder(char[] alphabet, int bitsPerChar, int bytesPerBlock) {
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            values[alphabet[i]] = (byte) i;
+        }
+        this.bitsPerChar = bitsPerChar;
+        this.bytesPerBlock = bytesPerBlock;
+        this.charsPerBlock = bytesPerBlock * 8 / bitsPerChar;
+    }
+
+    /**
+     * Let the char be decoded to the same value as another char.
+     */
+    void alias(char c, char target) {
+        values[c] = values[target];
+    }
+
+    /**
+     * Create the exception thrown when input is illegal.
+     */
+    abstract RuntimeException decodeException(String message);
+
+    /**
+     * Return the max count of bytes decoded from chars with len. The actual count may be less if input has padding.
+     *
+     * @param len the chars count
+     * @return the max bytes count
+     */
+    public int maxDecodedLength(int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("invalid len: " + len);
+        }
+        return (int) ((long) len * bitsPerChar / 8);
+    }
+
+    /**
+     * Decode a String.
+     *
+     * @param data the encoded chars
+     * @return the decoded bytes
+     */
+    public byte[] decode(String data) {
+        requireNonNull(data);
+        return decode((CharSequence) data);
+    }
+
+    /**
+     * Decode a sequence of chars.
+     *
+     * @param data the encoded chars
+     * @return the decoded bytes
+     */
+    public byte[] decode(CharSequence data) {
+        requireNonNull(data);
+        int end = dataEnd(data, 0, data.length());
+        byte[] result = new byte[decodedLength(data.length(), end)];
+        decodeChars(data, 0, end, result, 0);
+        return result;
+    }
+
+    /**
+     * Decode a range of chars, and write the bytes into byte array.
+     *
+     * @param src    the encoded chars
+     * @param from   the start index of chars, inclusive
+     * @param to     the end index of chars, exclusive
+     * @param dst    the byte array to write decoded bytes
+     * @param dstOff the offset of byte array to start writing
+     * @return the count of bytes written
+     * @throws IndexOutOfBoundsException if range out of src or dst
+     */
+    public int decode(CharSequence src, int from, int to, byte[] dst, int dstOff) {
+        Preconditions.checkSubRange(src.length(), from, to - from);
+        int end = dataEnd(src, from, to);
+        int size = decodedLength(to - from, end - from);
+        Preconditions.checkArrayAndRange(dst, dstOff, size);
+        return decodeChars(src, from, end, dst, dstOff);
+    }
+
+    /**
+     * Decode a range of chars, and write the bytes into ByteBuffer.
+     * The bytes are written at the current position of buffer, and the position is advanced.
+     *
+     * @param src  the encoded chars
+     * @param from the start index of chars, inclusive
+     * @param to   the end index of chars, exclusive
+     * @param dst  the buffer to write decoded bytes
+     * @return the count of bytes written
+     * @throws BufferOverflowException if buffer has not enough remaining space
+     */
+    public int decode(CharSequence src, int from, int to, ByteBuffer dst) {
+        Preconditions.checkSubRange(src.length(), from, to - from);
+        int end = dataEnd(src, from, to);
+        int size = decodedLength(to - from, end - from);
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            decodeChars(src, from, end, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + size);
+            return size;
+        }
+        byte[] chunk = new byte[Math.min(size, bytesPerBlock * CHUNK_BLOCKS)];
+        int step = charsPerBlock * CHUNK_BLOCKS;
+        for (int i = from; i < end; i += step) {
+            int n = decodeChars(src, i, Math.min(end, i + step), chunk, 0);
+            dst.put(chunk, 0, n);
+        }
+        return size;
+    }
+
+    /**
+     * Decode a range of ascii chars bytes, and write the bytes into byte array.
+     *
+     * @param src    the encoded ascii chars
+     * @param from   the start index of src, inclusive
+     * @param to     the end index of src, exclusive
+     * @param dst    the byte array to write decoded bytes
+     * @param dstOff the offset of byte array to start writing
+     * @return the count of bytes written
+     * @throws IndexOutOfBoundsException if range out of src or dst
+     */
+    public int decode(byte[] src, int from, int to, byte[] dst, int dstOff) {
+        Preconditions.checkArrayAndRange(src, from, to - from);
+        int end = dataEnd(src, from, to);
+        int size = decodedLength(to - from, end - from);
+        Preconditions.checkArrayAndRange(dst, dstOff, size);
+        return decodeBytes(src, from, end, dst, dstOff);
+    }
+
+    /**
+     * Decode a range of ascii chars bytes, and write the bytes into ByteBuffer.
+     * The bytes are written at the current position of buffer, and the position is advanced.
+     *
+     * @param src  the encoded ascii chars
+     * @param from the start index of src, inclusive
+     * @param to   the end index of src, exclusive
+     * @param dst  the buffer to write decoded bytes
+     * @return the count of bytes written
+     * @throws BufferOverflowException if buffer has not enough remaining space
+     */
+    public int decode(byte[] src, int from, int to, ByteBuffer dst) {
+        Preconditions.checkArrayAndRange(src, from, to - from);
+        int end = dataEnd(src, from, to);
+        int size = decodedLength(to - from, end - from);
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            decodeBytes(src, from, end, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + size);
+            return size;
+        }
+        byte[] chunk = new byte[Math.min(size, bytesPerBlock * CHUNK_BLOCKS)];
+        int step = charsPerBlock * CHUNK_BLOCKS;
+        for (int i = from; i < end; i += step) {
+            int n = decodeBytes(src, i, Math.min(end, i + step), chunk, 0);
+            dst.put(chunk, 0, n);
+        }
+        return size;
+    }
+
+    /**
+     * Wrap a Reader which contains encoded chars, return a InputStream, which read the decoded bytes.
+     * Data is processed in bounded chunks with reused buffers, so memory is constant despite the data size.
+     * If the Reader contains illegal chars, read methods throw decode exception.
+     * Close the InputStream will also close the Reader.
+     *
+     * @param reader the Reader contains encoded chars
+     * @return the InputStream
+     */
+    public InputStream wrap(Reader reader) {
+        requireNonNull(reader);
+        char[] in = new char[charsPerBlock * CHUNK_BLOCKS];
+        CharBuffer inBuffer = CharBuffer.wrap(in);
+        return new DecodeStream() {
+            @Override
+            int readEncoded(int offset) throws IOException {
+                return reader.read(in, offset, in.length - offset);
+            }
+
+            @Override
+            void compact(int from, int to) {
+                System.arraycopy(in, from, in, 0, to - from);
+            }
+
+            @Override
+            int dataEnd(int from, int to) {
+                return BlockDecoder.this.dataEnd(inBuffer, from, to);
+            }
+
+            @Override
+            int decodeEncoded(int from, int to, byte[] out, long indexBase) {
+                return decodeChars(inBuffer, from, to, out, 0, indexBase);
+            }
+
+            @Override
+            void closeSource() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Wrap a InputStream which contains encoded ascii chars, return a new InputStream, which read the decoded bytes.
+     * Data is processed in bounded chunks with reused buffers, so memory is constant despite the data size.
+     * If the original InputStream contains illegal chars, read methods throw decode exception.
+     * Close the returned InputStream will also close the original InputStream.
+     *
+     * @param input the InputStream contains encoded ascii chars
+     * @return the InputStream
+     */
+    public InputStream wrap(InputStream input) {
+        requireNonNull(input);
+        byte[] in = new byte[charsPerBlock * CHUNK_BLOCKS];
+        return new DecodeStream() {
+            @Override
+            int readEncoded(int offset) throws IOException {
+                return input.read(in, offset, in.length - offset);
+            }
+
+            @Override
+            void compact(int from, int to) {
+                System.arraycopy(in, from, in, 0, to - from);
+            }
+
+            @Override
+            int dataEnd(int from, int to) {
+                return BlockDecoder.this.dataEnd(in, from, to);
+            }
+
+            @Override
+            int decodeEncoded(int from, int to, byte[] out, long indexBase) {
+                return decodeBytes(in, from, to, out, 0, indexBase);
+            }
+
+            @Override
+            void closeSource() throws IOException {
+                input.close();
+            }
+        };
+    }
+
+    /**
+     * Return the end index of data chars, with tailing padding chars excluded.
+     */
+    private int dataEnd(CharSequence src, int from, int to) {
+        int end = to;
+        while (end > from && to - end < charsPerBlock - 1 && src.charAt(end - 1) == PAD) {
+            end--;
+        }
+        return end;
+    }
+
+    private int dataEnd(byte[] src, int from, int to) {
+        int end = to;
+        while (end > from && to - end < charsPerBlock - 1 && src[end - 1] == PAD) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Check the chars count, and return the decoded bytes count.
+     *
+     * @param len     the chars count, with padding chars
+     * @param dataLen the chars count, without padding chars
+     */
+    private int decodedLength(int len, int dataLen) {
+        if (len != dataLen && len % charsPerBlock != 0) {
+            throw decodeException("Invalid padding with chars count: " + len);
+        }
+        int remain = dataLen % charsPerBlock;
+        int remainBytes = remain * bitsPerChar / 8;
+        if ((remainBytes * 8 + bitsPerChar - 1) / bitsPerChar != remain) {
+            throw decodeException("Invalid chars count: " + dataLen);
+        }
+        return dataLen / charsPerBlock * bytesPerBlock + remainBytes;
+    }
+
+    private int decodeChars(CharSequence src, int from, int end, byte[] dst, int dstOff) {
+        return decodeChars(src, from, end, dst, dstOff, 0);
+    }
+
+    /**
+     * Decode chars in [from, end). The index in error message is indexBase plus the index in src.
+     */
+    private int decodeChars(CharSequence src, int from, int end, byte[] dst, int dstOff, long indexBase) {
+        byte[] values = this.values;
+        int bulkEnd = end - (end - from) % charsPerBlock;
+        int j = dstOff;
+        for (int i = from; i < bulkEnd; i += charsPerBlock) {
+            long bits = 0;
+            int check = 0;
+            for (int k = i; k < i + charsPerBlock; k++) {
+                char c = src.charAt(k);
+                int v = c < 128 ? values[c] : -1;
+                check |= v;
+                bits = (bits << bitsPerChar) | v;
+            }
+            if (check < 0) {
+                throw illegalChar(src, i, i + charsPerBlock, indexBase);
+            }
+            j = writeBlock(bits, bytesPerBlock, dst, j);
+        }
+        int remain = end - bulkEnd;
+        if (remain != 0) {
+            long bits = 0;
+            int check = 0;
+            for (int k = bulkEnd; k < end; k++) {
+                char c = src.charAt(k);
+                int v = c < 128 ? values[c] : -1;
+                check |= v;
+                bits = (bits << bitsPerChar) | v;
+            }
+            if (check < 0) {
+                throw illegalChar(src, bulkEnd, end, indexBase);
+            }
+            int bytes = remain * bitsPerChar / 8;
+            j = writeBlock(bits >>> (remain * bitsPerChar - bytes * 8), bytes, dst, j);
+        }
+        return j - dstOff;
+    }
+
+    private int decodeBytes(byte[] src, int from, int end, byte[] dst, int dstOff) {
+        return decodeBytes(src, from, end, dst, dstOff, 0);
+    }
+
+    /**
+     * Decode chars in [from, end). The index in error message is indexBase plus the index in src.
+     */
+    private int decodeBytes(byte[] src, int from, int end, byte[] dst, int dstOff, long indexBase) {
+        byte[] values = this.values;
+        int bulkEnd = end - (end - from) % charsPerBlock;
+        int j = dstOff;
+        for (int i = from; i < bulkEnd; i += charsPerBlock) {
+            long bits = 0;
+            int check = 0;
+            for (int k = i; k < i + charsPerBlock; k++) {
+                byte c = src[k];
+                int v = c >= 0 ? values[c] : -1;
+                check |= v;
+                bits = (bits << bitsPerChar) | v;
+            }
+            if (check < 0) {
+                throw illegalChar(src, i, i + charsPerBlock, indexBase);
+            }
+            j = writeBlock(bits, bytesPerBlock, dst, j);
+        }
+        int remain = end - bulkEnd;
+        if (remain != 0) {
+            long bits = 0;
+            int check = 0;
+            for (int k = bulkEnd; k < end; k++) {
+                byte c = src[k];
+                int v = c >= 0 ? values[c] : -1;
+                check |= v;
+                bits = (bits << bitsPerChar) | v;
+            }
+            if (check < 0) {
+                throw illegalChar(src, bulkEnd, end, indexBase);
+            }
+            int bytes = remain * bitsPerChar / 8;
+            j = writeBlock(bits >>> (remain * bitsPerChar - bytes * 8), bytes, dst, j);
+        }
+        return j - dstOff;
+    }
+
+    /**
+     * Write the lowest count bytes of bits, in big-endian order.
+     */
+    private static int writeBlock(long bits, int count, byte[] dst, int offset) {
+        for (int k = count - 1; k >= 0; k--) {
+            dst[offset + k] = (byte) bits;
+            bits >>>= 8;
+        }
+        return offset + count;
+    }
+
+    private RuntimeException illegalChar(CharSequence src, int from, int to, long indexBase) {
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            if (c >= 128 || values[c] < 0) {
+                return decodeException("Illegal character " + c + " at index " + (indexBase + i));
+            }
+        }
+        return decodeException("Illegal characters at index " + (indexBase + from));
+    }
+
+    private RuntimeException illegalChar(byte[] src, int from, int to, long indexBase) {
+        for (int i = from; i < to; i++) {
+            byte c = src[i];
+            if (c < 0 || values[c] < 0) {
+                return decodeException("Illegal character " + (char) (c & 0xFF) + " at index " + (indexBase + i));
+            }
+        }
+        return decodeException("Illegal characters at index " + (indexBase + from));
+    }
+
+    /**
+     * InputStream which reads encoded chars into buffer, and decode the whole blocks. The last block is held back
+     * until the end of source reached, because it may contain padding chars.
+     */
+    private abstract class DecodeStream extends InputStream {
+        private final byte[] out = new byte[bytesPerBlock * CHUNK_BLOCKS];
+        private int outPos;
+        private int outLimit;
+        // chars in buffer
+        private int limit;
+        // count of chars decoded and removed from buffer, for the index in error message
+        private long consumed;
+        private boolean eof;
+        private boolean closed;
+
+        /**
+         * Read encoded chars to the buffer, from offset to buffer end.
+         */
+        abstract int readEncoded(int offset) throws IOException;
+
+        /**
+         * Move chars in [from, to) to the buffer start.
+         */
+        abstract void compact(int from, int to);
+
+        abstract int dataEnd(int from, int to);
+
+        /**
+         * Decode chars in [from, to) of the buffer. The indexBase is added to the index in error message.
+         */
+        abstract int decodeEncoded(int from, int to, byte[] out, long indexBase);
+
+        abstract void closeSource() throws IOException;
+
+        @Override
+        public int read() throws IOException {
+            ensureOpen();
+            if (!fill()) {
+                return -1;
+            }
+            return out[outPos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Preconditions.checkArrayAndRange(b, off, len);
+            ensureOpen();
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, outLimit - outPos);
+            System.arraycopy(out, outPos, b, off, n);
+            outPos += n;
+            return n;
+        }
+
+        /**
+         * Decode more bytes if all decoded bytes are consumed.
+         *
+         * @return false if no more bytes
+         */
+        private boolean fill() throws IOException {
+            while (outPos == outLimit) {
+                if (eof) {
+                    if (limit == 0) {
+                        return false;
+                    }
+                    int end = dataEnd(0, limit);
+                    decodedLength(limit, end);
+                    outLimit = decodeEncoded(0, end, out, consumed);
+                    outPos = 0;
+                    limit = 0;
+                    continue;
+                }
+                int read = readEncoded(limit);
+                if (read < 0) {
+                    eof = true;
+                    continue;
+                }
+                limit += read;
+                // keep at least one char, so the last block is not decoded before eof
+                int whole = (limit - 1) / charsPerBlock * charsPerBlock;
+                if (whole > 0) {
+                    outLimit = decodeEncoded(0, whole, out, consumed);
+                    outPos = 0;
+                    compact(whole, limit);
+                    limit -= whole;
+                    consumed += whole;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return outLimit - outPos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                closeSource();
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+}
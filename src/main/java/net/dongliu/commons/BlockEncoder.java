@@ -0,0 +1,452 @@
+package net.dongliu.commons;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base encoder for binary-to-text encodings which convert each block of bytes to a fixed count of chars,
+ * such as base64(3 bytes to 4 chars) and base32(5 bytes to 8 chars).
+ * The last block may be partial, and is padded with '=' if padding is enabled.
+ * This class is immutable, and can be reused.
+ */
+abstract class BlockEncoder {
+    private static final char PAD = '=';
+    // blocks count of chunk, used when write to Appendable, ByteBuffer, and streams
+    private static final int CHUNK_BLOCKS = 1024;
+
+    private final char[] alphabet;
+    private final byte[] byteAlphabet;
+    private final int bitsPerChar;
+    private final int bytesPerBlock;
+    private final int charsPerBlock;
+    private final int mask;
+    private final boolean padding;
+
+    BlockEncoder(char[] alphabet, int bitsPerChar, int bytesPerBlock, boolean padding) {
+        this.alphabet = alphabet;
+        this.byteAlphabet = new byte[alphabet.length];
+        for (int i = 0; i < alphabet.length; i++) {
+            byteAlphabet[i] = (byte) alphabet[i];
+        }
+        this.bitsPerChar = bitsPerChar;
+        this.bytesPerBlock = bytesPerBlock;
+        this.charsPerBlock = bytesPerBlock * 8 / bitsPerChar;
+        this.mask = (1 << bitsPerChar) - 1;
+        this.padding = padding;
+    }
+
+    /**
+     * If this encoder append padding chars to the last partial block.
+     *
+     * @return if padding is enabled
+     */
+    public boolean padding() {
+        return padding;
+    }
+
+    /**
+     * Return the count of chars of encoded result, for bytes with len.
+     *
+     * @param len the bytes count
+     * @return the chars count
+     * @throws ArithmeticException if the result overflows an int
+     */
+    public int encodedLength(int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("invalid len: " + len);
+        }
+        long size = (long) (len / bytesPerBlock) * charsPerBlock;
+        int remain = len % bytesPerBlock;
+        if (remain != 0) {
+            size += padding ? charsPerBlock : (remain * 8 + bitsPerChar - 1) / bitsPerChar;
+        }
+        return Math.toIntExact(size);
+    }
+
+    /**
+     * Encode bytes to a String.
+     *
+     * @param data the bytes to encode
+     * @return the encoded String
+     */
+    public String encode(byte[] data) {
+        requireNonNull(data);
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * Encode a range of bytes to a String.
+     *
+     * @param data   the bytes to encode
+     * @param offset the offset of data
+     * @param len    the count of bytes to encode
+     * @return the encoded String
+     */
+    public String encode(byte[] data, int offset, int len) {
+        Preconditions.checkArrayAndRange(data, offset, len);
+        char[] chars = new char[encodedLength(len)];
+        encodeChars(data, offset, len, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Write encoded chars of a range of bytes into char array.
+     *
+     * @param src    the bytes to encode
+     * @param srcOff the offset of bytes
+     * @param len    the count of bytes to encode
+     * @param dst    the char array to write encoded chars
+     * @param dstOff the offset of char array to start writing
+     * @return the count of chars written
+     * @throws IndexOutOfBoundsException if range out of arrays, or char array has not enough space
+     */
+    public int encode(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        Preconditions.checkArrayAndRange(src, srcOff, len);
+        Preconditions.checkArrayAndRange(dst, dstOff, encodedLength(len));
+        return encodeChars(src, srcOff, len, dst, dstOff);
+    }
+
+    /**
+     * Write encoded chars of a range of bytes into byte array, as ascii bytes.
+     *
+     * @param src    the bytes to encode
+     * @param srcOff the offset of bytes
+     * @param len    the count of bytes to encode
+     * @param dst    the byte array to write encoded chars
+     * @param dstOff the offset of byte array to start writing
+     * @return the count of bytes written
+     * @throws IndexOutOfBoundsException if range out of arrays, or dst array has not enough space
+     */
+    public int encode(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        Preconditions.checkArrayAndRange(src, srcOff, len);
+        Preconditions.checkArrayAndRange(dst, dstOff, encodedLength(len));
+        return encodeBytes(src, srcOff, len, dst, dstOff);
+    }
+
+    /**
+     * Write encoded chars of a range of bytes into ByteBuffer, as ascii bytes.
+     * The chars are written at the current position of buffer, and the position is advanced.
+     *
+     * @param src    the bytes to encode
+     * @param srcOff the offset of bytes
+     * @param len    the count of bytes to encode
+     * @param dst    the buffer to write encoded chars
+     * @return the count of bytes written
+     * @throws BufferOverflowException if buffer has not enough remaining space
+     */
+    public int encode(byte[] src, int srcOff, int len, ByteBuffer dst) {
+        Preconditions.checkArrayAndRange(src, srcOff, len);
+        int size = encodedLength(len);
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            encodeBytes(src, srcOff, len, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + size);
+            return size;
+        }
+        int step = bytesPerBlock * CHUNK_BLOCKS;
+        byte[] chunk = new byte[Math.min(size, charsPerBlock * CHUNK_BLOCKS)];
+        for (int i = srcOff; i < srcOff + len; i += step) {
+            int n = encodeBytes(src, i, Math.min(step, srcOff + len - i), chunk, 0);
+            dst.put(chunk, 0, n);
+        }
+        return size;
+    }
+
+    /**
+     * Append encoded chars of a range of bytes to StringBuilder.
+     *
+     * @param src    the bytes to encode
+     * @param srcOff the offset of bytes
+     * @param len    the count of bytes to encode
+     * @param sb     the StringBuilder to append encoded chars
+     * @return the StringBuilder
+     */
+    public StringBuilder encode(byte[] src, int srcOff, int len, StringBuilder sb) {
+        Preconditions.checkArrayAndRange(src, srcOff, len);
+        int size = encodedLength(len);
+        sb.ensureCapacity(sb.length() + size);
+        int step = bytesPerBlock * CHUNK_BLOCKS;
+        char[] chunk = new char[Math.min(size, charsPerBlock * CHUNK_BLOCKS)];
+        for (int i = srcOff; i < srcOff + len; i += step) {
+            int n = encodeChars(src, i, Math.min(step, srcOff + len - i), chunk, 0);
+            sb.append(chunk, 0, n);
+        }
+        return sb;
+    }
+
+    /**
+     * Append encoded chars of a range of bytes to Appendable.
+     *
+     * @param src        the bytes to encode
+     * @param srcOff     the offset of bytes
+     * @param len        the count of bytes to encode
+     * @param appendable the Appendable to append encoded chars
+     * @param <T>        the Appendable type
+     * @return the appendable
+     * @throws IOException if appendable throws IOException
+     */
+    public <T extends Appendable> T encode(byte[] src, int srcOff, int len, T appendable) throws IOException {
+        if (appendable instanceof StringBuilder) {
+            encode(src, srcOff, len, (StringBuilder) appendable);
+            return appendable;
+        }
+        Preconditions.checkArrayAndRange(src, srcOff, len);
+        int step = bytesPerBlock * CHUNK_BLOCKS;
+        char[] chunk = new char[Math.min(encodedLength(len), charsPerBlock * CHUNK_BLOCKS)];
+        CharBuffer chunkBuffer = CharBuffer.wrap(chunk);
+        for (int i = srcOff; i < srcOff + len; i += step) {
+            int n = encodeChars(src, i, Math.min(step, srcOff + len - i), chunk, 0);
+            if (appendable instanceof Writer) {
+                ((Writer) appendable).write(chunk, 0, n);
+            } else {
+                appendable.append(chunkBuffer, 0, n);
+            }
+        }
+        return appendable;
+    }
+
+    /**
+     * Wrap a Writer, return a OutputStream, which encode all bytes written to it, and write chars to the Writer.
+     * Data is processed in bounded chunks with reused buffers, so memory is constant despite the data size.
+     * The last partial block is only written when the OutputStream is closed; close the OutputStream will also
+     * close the Writer.
+     *
+     * @param writer the writer to write encoded chars
+     * @return the OutputStream
+     */
+    public OutputStream wrap(Writer writer) {
+        requireNonNull(writer);
+        char[] out = new char[charsPerBlock * CHUNK_BLOCKS];
+        return new EncodeStream() {
+            @Override
+            void writeEncoded(byte[] buffer, int len) throws IOException {
+                int n = encodeChars(buffer, 0, len, out, 0);
+                writer.write(out, 0, n);
+            }
+
+            @Override
+            void flushTarget() throws IOException {
+                writer.flush();
+            }
+
+            @Override
+            void closeTarget() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * Wrap a OutputStream, return a new OutputStream, which encode all bytes written to it, and write encoded chars
+     * to the original OutputStream as ascii bytes.
+     * Data is processed in bounded chunks with reused buffers, so memory is constant despite the data size.
+     * The last partial block is only written when the returned OutputStream is closed; close the returned
+     * OutputStream will also close the original OutputStream.
+     *
+     * @param output the OutputStream to write encoded chars
+     * @return the OutputStream
+     */
+    public OutputStream wrap(OutputStream output) {
+        requireNonNull(output);
+        byte[] out = new byte[charsPerBlock * CHUNK_BLOCKS];
+        return new EncodeStream() {
+            @Override
+            void writeEncoded(byte[] buffer, int len) throws IOException {
+                int n = encodeBytes(buffer, 0, len, out, 0);
+                output.write(out, 0, n);
+            }
+
+            @Override
+            void flushTarget() throws IOException {
+                output.flush();
+            }
+
+            @Override
+            void closeTarget() throws IOException {
+                output.close();
+            }
+        };
+    }
+
+    private int encodeChars(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        char[] alphabet = this.alphabet;
+        int bulkEnd = srcOff + len - len % bytesPerBlock;
+        int i = srcOff;
+        int j = dstOff;
+        if (bytesPerBlock == 3) {
+            for (; i < bulkEnd; i += 3) {
+                int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+                dst[j++] = alphabet[bits >>> 18];
+                dst[j++] = alphabet[(bits >>> 12) & 0x3F];
+                dst[j++] = alphabet[(bits >>> 6) & 0x3F];
+                dst[j++] = alphabet[bits & 0x3F];
+            }
+        } else {
+            for (; i < bulkEnd; i += bytesPerBlock) {
+                long bits = readBlock(src, i, bytesPerBlock);
+                for (int k = charsPerBlock - 1; k >= 0; k--) {
+                    dst[j + k] = alphabet[(int) bits & mask];
+                    bits >>>= bitsPerChar;
+                }
+                j += charsPerBlock;
+            }
+        }
+        int remain = srcOff + len - bulkEnd;
+        if (remain != 0) {
+            long bits = readBlock(src, bulkEnd, remain);
+            int chars = (remain * 8 + bitsPerChar - 1) / bitsPerChar;
+            for (int k = charsPerBlock - 1; k >= 0; k--) {
+                if (k < chars) {
+                    dst[j + k] = alphabet[(int) bits & mask];
+                } else if (padding) {
+                    dst[j + k] = PAD;
+                }
+                bits >>>= bitsPerChar;
+            }
+            j += padding ? charsPerBlock : chars;
+        }
+        return j - dstOff;
+    }
+
+    private int encodeBytes(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        byte[] alphabet = this.byteAlphabet;
+        int bulkEnd = srcOff + len - len % bytesPerBlock;
+        int i = srcOff;
+        int j = dstOff;
+        if (bytesPerBlock == 3) {
+            for (; i < bulkEnd; i += 3) {
+                int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+                dst[j++] = alphabet[bits >>> 18];
+                dst[j++] = alphabet[(bits >>> 12) & 0x3F];
+                dst[j++] = alphabet[(bits >>> 6) & 0x3F];
+                dst[j++] = alphabet[bits & 0x3F];
+            }
+        } else {
+            for (; i < bulkEnd; i += bytesPerBlock) {
+                long bits = readBlock(src, i, bytesPerBlock);
+                for (int k = charsPerBlock - 1; k >= 0; k--) {
+                    dst[j + k] = alphabet[(int) bits & mask];
+                    bits >>>= bitsPerChar;
+                }
+                j += charsPerBlock;
+            }
+        }
+        int remain = srcOff + len - bulkEnd;
+        if (remain != 0) {
+            long bits = readBlock(src, bulkEnd, remain);
+            int chars = (remain * 8 + bitsPerChar - 1) / bitsPerChar;
+            for (int k = charsPerBlock - 1; k >= 0; k--) {
+                if (k < chars) {
+                    dst[j + k] = alphabet[(int) bits & mask];
+                } else if (padding) {
+                    dst[j + k] = PAD;
+                }
+                bits >>>= bitsPerChar;
+            }
+            j += padding ? charsPerBlock : chars;
+        }
+        return j - dstOff;
+    }
+
+    /**
+     * Read count bytes as big-endian value, and shift the value as if the block is full, and the missing bytes
+     * are zero.
+     */
+    private long readBlock(byte[] src, int offset, int count) {
+        long bits = 0;
+        for (int i = offset; i < offset + count; i++) {
+            bits = (bits << 8) | (src[i] & 0xFF);
+        }
+        bits <<= 8 * (bytesPerBlock - count);
+        // drop the extra bits when block bits count is not multiple of bitsPerChar
+        return bits >>> (bytesPerBlock * 8 - charsPerBlock * bitsPerChar);
+    }
+
+    /**
+     * OutputStream which buffers written bytes, and encode the buffered whole blocks when buffer is full.
+     */
+    private abstract class EncodeStream extends OutputStream {
+        private final byte[] buffer = new byte[bytesPerBlock * CHUNK_BLOCKS];
+        private int count;
+        private boolean closed;
+
+        abstract void writeEncoded(byte[] buffer, int len) throws IOException;
+
+        abstract void flushTarget() throws IOException;
+
+        abstract void closeTarget() throws IOException;
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Preconditions.checkArrayAndRange(b, off, len);
+            ensureOpen();
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            writeEncoded(buffer, count);
+            count = 0;
+        }
+
+        /**
+         * Encode and write the buffered whole blocks, the last partial block is kept until more data written,
+         * or the stream closed.
+         */
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            int whole = count - count % bytesPerBlock;
+            if (whole > 0) {
+                writeEncoded(buffer, whole);
+                System.arraycopy(buffer, whole, buffer, 0, count - whole);
+                count -= whole;
+            }
+            flushTarget();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flushBuffer();
+            } finally {
+                closeTarget();
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+}
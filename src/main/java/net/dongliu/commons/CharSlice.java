@@ -0,0 +1,68 @@
+package net.dongliu.commons;
+
+/**
+ * A read-only view of a range of chars in another CharSequence, without copying.
+ * Two slices are equal if they have the same chars, and the hash code is the same as the String with the same chars.
+ */
+final class CharSlice implements CharSequence {
+    private final CharSequence source;
+    private final int offset;
+    private final int length;
+
+    private CharSlice(CharSequence source, int offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Create a view of source in range [start, end). The range is not checked.
+     * If the range covers the whole source, return source self.
+     */
+    static CharSequence of(CharSequence source, int start, int end) {
+        if (start == 0 && end == source.length()) {
+            return source;
+        }
+        if (source instanceof CharSlice) {
+            CharSlice slice = (CharSlice) source;
+            return new CharSlice(slice.source, slice.offset + start, end - start);
+        }
+        return new CharSlice(source, start, end - start);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return source.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Preconditions.checkSubRange(length, start, end - start);
+        return new CharSlice(source, offset + start, end - start);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CharSlice)) return false;
+        return Strings.contentEquals(this, (CharSlice) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Strings.contentHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(offset, offset + length).toString();
+    }
+}
@@ -2,6 +2,12 @@ package net.dongliu.commons;
 
 import net.dongliu.commons.exception.HexDecodeException;
 
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -42,9 +48,25 @@ public class Hexes {
 
     private static final Lazy<Decoder> decoder = Lazy.of(Decoder::new);
 
+    // the buffer size used by streaming encoder and decoder
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    // the bytes count, above which the encoder and decoder process eight bytes at a time
+    private static final int SWAR_THRESHOLD = 32;
+
+    private static void ensureOpen(boolean closed) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
     /**
      * The class for configuring and performing hex encode, using fluent api.
      * This class is immutable, and can be reused.
+     * <p>
+     * Encoding is driven by a precomputed table, which hold the two hex chars for each of the 256 byte values.
+     * Besides the methods return String, there are methods which write hex chars into caller-supplied char array,
+     * ascii byte array, ByteBuffer or Appendable, without creating intermediate objects.
+     * </p>
      */
     public static class Encoder {
         private static final char[] HEX_CHARS_LOWER = {
@@ -56,13 +78,29 @@ public class Hexes {
                 '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
                 'A', 'B', 'C', 'D', 'E', 'F'
         };
-        private final boolean uppercase;
+        // chars buffer size used when write to Appendable
+        private static final int CHUNK_SIZE = 512;
+
+        // the two hex chars of byte value b, are at index 2*b and 2*b+1
+        private final char[] charPairs;
+        // the same with charPairs, but with ascii bytes
+        private final byte[] bytePairs;
+        // the distance from ('0' + 10) to the first letter hex char
+        private final long letterOffset;
 
         private Encoder(boolean uppercase) {
-            this.uppercase = uppercase;
+            char[] hexChars = uppercase ? HEX_CHARS_UPPER : HEX_CHARS_LOWER;
+            this.letterOffset = hexChars[10] - '0' - 10;
+            this.charPairs = new char[512];
+            this.bytePairs = new byte[512];
+            for (int i = 0; i < 256; i++) {
+                charPairs[i << 1] = hexChars[i >>> 4];
+                charPairs[(i << 1) + 1] = hexChars[i & 0x0F];
+                bytePairs[i << 1] = (byte) charPairs[i << 1];
+                bytePairs[(i << 1) + 1] = (byte) charPairs[(i << 1) + 1];
+            }
         }
 
-
         /**
          * Converts an array of bytes into a String representing the hexadecimal values of each byte in order.
          *
@@ -71,23 +109,388 @@ public class Hexes {
          */
         public String encode(byte[] data) {
             requireNonNull(data);
-            return encode(data, uppercase ? HEX_CHARS_UPPER : HEX_CHARS_LOWER);
+            return encode(data, 0, data.length);
+        }
+
+        /**
+         * Converts a range of bytes into a String representing the hexadecimal values of each byte in order.
+         *
+         * @param data   a byte[] to convert to Hex characters
+         * @param offset the offset of data
+         * @param len    the count of bytes to convert
+         * @return A String containing hexadecimal characters
+         */
+        public String encode(byte[] data, int offset, int len) {
+            Preconditions.checkArrayAndRange(data, offset, len);
+            char[] chars = new char[encodedLength(len)];
+            encodeChars(data, offset, len, chars, 0);
+            return new String(chars);
+        }
+
+        /**
+         * Write hex chars of a range of bytes into char array.
+         *
+         * @param src    the bytes to convert
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to convert
+         * @param dst    the char array to write hex chars
+         * @param dstOff the offset of char array to start writing
+         * @return the count of chars written, always be 2 * len
+         * @throws IndexOutOfBoundsException if range out of arrays, or char array has not enough space
+         */
+        public int encode(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            int size = encodedLength(len);
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            encodeChars(src, srcOff, len, dst, dstOff);
+            return size;
+        }
+
+        /**
+         * Write hex chars of a range of bytes into byte array, as ascii bytes.
+         *
+         * @param src    the bytes to convert
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to convert
+         * @param dst    the byte array to write hex chars
+         * @param dstOff the offset of byte array to start writing
+         * @return the count of bytes written, always be 2 * len
+         * @throws IndexOutOfBoundsException if range out of arrays, or dst array has not enough space
+         */
+        public int encode(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            int size = encodedLength(len);
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            encodeBytes(src, srcOff, len, dst, dstOff);
+            return size;
+        }
+
+        /**
+         * Write hex chars of a range of bytes into ByteBuffer, as ascii bytes.
+         * The hex chars are written at the current position of buffer, and the position is advanced.
+         *
+         * @param src    the bytes to convert
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to convert
+         * @param dst    the buffer to write hex chars
+         * @return the count of bytes written, always be 2 * len
+         * @throws BufferOverflowException if buffer has not enough remaining space
+         */
+        public int encode(byte[] src, int srcOff, int len, ByteBuffer dst) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            int size = encodedLength(len);
+            if (dst.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+            if (dst.hasArray()) {
+                encodeBytes(src, srcOff, len, dst.array(), dst.arrayOffset() + dst.position());
+                dst.position(dst.position() + size);
+                return size;
+            }
+            for (int i = srcOff; i < srcOff + len; i++) {
+                int idx = (src[i] & 0xFF) << 1;
+                dst.put(bytePairs[idx]);
+                dst.put(bytePairs[idx + 1]);
+            }
+            return size;
+        }
+
+        /**
+         * Append hex chars of a range of bytes to StringBuilder.
+         *
+         * @param src    the bytes to convert
+         * @param srcOff the offset of bytes
+         * @param len    the count of bytes to convert
+         * @param sb     the StringBuilder to append hex chars
+         * @return the StringBuilder
+         */
+        public StringBuilder encode(byte[] src, int srcOff, int len, StringBuilder sb) {
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            sb.ensureCapacity(sb.length() + encodedLength(len));
+            for (int i = srcOff; i < srcOff + len; i++) {
+                int idx = (src[i] & 0xFF) << 1;
+                sb.append(charPairs[idx]).append(charPairs[idx + 1]);
+            }
+            return sb;
+        }
+
+        /**
+         * Append hex chars of a range of bytes to Appendable.
+         *
+         * @param src        the bytes to convert
+         * @param srcOff     the offset of bytes
+         * @param len        the count of bytes to convert
+         * @param appendable the Appendable to append hex chars
+         * @param <T>        the Appendable type
+         * @return the appendable
+         * @throws IOException if appendable throws IOException
+         */
+        public <T extends Appendable> T encode(byte[] src, int srcOff, int len, T appendable) throws IOException {
+            if (appendable instanceof StringBuilder) {
+                encode(src, srcOff, len, (StringBuilder) appendable);
+                return appendable;
+            }
+            Preconditions.checkArrayAndRange(src, srcOff, len);
+            char[] chunk = new char[Math.min(CHUNK_SIZE, encodedLength(len))];
+            CharBuffer chunkBuffer = CharBuffer.wrap(chunk);
+            int step = chunk.length >> 1;
+            for (int i = srcOff; i < srcOff + len; i += step) {
+                int n = Math.min(step, srcOff + len - i);
+                encodeChars(src, i, n, chunk, 0);
+                if (appendable instanceof Writer) {
+                    ((Writer) appendable).write(chunk, 0, n << 1);
+                } else {
+                    appendable.append(chunkBuffer, 0, n << 1);
+                }
+            }
+            return appendable;
+        }
+
+        /**
+         * Wrap a Writer, return a OutputStream, which encode all bytes written to it as hex chars, and write to the
+         * Writer. Data is processed in bounded chunks with a reused buffer, so memory is constant despite the data
+         * size. Close the OutputStream will also close the Writer.
+         *
+         * @param writer the writer to write hex chars
+         * @return the OutputStream
+         */
+        public OutputStream wrap(Writer writer) {
+            return new WriterEncodeStream(this, requireNonNull(writer));
+        }
+
+        /**
+         * Wrap a OutputStream, return a new OutputStream, which encode all bytes written to it as hex chars, and
+         * write to the original OutputStream as ascii bytes. Data is processed in bounded chunks with a reused
+         * buffer, so memory is constant despite the data size. Close the returned OutputStream will also close the
+         * original OutputStream.
+         *
+         * @param out the OutputStream to write hex chars
+         * @return the OutputStream
+         */
+        public OutputStream wrap(OutputStream out) {
+            return new OutputEncodeStream(this, requireNonNull(out));
+        }
+
+        private void encodeChars(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+            char[] pairs = this.charPairs;
+            int j = dstOff;
+            for (int i = srcOff; i < srcOff + len; i++) {
+                int idx = (src[i] & 0xFF) << 1;
+                dst[j++] = pairs[idx];
+                dst[j++] = pairs[idx + 1];
+            }
+        }
+
+        private void encodeBytes(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+            if (len < SWAR_THRESHOLD) {
+                encodeBytesScalar(src, srcOff, len, dst, dstOff);
+                return;
+            }
+            int bulk = encodeBytesSwar(src, srcOff, len, dst, dstOff);
+            encodeBytesScalar(src, srcOff + bulk, len - bulk, dst, dstOff + (bulk << 1));
+        }
+
+        void encodeBytesScalar(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+            byte[] pairs = this.bytePairs;
+            int j = dstOff;
+            for (int i = srcOff; i < srcOff + len; i++) {
+                int idx = (src[i] & 0xFF) << 1;
+                dst[j++] = pairs[idx];
+                dst[j++] = pairs[idx + 1];
+            }
+        }
+
+        /**
+         * Encode bytes eight at a time: read eight bytes as a long, and expand them to sixteen ascii hex chars
+         * held in two longs.
+         *
+         * @return the count of bytes encoded, the remaining bytes (less than 8) are not processed
+         */
+        int encodeBytesSwar(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+            ByteBuffer in = ByteBuffer.wrap(src);
+            ByteBuffer out = ByteBuffer.wrap(dst);
+            int bulk = len & ~7;
+            int j = dstOff;
+            for (int i = srcOff; i < srcOff + bulk; i += 8) {
+                long v = in.getLong(i);
+                out.putLong(j, expand((int) (v >>> 32)));
+                out.putLong(j + 8, expand((int) v));
+                j += 16;
+            }
+            return bulk;
+        }
+
+        /**
+         * Expand four bytes to eight ascii hex chars, the first char is at the highest byte of result.
+         */
+        private long expand(int v) {
+            // spread each nibble to one byte: 0xABCDEFGH -> 0x0A0B0C0D0E0F0G0H
+            long x = v & 0xFFFFFFFFL;
+            x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+            x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+            x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+            // 1 at the bytes which nibble is larger than 9: adding 6 carries into bit 4 only for 10-15
+            long letters = ((x + 0x0606060606060606L) >>> 4) & 0x0101010101010101L;
+            return x + 0x3030303030303030L + letters * letterOffset;
+        }
+
+        private static int encodedLength(int len) {
+            return Math.multiplyExact(len, 2);
+        }
+
+        private static class WriterEncodeStream extends OutputStream {
+            private final Encoder encoder;
+            private final Writer writer;
+            private final char[] buffer = new char[STREAM_BUFFER_SIZE];
+            private int count;
+            private boolean closed;
+
+            private WriterEncodeStream(Encoder encoder, Writer writer) {
+                this.encoder = encoder;
+                this.writer = writer;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                ensureOpen(closed);
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                int idx = (b & 0xFF) << 1;
+                buffer[count++] = encoder.charPairs[idx];
+                buffer[count++] = encoder.charPairs[idx + 1];
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                Preconditions.checkArrayAndRange(b, off, len);
+                ensureOpen(closed);
+                while (len > 0) {
+                    if (count == buffer.length) {
+                        flushBuffer();
+                    }
+                    int n = Math.min(len, (buffer.length - count) >> 1);
+                    encoder.encodeChars(b, off, n, buffer, count);
+                    count += n << 1;
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            private void flushBuffer() throws IOException {
+                writer.write(buffer, 0, count);
+                count = 0;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                ensureOpen(closed);
+                flushBuffer();
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    flushBuffer();
+                } finally {
+                    writer.close();
+                }
+            }
         }
 
-        private String encode(byte[] data, char[] hexChars) {
-            StringBuilder sb = new StringBuilder(data.length * 2);
-            for (byte b : data) {
-                sb.append(hexChars[(0xF0 & b) >> 4]);
-                sb.append(hexChars[0x0F & b]);
+        private static class OutputEncodeStream extends OutputStream {
+            private final Encoder encoder;
+            private final OutputStream out;
+            private final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            private int count;
+            private boolean closed;
+
+            private OutputEncodeStream(Encoder encoder, OutputStream out) {
+                this.encoder = encoder;
+                this.out = out;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                ensureOpen(closed);
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                int idx = (b & 0xFF) << 1;
+                buffer[count++] = encoder.bytePairs[idx];
+                buffer[count++] = encoder.bytePairs[idx + 1];
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                Preconditions.checkArrayAndRange(b, off, len);
+                ensureOpen(closed);
+                while (len > 0) {
+                    if (count == buffer.length) {
+                        flushBuffer();
+                    }
+                    int n = Math.min(len, (buffer.length - count) >> 1);
+                    encoder.encodeBytes(b, off, n, buffer, count);
+                    count += n << 1;
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            private void flushBuffer() throws IOException {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                ensureOpen(closed);
+                flushBuffer();
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    flushBuffer();
+                } finally {
+                    out.close();
+                }
             }
-            return sb.toString();
         }
     }
 
     /**
      * Hex decoder. This class is immutable.
+     * <p>
+     * Decoding is driven by a 128-entry reverse table, which map ascii hex chars to their values, and other chars
+     * to -1. Besides the methods return new byte array, there are methods which decode a range of chars or ascii
+     * bytes into caller-supplied byte array or ByteBuffer.
+     * </p>
      */
     public static class Decoder {
+        // the value of hex char, or -1 if is not hex char
+        private static final byte[] VALUES = new byte[128];
+
+        static {
+            Arrays.fill(VALUES, (byte) -1);
+            for (int i = 0; i < 10; i++) {
+                VALUES['0' + i] = (byte) i;
+            }
+            for (int i = 0; i < 6; i++) {
+                VALUES['a' + i] = (byte) (10 + i);
+                VALUES['A' + i] = (byte) (10 + i);
+            }
+        }
 
         /**
          * Converts a string representing hexadecimal values into an array of bytes of those same values.
@@ -109,39 +512,429 @@ public class Hexes {
         public byte[] decode(CharSequence data) throws HexDecodeException {
             requireNonNull(data);
             int len = data.length();
+            byte[] result = new byte[decodedLength(len)];
+            decodeChars(data, 0, len, result, 0);
+            return result;
+        }
 
-            if ((len & 0x01) != 0) {
-                throw new HexDecodeException("Invalid hex characters with odd len: " + len);
+        /**
+         * Decode a range of hex chars, and write the bytes into byte array.
+         *
+         * @param src    the hex chars
+         * @param from   the start index of hex chars, inclusive
+         * @param to     the end index of hex chars, exclusive
+         * @param dst    the byte array to write decoded bytes
+         * @param dstOff the offset of byte array to start writing
+         * @return the count of bytes written, always be (to - from) / 2
+         * @throws IndexOutOfBoundsException if range out of src or dst
+         * @throws HexDecodeException        if chars count is odd, or has illegal hex char
+         */
+        public int decode(CharSequence src, int from, int to, byte[] dst, int dstOff) throws HexDecodeException {
+            Preconditions.checkSubRange(src.length(), from, to - from);
+            int size = decodedLength(to - from);
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            decodeChars(src, from, to, dst, dstOff);
+            return size;
+        }
+
+        /**
+         * Decode a range of hex chars, and write the bytes into ByteBuffer.
+         * The bytes are written at the current position of buffer, and the position is advanced.
+         *
+         * @param src  the hex chars
+         * @param from the start index of hex chars, inclusive
+         * @param to   the end index of hex chars, exclusive
+         * @param dst  the buffer to write decoded bytes
+         * @return the count of bytes written, always be (to - from) / 2
+         * @throws BufferOverflowException if buffer has not enough remaining space
+         * @throws HexDecodeException      if chars count is odd, or has illegal hex char
+         */
+        public int decode(CharSequence src, int from, int to, ByteBuffer dst) throws HexDecodeException {
+            Preconditions.checkSubRange(src.length(), from, to - from);
+            int size = decodedLength(to - from);
+            if (dst.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+            if (dst.hasArray()) {
+                decodeChars(src, from, to, dst.array(), dst.arrayOffset() + dst.position());
+                dst.position(dst.position() + size);
+                return size;
+            }
+            for (int i = from; i < to; i += 2) {
+                dst.put(decodePair(src.charAt(i), src.charAt(i + 1), i));
+            }
+            return size;
+        }
+
+        /**
+         * Decode a range of ascii hex chars bytes, and write the bytes into byte array.
+         *
+         * @param src    the ascii hex chars
+         * @param from   the start index of src, inclusive
+         * @param to     the end index of src, exclusive
+         * @param dst    the byte array to write decoded bytes
+         * @param dstOff the offset of byte array to start writing
+         * @return the count of bytes written, always be (to - from) / 2
+         * @throws IndexOutOfBoundsException if range out of src or dst
+         * @throws HexDecodeException        if chars count is odd, or has illegal hex char
+         */
+        public int decode(byte[] src, int from, int to, byte[] dst, int dstOff) throws HexDecodeException {
+            Preconditions.checkArrayAndRange(src, from, to - from);
+            int size = decodedLength(to - from);
+            Preconditions.checkArrayAndRange(dst, dstOff, size);
+            decodeBytes(src, from, to, dst, dstOff);
+            return size;
+        }
+
+        /**
+         * Decode a range of ascii hex chars bytes, and write the bytes into ByteBuffer.
+         * The bytes are written at the current position of buffer, and the position is advanced.
+         *
+         * @param src  the ascii hex chars
+         * @param from the start index of src, inclusive
+         * @param to   the end index of src, exclusive
+         * @param dst  the buffer to write decoded bytes
+         * @return the count of bytes written, always be (to - from) / 2
+         * @throws BufferOverflowException if buffer has not enough remaining space
+         * @throws HexDecodeException      if chars count is odd, or has illegal hex char
+         */
+        public int decode(byte[] src, int from, int to, ByteBuffer dst) throws HexDecodeException {
+            Preconditions.checkArrayAndRange(src, from, to - from);
+            int size = decodedLength(to - from);
+            if (dst.remaining() < size) {
+                throw new BufferOverflowException();
             }
+            if (dst.hasArray()) {
+                decodeBytes(src, from, to, dst.array(), dst.arrayOffset() + dst.position());
+                dst.position(dst.position() + size);
+                return size;
+            }
+            for (int i = from; i < to; i += 2) {
+                dst.put(decodePair((char) (src[i] & 0xFF), (char) (src[i + 1] & 0xFF), i));
+            }
+            return size;
+        }
+
+        /**
+         * Wrap a Reader which contains hex chars, return a InputStream, which read the decoded bytes.
+         * Data is processed in bounded chunks with a reused buffer, so memory is constant despite the data size.
+         * If the Reader contains illegal hex chars, or odd count of chars, read methods throw HexDecodeException.
+         * Close the InputStream will also close the Reader.
+         *
+         * @param reader the Reader contains hex chars
+         * @return the InputStream
+         */
+        public InputStream wrap(Reader reader) {
+            return new ReaderDecodeStream(requireNonNull(reader));
+        }
+
+        /**
+         * Wrap a InputStream which contains ascii hex chars, return a new InputStream, which read the decoded bytes.
+         * Data is processed in bounded chunks with a reused buffer, so memory is constant despite the data size.
+         * If the original InputStream contains illegal hex chars, or odd count of chars, read methods throw
+         * HexDecodeException. Close the returned InputStream will also close the original InputStream.
+         *
+         * @param in the InputStream contains ascii hex chars
+         * @return the InputStream
+         */
+        public InputStream wrap(InputStream in) {
+            return new InputDecodeStream(requireNonNull(in));
+        }
 
-            byte[] result = new byte[len >> 1];
+        private static void decodeChars(CharSequence src, int from, int to, byte[] dst, int dstOff) {
+            int j = dstOff;
+            for (int i = from; i < to; i += 2) {
+                dst[j++] = decodePair(src.charAt(i), src.charAt(i + 1), i);
+            }
+        }
+
+        private static void decodeBytes(byte[] src, int from, int to, byte[] dst, int dstOff) {
+            decodeBytes(src, from, to, dst, dstOff, 0);
+        }
 
-            for (int i = 0; i < result.length; i++) {
-                int f = toDigit(data.charAt(2 * i)) << 4;
-                f = f | toDigit(data.charAt(2 * i + 1));
-                result[i] = (byte) (f & 0xFF);
+        /**
+         * Decode ascii hex chars. The index of illegal char in error message is indexBase + the index in src.
+         */
+        private static void decodeBytes(byte[] src, int from, int to, byte[] dst, int dstOff, long indexBase) {
+            if (to - from < SWAR_THRESHOLD * 2) {
+                decodeBytesScalar(src, from, to, dst, dstOff, indexBase);
+                return;
             }
+            int bulk = decodeBytesSwar(src, from, to, dst, dstOff);
+            decodeBytesScalar(src, from + bulk, to, dst, dstOff + (bulk >> 1), indexBase);
+        }
 
-            return result;
+        static void decodeBytesScalar(byte[] src, int from, int to, byte[] dst, int dstOff) {
+            decodeBytesScalar(src, from, to, dst, dstOff, 0);
+        }
+
+        private static void decodeBytesScalar(byte[] src, int from, int to, byte[] dst, int dstOff, long indexBase) {
+            int j = dstOff;
+            for (int i = from; i < to; i += 2) {
+                dst[j++] = decodePair((char) (src[i] & 0xFF), (char) (src[i + 1] & 0xFF), indexBase + i);
+            }
         }
 
         /**
-         * Converts a hexadecimal character to an integer.
+         * Decode ascii hex chars sixteen at a time: read sixteen chars as two longs, check all of them are hex
+         * chars, and pack them to eight bytes held in one long.
+         * If a block contains illegal chars, stop at this block, and leave it to the scalar path to report error.
          *
-         * @param ch A character to convert to an integer digit
-         * @return An integer
+         * @return the count of chars decoded
+         */
+        static int decodeBytesSwar(byte[] src, int from, int to, byte[] dst, int dstOff) {
+            ByteBuffer in = ByteBuffer.wrap(src);
+            ByteBuffer out = ByteBuffer.wrap(dst);
+            int i = from;
+            int j = dstOff;
+            for (; i <= to - 16; i += 16) {
+                long hi = in.getLong(i);
+                long lo = in.getLong(i + 8);
+                if (!isHexChars(hi) || !isHexChars(lo)) {
+                    break;
+                }
+                out.putLong(j, ((long) pack(hi) << 32) | (pack(lo) & 0xFFFFFFFFL));
+                j += 8;
+            }
+            return i - from;
+        }
+
+        private static final long ONES = 0x0101010101010101L;
+        private static final long HIGHS = 0x8080808080808080L;
+
+        /**
+         * If all eight bytes of value are ascii hex chars.
+         */
+        private static boolean isHexChars(long x) {
+            if ((x & HIGHS) != 0) {
+                return false;
+            }
+            return (between(x, '0' - 1, '9' + 1) | between(x, 'A' - 1, 'F' + 1) | between(x, 'a' - 1, 'f' + 1))
+                    == HIGHS;
+        }
+
+        /**
+         * Set the high bit of each byte, which value is in (m, n). All bytes of x should be less than 128.
+         */
+        private static long between(long x, int m, int n) {
+            return ((ONES * (127 + n) - x) & ~x & (x + ONES * (127 - m))) & HIGHS;
+        }
+
+        /**
+         * Pack eight ascii hex chars to int. The chars should be already checked.
          */
-        private int toDigit(char ch) throws HexDecodeException {
-            if ('0' <= ch && ch <= '9') {
-                return ch - '0';
+        private static int pack(long x) {
+            // 1 at the bytes which is letter, letters have bit 6 set
+            long letters = (x >>> 6) & ONES;
+            long v = (x & 0x0F0F0F0F0F0F0F0FL) + letters * 9;
+            // 0x0A0B0C0D0E0F0G0H -> 0xABCDEFGH
+            v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+            v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+            v = (v | (v >>> 16)) & 0xFFFFFFFFL;
+            return (int) v;
+        }
+
+        /**
+         * Decode two hex chars to one byte.
+         * If any char is not a hex char, the table value is -1, and the combined value would be negative,
+         * so only one branch is needed for validity check.
+         */
+        private static byte decodePair(char c1, char c2, long index) throws HexDecodeException {
+            if ((c1 | c2) >= 128) {
+                throw illegalChar(c1, c2, index);
+            }
+            int v = (VALUES[c1] << 4) | VALUES[c2];
+            if (v < 0) {
+                throw illegalChar(c1, c2, index);
+            }
+            return (byte) v;
+        }
+
+        private static HexDecodeException illegalChar(char c1, char c2, long index) {
+            if (c1 >= 128 || VALUES[c1] < 0) {
+                return new HexDecodeException("Illegal hexadecimal character " + c1 + " at index " + index);
+            }
+            return new HexDecodeException("Illegal hexadecimal character " + c2 + " at index " + (index + 1));
+        }
+
+        private static int decodedLength(int len) throws HexDecodeException {
+            if ((len & 0x01) != 0) {
+                throw new HexDecodeException("Invalid hex characters with odd len: " + len);
             }
-            if ('a' <= ch && ch <= 'f') {
-                return ch - 'a' + 10;
+            return len >> 1;
+        }
+
+        private static class ReaderDecodeStream extends InputStream {
+            private final Reader reader;
+            private final char[] buffer = new char[STREAM_BUFFER_SIZE];
+            private int pos;
+            private int limit;
+            // the count of chars consumed before buffer start
+            private long consumed;
+            private boolean eof;
+            private boolean closed;
+
+            private ReaderDecodeStream(Reader reader) {
+                this.reader = reader;
+            }
+
+            @Override
+            public int read() throws IOException {
+                ensureOpen(closed);
+                if (!ensurePair()) {
+                    return -1;
+                }
+                byte b = decodePair(buffer[pos], buffer[pos + 1], consumed + pos);
+                pos += 2;
+                return b & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                Preconditions.checkArrayAndRange(b, off, len);
+                ensureOpen(closed);
+                if (len == 0) {
+                    return 0;
+                }
+                if (!ensurePair()) {
+                    return -1;
+                }
+                int n = Math.min(len, (limit - pos) >> 1);
+                for (int i = 0; i < n; i++) {
+                    b[off + i] = decodePair(buffer[pos], buffer[pos + 1], consumed + pos);
+                    pos += 2;
+                }
+                return n;
+            }
+
+            /**
+             * Read chars into buffer until at least two chars are available.
+             *
+             * @return false if reach the end of reader
+             */
+            private boolean ensurePair() throws IOException {
+                while (limit - pos < 2) {
+                    if (eof) {
+                        if (limit - pos == 1) {
+                            throw new HexDecodeException("Invalid hex characters with odd len: " + (consumed + limit));
+                        }
+                        return false;
+                    }
+                    if (pos > 0) {
+                        System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+                        consumed += pos;
+                        limit -= pos;
+                        pos = 0;
+                    }
+                    int read = reader.read(buffer, limit, buffer.length - limit);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        limit += read;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public int available() throws IOException {
+                ensureOpen(closed);
+                return (limit - pos) >> 1;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    reader.close();
+                }
             }
-            if ('A' <= ch && ch <= 'F') {
-                return ch - 'A' + 10;
+        }
+
+        private static class InputDecodeStream extends InputStream {
+            private final InputStream in;
+            private final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            private int pos;
+            private int limit;
+            // the count of bytes consumed before buffer start
+            private long consumed;
+            private boolean eof;
+            private boolean closed;
+
+            private InputDecodeStream(InputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                ensureOpen(closed);
+                if (!ensurePair()) {
+                    return -1;
+                }
+                byte b = decodePair((char) (buffer[pos] & 0xFF), (char) (buffer[pos + 1] & 0xFF),
+                        consumed + pos);
+                pos += 2;
+                return b & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                Preconditions.checkArrayAndRange(b, off, len);
+                ensureOpen(closed);
+                if (len == 0) {
+                    return 0;
+                }
+                if (!ensurePair()) {
+                    return -1;
+                }
+                int n = Math.min(len, (limit - pos) >> 1);
+                decodeBytes(buffer, pos, pos + (n << 1), b, off, consumed);
+                pos += n << 1;
+                return n;
+            }
+
+            /**
+             * Read bytes into buffer until at least two bytes are available.
+             *
+             * @return false if reach the end of original InputStream
+             */
+            private boolean ensurePair() throws IOException {
+                while (limit - pos < 2) {
+                    if (eof) {
+                        if (limit - pos == 1) {
+                            throw new HexDecodeException("Invalid hex characters with odd len: " + (consumed + limit));
+                        }
+                        return false;
+                    }
+                    if (pos > 0) {
+                        System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+                        consumed += pos;
+                        limit -= pos;
+                        pos = 0;
+                    }
+                    int read = in.read(buffer, limit, buffer.length - limit);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        limit += read;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public int available() throws IOException {
+                ensureOpen(closed);
+                return (limit - pos) >> 1;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    in.close();
+                }
             }
-            throw new HexDecodeException("Illegal hexadecimal character " + ch);
         }
     }
 
@@ -2,7 +2,11 @@ package net.dongliu.commons;
 
 import net.dongliu.commons.annotation.Nullable;
 
-import java.util.StringJoiner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collector;
 
 import static java.util.Objects.requireNonNull;
 
@@ -10,6 +14,9 @@ import static java.util.Objects.requireNonNull;
  * For join strings
  */
 public class Joiner {
+    // the max length of array can be allocated
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
     // the prefix to prepend before target string
     private final String prefix;
     // the suffix to append after target string
@@ -54,49 +61,228 @@ public class Joiner {
     }
 
     /**
-     * Join strings, with prefix, suffix, and delimiter
+     * Join strings, with prefix, suffix, and delimiter.
+     * If values is a Collection of CharSequences, the exact length of result is computed first, to avoid copying.
      *
      * @param values the string items
      * @return new string
      */
     public String join(Iterable<@Nullable ?> values) {
-        StringJoiner joiner = new StringJoiner(delimiter, prefix, suffix);
-        for (Object o : values) {
-            if (o == null) {
-                if (skipNulls) {
-                    continue;
-                }
-                if (nullToEmpty) {
-                    joiner.add("");
-                    continue;
-                }
-            }
-            joiner.add(String.valueOf(o));
-        }
-        return joiner.toString();
+        requireNonNull(values);
+        int length = values instanceof Collection ? exactLength(values) : -1;
+        StringBuilder sb = new StringBuilder(length >= 0 ? length : prefix.length() + suffix.length() + 16);
+        return joinTo(sb, values).toString();
     }
 
     /**
-     * Join strings, with prefix, suffix, and delimiter
+     * Join strings, with prefix, suffix, and delimiter.
+     * If values are all CharSequences, the exact length of result is computed first, to avoid copying.
      *
      * @param values the string items
      * @return new string
      */
     public String join(@Nullable Object... values) {
-        StringJoiner joiner = new StringJoiner(delimiter, prefix, suffix);
+        requireNonNull(values);
+        int length = exactLength(Arrays.asList(values));
+        StringBuilder sb = new StringBuilder(length >= 0 ? length : prefix.length() + suffix.length() + 16);
+        return joinTo(sb, values).toString();
+    }
+
+    /**
+     * Join int values, with prefix, suffix, and delimiter. The values are formatted without boxing.
+     *
+     * @param values the values
+     * @return new string
+     */
+    public String join(int[] values) {
+        long length = prefix.length() + suffix.length() + (long) delimiter.length() * Math.max(values.length - 1, 0);
+        for (int value : values) {
+            length += stringSize(value);
+        }
+        return joinTo(new StringBuilder(capacity(length)), values).toString();
+    }
+
+    /**
+     * Join long values, with prefix, suffix, and delimiter. The values are formatted without boxing.
+     *
+     * @param values the values
+     * @return new string
+     */
+    public String join(long[] values) {
+        long length = prefix.length() + suffix.length() + (long) delimiter.length() * Math.max(values.length - 1, 0);
+        for (long value : values) {
+            length += stringSize(value);
+        }
+        return joinTo(new StringBuilder(capacity(length)), values).toString();
+    }
+
+    /**
+     * Join double values, with prefix, suffix, and delimiter. The values are formatted as
+     * {@link Strings#appendDouble(StringBuilder, double)}, without boxing.
+     *
+     * @param values the values
+     * @return new string
+     */
+    public String join(double[] values) {
+        // a double usually takes no more than 18 chars
+        long length = prefix.length() + suffix.length() + (long) (delimiter.length() + 18) * values.length;
+        return joinTo(new StringBuilder(capacity(length)), values).toString();
+    }
+
+    /**
+     * Join strings, with prefix, suffix, and delimiter, and append to StringBuilder.
+     *
+     * @param sb     the StringBuilder to append to
+     * @param values the string items
+     * @return the StringBuilder
+     */
+    public StringBuilder joinTo(StringBuilder sb, Iterable<@Nullable ?> values) {
+        requireNonNull(sb);
+        requireNonNull(values);
+        sb.append(prefix);
+        boolean first = true;
         for (Object o : values) {
-            if (o == null) {
-                if (skipNulls) {
+            if (o == null && skipNulls) {
+                continue;
+            }
+            if (!first) {
+                sb.append(delimiter);
+            }
+            first = false;
+            appendValue(sb, o);
+        }
+        return sb.append(suffix);
+    }
+
+    /**
+     * Join strings, with prefix, suffix, and delimiter, and append to StringBuilder.
+     *
+     * @param sb     the StringBuilder to append to
+     * @param values the string items
+     * @return the StringBuilder
+     */
+    public StringBuilder joinTo(StringBuilder sb, @Nullable Object... values) {
+        return joinTo(sb, Arrays.asList(values));
+    }
+
+    /**
+     * Join int values, with prefix, suffix, and delimiter, and append to StringBuilder.
+     *
+     * @param sb     the StringBuilder to append to
+     * @param values the values
+     * @return the StringBuilder
+     */
+    public StringBuilder joinTo(StringBuilder sb, int[] values) {
+        requireNonNull(values);
+        sb.append(prefix);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(delimiter);
+            }
+            sb.append(values[i]);
+        }
+        return sb.append(suffix);
+    }
+
+    /**
+     * Join long values, with prefix, suffix, and delimiter, and append to StringBuilder.
+     *
+     * @param sb     the StringBuilder to append to
+     * @param values the values
+     * @return the StringBuilder
+     */
+    public StringBuilder joinTo(StringBuilder sb, long[] values) {
+        requireNonNull(values);
+        sb.append(prefix);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(delimiter);
+            }
+            sb.append(values[i]);
+        }
+        return sb.append(suffix);
+    }
+
+    /**
+     * Join double values, with prefix, suffix, and delimiter, and append to StringBuilder. The values are formatted
+     * as {@link Strings#appendDouble(StringBuilder, double)}.
+     *
+     * @param sb     the StringBuilder to append to
+     * @param values the values
+     * @return the StringBuilder
+     */
+    public StringBuilder joinTo(StringBuilder sb, double[] values) {
+        requireNonNull(values);
+        sb.append(prefix);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(delimiter);
+            }
+            Strings.appendDouble(sb, values[i]);
+        }
+        return sb.append(suffix);
+    }
+
+    /**
+     * Join strings, with prefix, suffix, and delimiter, and append to Appendable, such as a Writer.
+     * IOException is wrapped in UncheckedIOException.
+     *
+     * @param appendable the Appendable to append to
+     * @param values     the string items
+     * @param <T>        the Appendable type
+     * @return the Appendable
+     */
+    public <T extends Appendable> T joinTo(T appendable, Iterable<@Nullable ?> values) {
+        requireNonNull(appendable);
+        requireNonNull(values);
+        if (appendable instanceof StringBuilder) {
+            joinTo((StringBuilder) appendable, values);
+            return appendable;
+        }
+        try {
+            appendable.append(prefix);
+            boolean first = true;
+            for (Object o : values) {
+                if (o == null && skipNulls) {
                     continue;
                 }
-                if (nullToEmpty) {
-                    joiner.add("");
-                    continue;
+                if (!first) {
+                    appendable.append(delimiter);
+                }
+                first = false;
+                if (o instanceof CharSequence) {
+                    appendable.append((CharSequence) o);
+                } else {
+                    appendable.append(o == null && nullToEmpty ? "" : String.valueOf(o));
                 }
             }
-            joiner.add(String.valueOf(o));
+            appendable.append(suffix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return joiner.toString();
+        return appendable;
+    }
+
+    /**
+     * Join strings, with prefix, suffix, and delimiter, and append to Appendable, such as a Writer.
+     * IOException is wrapped in UncheckedIOException.
+     *
+     * @param appendable the Appendable to append to
+     * @param values     the string items
+     * @param <T>        the Appendable type
+     * @return the Appendable
+     */
+    public <T extends Appendable> T joinTo(T appendable, @Nullable Object... values) {
+        return joinTo(appendable, Arrays.asList(values));
+    }
+
+    /**
+     * Return a Collector, which join stream elements with prefix, suffix, and delimiter, into a String.
+     *
+     * @return the Collector
+     */
+    public Collector<@Nullable Object, ?, String> collector() {
+        return Collector.of(Accumulator::new, Accumulator::add, Accumulator::merge, Accumulator::finish);
     }
 
     /**
@@ -119,4 +305,95 @@ public class Joiner {
     public Joiner nullToEmpty(boolean nullToEmpty) {
         return new Joiner(prefix, suffix, delimiter, skipNulls, nullToEmpty);
     }
+
+    private void appendValue(StringBuilder sb, @Nullable Object o) {
+        if (o == null) {
+            if (!nullToEmpty) {
+                sb.append("null");
+            }
+        } else if (o instanceof CharSequence) {
+            sb.append((CharSequence) o);
+        } else if (o instanceof Integer) {
+            sb.append((int) (Integer) o);
+        } else if (o instanceof Long) {
+            sb.append((long) (Long) o);
+        } else {
+            sb.append(o);
+        }
+    }
+
+    /**
+     * Compute the exact length of joined string. Return -1 if values contain items other than CharSequence or null.
+     */
+    private int exactLength(Iterable<?> values) {
+        long length = prefix.length() + suffix.length();
+        int count = 0;
+        for (Object o : values) {
+            if (o == null) {
+                if (skipNulls) {
+                    continue;
+                }
+                length += nullToEmpty ? 0 : 4;
+            } else if (o instanceof CharSequence) {
+                length += ((CharSequence) o).length();
+            } else {
+                return -1;
+            }
+            count++;
+        }
+        if (count > 1) {
+            length += (long) delimiter.length() * (count - 1);
+        }
+        return length <= MAX_LENGTH ? (int) length : -1;
+    }
+
+    private static int capacity(long length) {
+        return (int) Math.min(length, MAX_LENGTH);
+    }
+
+    // the count of chars of decimal value
+    private static int stringSize(long value) {
+        int sign = value < 0 ? 1 : 0;
+        // compare with negative value, to handle Long.MIN_VALUE
+        long v = value < 0 ? value : -value;
+        long p = -10;
+        for (int i = 1; i < 19; i++) {
+            if (v > p) {
+                return i + sign;
+            }
+            p *= 10;
+        }
+        return 19 + sign;
+    }
+
+    private final class Accumulator {
+        private final StringBuilder sb = new StringBuilder(prefix);
+        private boolean empty = true;
+
+        void add(@Nullable Object value) {
+            if (value == null && skipNulls) {
+                return;
+            }
+            if (!empty) {
+                sb.append(delimiter);
+            }
+            empty = false;
+            appendValue(sb, value);
+        }
+
+        Accumulator merge(Accumulator other) {
+            if (!other.empty) {
+                if (!empty) {
+                    sb.append(delimiter);
+                }
+                empty = false;
+                sb.append(other.sb, prefix.length(), other.sb.length());
+            }
+            return this;
+        }
+
+        String finish() {
+            return sb.append(suffix).toString();
+        }
+    }
 }
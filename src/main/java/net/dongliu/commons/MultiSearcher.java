@@ -0,0 +1,497 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Search multi needles in text at once, using the Aho-Corasick automaton. Each char of text is examined once, no
+ * matter how many needles there are.
+ * <p>
+ * The trie of needles is stored in a double-array(base/check arrays) indexed by a compact alphabet, which consists of
+ * the chars appear in needles. Failure links and output links are precomputed, so that counting matches needs no
+ * traversal of outputs.
+ * </p>
+ * <p>
+ * Bytes are matched as ascii chars, needles containing non-ascii chars never match bytes.
+ * </p>
+ * The searcher is immutable and thread-safe. Create it by {@link Strings#multiSearcher(java.util.Collection)}.
+ */
+public class MultiSearcher {
+    private static final int ROOT = 0;
+    private static final int FREE = -1;
+
+    private final List<String> needles;
+    // char to alphabet code, 0 for chars not in any needle
+    private final int[] codes;
+    private final int[] base;
+    private final int[] check;
+    private final int[] fail;
+    // the index of the longest needle ending at the state, -1 if none
+    private final int[] output;
+    // the next state in failure chain which has output, -1 if none
+    private final int[] outputLink;
+    // the count of needles ending at the state, including those by failure links
+    private final int[] outputCount;
+
+    MultiSearcher(List<String> needles) {
+        Preconditions.assertArgument(!needles.isEmpty(), () -> "needles should not be empty");
+        this.needles = needles;
+
+        // the compact alphabet
+        char maxChar = 0;
+        for (String needle : needles) {
+            Preconditions.assertArgument(!needle.isEmpty(), () -> "needle should not be empty");
+            for (int i = 0; i < needle.length(); i++) {
+                maxChar = (char) Math.max(maxChar, needle.charAt(i));
+            }
+        }
+        this.codes = new int[maxChar + 1];
+        for (String needle : needles) {
+            for (int i = 0; i < needle.length(); i++) {
+                codes[needle.charAt(i)] = 1;
+            }
+        }
+        int alphabetSize = 0;
+        for (int c = 0; c < codes.length; c++) {
+            if (codes[c] != 0) {
+                codes[c] = ++alphabetSize;
+            }
+        }
+
+        // build the trie, node 0 is root
+        List<TreeMap<Integer, Integer>> children = new ArrayList<>();
+        List<Integer> nodeOutputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        nodeOutputs.add(-1);
+        for (int index = 0; index < needles.size(); index++) {
+            String needle = needles.get(index);
+            int node = 0;
+            for (int i = 0; i < needle.length(); i++) {
+                int code = codes[needle.charAt(i)];
+                Integer child = children.get(node).get(code);
+                if (child == null) {
+                    child = children.size();
+                    children.add(new TreeMap<>());
+                    nodeOutputs.add(-1);
+                    children.get(node).put(code, child);
+                }
+                node = child;
+            }
+            if (nodeOutputs.get(node) == -1) {
+                // for duplicated needles, the first one wins
+                nodeOutputs.set(node, index);
+            }
+        }
+
+        // place trie nodes into double array, in breadth-first order
+        int[] states = new int[children.size()];
+        int capacity = Math.max(16, children.size() * 2);
+        int[] base = new int[capacity];
+        int[] check = new int[capacity];
+        Arrays.fill(check, FREE);
+        // to skip used slots quickly when finding base
+        BitSet used = new BitSet(capacity);
+        used.set(ROOT);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            TreeMap<Integer, Integer> nodeChildren = children.get(node);
+            if (nodeChildren.isEmpty()) {
+                continue;
+            }
+            int minCode = nodeChildren.firstKey();
+            int b;
+            for (int slot = used.nextClearBit(minCode + 1); ; slot = used.nextClearBit(slot + 1)) {
+                b = slot - minCode;
+                boolean fit = true;
+                for (int code : nodeChildren.keySet()) {
+                    if (used.get(b + code)) {
+                        fit = false;
+                        break;
+                    }
+                }
+                if (fit) {
+                    break;
+                }
+            }
+            int maxCode = nodeChildren.lastKey();
+            if (b + maxCode >= check.length) {
+                int newCapacity = Math.max(check.length * 2, b + maxCode + 1);
+                base = Arrays.copyOf(base, newCapacity);
+                int oldLength = check.length;
+                check = Arrays.copyOf(check, newCapacity);
+                Arrays.fill(check, oldLength, newCapacity, FREE);
+            }
+            int state = states[node];
+            base[state] = b;
+            for (Map.Entry<Integer, Integer> entry : nodeChildren.entrySet()) {
+                int childState = b + entry.getKey();
+                check[childState] = state;
+                used.set(childState);
+                states[entry.getValue()] = childState;
+                queue.add(entry.getValue());
+            }
+        }
+        int size = 0;
+        for (int state : states) {
+            size = Math.max(size, state + 1);
+        }
+        this.base = Arrays.copyOf(base, size);
+        this.check = Arrays.copyOf(check, size);
+
+        // failure links and outputs, in breadth-first order so that fail states are computed before
+        this.fail = new int[size];
+        this.output = new int[size];
+        this.outputLink = new int[size];
+        this.outputCount = new int[size];
+        Arrays.fill(output, -1);
+        Arrays.fill(outputLink, -1);
+        for (int node = 0; node < states.length; node++) {
+            output[states[node]] = nodeOutputs.get(node);
+        }
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            int state = states[node];
+            for (Map.Entry<Integer, Integer> entry : children.get(node).entrySet()) {
+                int code = entry.getKey();
+                int childState = states[entry.getValue()];
+                int failState = state == ROOT ? ROOT : next(fail[state], code);
+                fail[childState] = failState;
+                outputLink[childState] = output[failState] >= 0 ? failState : outputLink[failState];
+                outputCount[childState] = outputCount[failState] + (output[childState] >= 0 ? 1 : 0);
+                queue.add(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Count the occurrences of all needles in text. Overlapped occurrences are all counted.
+     *
+     * @param text the text
+     * @return the count
+     */
+    public int count(CharSequence text) {
+        int count = 0;
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, codeOf(text.charAt(i)));
+            count += outputCount[state];
+        }
+        return count;
+    }
+
+    /**
+     * Count the occurrences of all needles in a range of ascii bytes. Overlapped occurrences are all counted.
+     *
+     * @param data the data
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the count
+     */
+    public int count(byte[] data, int from, int to) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        int count = 0;
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, codeOf(data[i]));
+            count += outputCount[state];
+        }
+        return count;
+    }
+
+    /**
+     * If text contains any of the needles.
+     *
+     * @param text the text
+     * @return true if contains
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, codeOf(text.charAt(i)));
+            if (outputCount[state] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If a range of ascii bytes contains any of the needles.
+     *
+     * @param data the data
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return true if contains
+     */
+    public boolean containsAny(byte[] data, int from, int to) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, codeOf(data[i]));
+            if (outputCount[state] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the first match in text, which ends first. If multi needles end at the same position, the longest one is
+     * returned.
+     *
+     * @param text the text
+     * @return the match, or null if not found
+     */
+    @Nullable
+    public Match findFirst(CharSequence text) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, codeOf(text.charAt(i)));
+            if (outputCount[state] != 0) {
+                return longestMatch(state, i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first match in a range of ascii bytes, which ends first. If multi needles end at the same position, the
+     * longest one is returned.
+     *
+     * @param data the data
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the match, or null if not found
+     */
+    @Nullable
+    public Match findFirst(byte[] data, int from, int to) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, codeOf(data[i]));
+            if (outputCount[state] != 0) {
+                return longestMatch(state, i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find all matches in text, including overlapped ones. Matches are ordered by end position, and those ending at
+     * the same position are ordered by length descending.
+     *
+     * @param text the text
+     * @return the matches
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        forEachMatch(text, (index, start, end) -> matches.add(new Match(needles.get(index), index, start, end)));
+        return matches;
+    }
+
+    /**
+     * Find all matches in a range of ascii bytes, including overlapped ones.
+     *
+     * @param data the data
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the matches
+     * @see #findAll(CharSequence)
+     */
+    public List<Match> findAll(byte[] data, int from, int to) {
+        List<Match> matches = new ArrayList<>();
+        forEachMatch(data, from, to, (index, start, end) -> matches.add(new Match(needles.get(index), index, start,
+                end)));
+        return matches;
+    }
+
+    /**
+     * Call consumer for every match in text, including overlapped ones, without creating match objects.
+     *
+     * @param text     the text
+     * @param consumer the consumer
+     * @see #findAll(CharSequence)
+     */
+    public void forEachMatch(CharSequence text, MatchConsumer consumer) {
+        requireNonNull(consumer);
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, codeOf(text.charAt(i)));
+            if (outputCount[state] != 0) {
+                emit(state, i + 1, consumer);
+            }
+        }
+    }
+
+    /**
+     * Call consumer for every match in a range of ascii bytes, including overlapped ones.
+     *
+     * @param data     the data
+     * @param from     the begin index of range, inclusive
+     * @param to       the end index of range, exclusive
+     * @param consumer the consumer
+     * @see #findAll(CharSequence)
+     */
+    public void forEachMatch(byte[] data, int from, int to, MatchConsumer consumer) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        requireNonNull(consumer);
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, codeOf(data[i]));
+            if (outputCount[state] != 0) {
+                emit(state, i + 1, consumer);
+            }
+        }
+    }
+
+    /**
+     * The needles to search, in the order passed in.
+     *
+     * @return immutable needle list
+     */
+    public List<String> needles() {
+        return needles;
+    }
+
+    private int codeOf(char c) {
+        return c < codes.length ? codes[c] : 0;
+    }
+
+    private int codeOf(byte b) {
+        // non-ascii bytes never match
+        return b >= 0 && b < codes.length ? codes[b] : 0;
+    }
+
+    private int next(int state, int code) {
+        if (code == 0) {
+            return ROOT;
+        }
+        while (true) {
+            int t = base[state] + code;
+            if (t < check.length && check[t] == state) {
+                return t;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    private Match longestMatch(int state, int end) {
+        int index = output[state] >= 0 ? output[state] : output[outputLink[state]];
+        String needle = needles.get(index);
+        return new Match(needle, index, end - needle.length(), end);
+    }
+
+    private void emit(int state, int end, MatchConsumer consumer) {
+        if (output[state] < 0) {
+            state = outputLink[state];
+        }
+        while (state >= 0) {
+            int index = output[state];
+            consumer.on(index, end - needles.get(index).length(), end);
+            state = outputLink[state];
+        }
+    }
+
+    /**
+     * Consumer for matches.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * Called when found a match
+         *
+         * @param needleIndex the index of matched needle
+         * @param start       the begin index of match, inclusive
+         * @param end         the end index of match, exclusive
+         */
+        void on(int needleIndex, int start, int end);
+    }
+
+    /**
+     * One occurrence of a needle.
+     */
+    public static class Match {
+        private final String needle;
+        private final int needleIndex;
+        private final int start;
+        private final int end;
+
+        Match(String needle, int needleIndex, int start, int end) {
+            this.needle = needle;
+            this.needleIndex = needleIndex;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * The matched needle.
+         *
+         * @return the needle
+         */
+        public String needle() {
+            return needle;
+        }
+
+        /**
+         * The index of matched needle. For duplicated needles, this is the index of the first one.
+         *
+         * @return the needle index
+         */
+        public int needleIndex() {
+            return needleIndex;
+        }
+
+        /**
+         * The begin index of match in text, inclusive.
+         *
+         * @return the begin index
+         */
+        public int start() {
+            return start;
+        }
+
+        /**
+         * The end index of match in text, exclusive.
+         *
+         * @return the end index
+         */
+        public int end() {
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Match match = (Match) o;
+            return needleIndex == match.needleIndex && start == match.start && end == match.end
+                    && needle.equals(match.needle);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(needle, needleIndex, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return "Match{needle=" + needle + ", start=" + start + ", end=" + end + "}";
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package net.dongliu.commons;
+
+import java.math.BigInteger;
+
+/**
+ * Format double and float to the shortest decimal which can be parsed back to the same value, using the Schubfach
+ * algorithm by Raffaello Giulietti. The output has the same format as Double.toString/Float.toString of Java 19+.
+ * <p>
+ * Chars are written to byte array directly, without creating intermediate Strings.
+ * </p>
+ */
+class NumberFormatter {
+
+    /**
+     * Max count of bytes for formatting a double, such as -1.2345678901234567E-308
+     */
+    static final int MAX_DOUBLE_LENGTH = 24;
+    /**
+     * Max count of bytes for formatting a float, such as -1.23456789E-38
+     */
+    static final int MAX_FLOAT_LENGTH = 15;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L,
+            100000000000L, 1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L,
+            10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+
+    private static final byte[] NAN = {'N', 'a', 'N'};
+    private static final byte[] INFINITY = {'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+
+    // double: precision, min exponent, min significand of normal values, and significand below which subnormal
+    // values need one more digit
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << (DOUBLE_P - 1);
+    private static final int DOUBLE_C_TINY = 3;
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << (FLOAT_P - 1);
+    private static final int FLOAT_C_TINY = 8;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    /**
+     * Write double to bytes.
+     *
+     * @param value  the value
+     * @param buffer the buffer, should have at least {@link #MAX_DOUBLE_LENGTH} bytes from offset
+     * @param offset the offset to write
+     * @return the end offset of written bytes
+     */
+    static int writeDouble(double value, byte[] buffer, int offset) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & (DOUBLE_C_MIN - 1);
+        int bq = (int) (bits >>> (DOUBLE_P - 1)) & 0x7FF;
+        if (bq == 0x7FF) {
+            if (t != 0) {
+                return writeBytes(NAN, buffer, offset);
+            }
+            if (bits < 0) {
+                buffer[offset++] = '-';
+            }
+            return writeBytes(INFINITY, buffer, offset);
+        }
+        if (bits < 0) {
+            buffer[offset++] = '-';
+        }
+        if (bq != 0) {
+            // normal value, value = c * 2^q
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            if (0 < mq & mq < DOUBLE_P) {
+                // integer value less than 2^53
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buffer, offset);
+                }
+            }
+            return doubleToDecimal(-mq, c, 0, buffer, offset);
+        }
+        if (t != 0) {
+            // subnormal value
+            return t < DOUBLE_C_TINY
+                    ? doubleToDecimal(DOUBLE_Q_MIN, 10 * t, -1, buffer, offset)
+                    : doubleToDecimal(DOUBLE_Q_MIN, t, 0, buffer, offset);
+        }
+        buffer[offset++] = '0';
+        buffer[offset++] = '.';
+        buffer[offset++] = '0';
+        return offset;
+    }
+
+    /**
+     * Write float to bytes.
+     *
+     * @param value  the value
+     * @param buffer the buffer, should have at least {@link #MAX_FLOAT_LENGTH} bytes from offset
+     * @param offset the offset to write
+     * @return the end offset of written bytes
+     */
+    static int writeFloat(float value, byte[] buffer, int offset) {
+        int bits = Float.floatToRawIntBits(value);
+        int t = bits & (FLOAT_C_MIN - 1);
+        int bq = (bits >>> (FLOAT_P - 1)) & 0xFF;
+        if (bq == 0xFF) {
+            if (t != 0) {
+                return writeBytes(NAN, buffer, offset);
+            }
+            if (bits < 0) {
+                buffer[offset++] = '-';
+            }
+            return writeBytes(INFINITY, buffer, offset);
+        }
+        if (bits < 0) {
+            buffer[offset++] = '-';
+        }
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+            if (0 < mq & mq < FLOAT_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buffer, offset);
+                }
+            }
+            return floatToDecimal(-mq, c, 0, buffer, offset);
+        }
+        if (t != 0) {
+            return t < FLOAT_C_TINY
+                    ? floatToDecimal(FLOAT_Q_MIN, 10 * t, -1, buffer, offset)
+                    : floatToDecimal(FLOAT_Q_MIN, t, 0, buffer, offset);
+        }
+        buffer[offset++] = '0';
+        buffer[offset++] = '.';
+        buffer[offset++] = '0';
+        return offset;
+    }
+
+    /**
+     * Find the shortest decimal in the rounding interval of c * 2^q. If there are multi, choose the closest one.
+     */
+    private static int doubleToDecimal(int q, long c, int dk, byte[] buffer, int offset) {
+        // the interval is closed if c is even
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != DOUBLE_C_MIN | q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // the interval is asymmetric for power of 2
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+        long g1 = G.g1(k);
+        long g0 = G.g0(k);
+        long vb = roundOdd(g1, g0, cb << h);
+        long vbl = roundOdd(g1, g0, cbl << h);
+        long vbr = roundOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try one digit shorter
+            long sp10 = 10 * (s / 10);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buffer, offset);
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buffer, offset);
+        }
+        // both in the interval, choose the closer one, or the even one if tie
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buffer, offset);
+    }
+
+    private static int floatToDecimal(int q, int c, int dk, byte[] buffer, int offset) {
+        int out = c & 1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != FLOAT_C_MIN | q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 33;
+        long g = G.g1(k) + 1;
+        int vb = roundOdd(g, cb << h);
+        int vbl = roundOdd(g, cbl << h);
+        int vbr = roundOdd(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (s / 10);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buffer, offset);
+            }
+        }
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buffer, offset);
+        }
+        int cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buffer, offset);
+    }
+
+    /**
+     * Multiply g with cp, and round to odd.
+     */
+    private static long roundOdd(long g1, long g0, long cp) {
+        long x1 = NumberParser.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = NumberParser.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int roundOdd(long g, long cp) {
+        long x1 = NumberParser.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    // floor(log10(2^q))
+    private static int floorLog10Pow2(int q) {
+        return (int) (q * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 * 2^q))
+    private static int floorLog10ThreeQuartersPow2(int q) {
+        return (int) (q * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    // floor(log2(10^e))
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Write decimal f * 10^e, in the format of Double.toString.
+     */
+    private static int writeDecimal(long f, int e, byte[] buffer, int offset) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int len = digitCount(f);
+        // the value is 0.ddd * 10^dp
+        int dp = len + e;
+        if (0 < dp && dp <= 7) {
+            if (dp >= len) {
+                offset = writeDigits(f, len, buffer, offset);
+                for (int i = len; i < dp; i++) {
+                    buffer[offset++] = '0';
+                }
+                buffer[offset++] = '.';
+                buffer[offset++] = '0';
+                return offset;
+            }
+            offset = writeDigits(f / POW10[len - dp], dp, buffer, offset);
+            buffer[offset++] = '.';
+            return writeDigits(f % POW10[len - dp], len - dp, buffer, offset);
+        }
+        if (-3 < dp && dp <= 0) {
+            buffer[offset++] = '0';
+            buffer[offset++] = '.';
+            for (int i = dp; i < 0; i++) {
+                buffer[offset++] = '0';
+            }
+            return writeDigits(f, len, buffer, offset);
+        }
+        // computerized scientific notation
+        buffer[offset++] = (byte) ('0' + f / POW10[len - 1]);
+        buffer[offset++] = '.';
+        if (len == 1) {
+            buffer[offset++] = '0';
+        } else {
+            offset = writeDigits(f % POW10[len - 1], len - 1, buffer, offset);
+        }
+        buffer[offset++] = 'E';
+        int exp = dp - 1;
+        if (exp < 0) {
+            buffer[offset++] = '-';
+            exp = -exp;
+        }
+        return writeDigits(exp, digitCount(exp), buffer, offset);
+    }
+
+    /**
+     * Write the lowest count digits of value, with leading zeros.
+     */
+    private static int writeDigits(long value, int count, byte[] buffer, int offset) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + count;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (count < POW10.length && value >= POW10[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int writeBytes(byte[] bytes, byte[] buffer, int offset) {
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        return offset + bytes.length;
+    }
+
+    /**
+     * The 126 bits approximations of powers of ten g = floor(10^-k * 2^(125 - floor(log2(10^-k)))) + 1, split to
+     * high 63 bits g1 and low 63 bits g0. Computed when first used, instead of a large literal table.
+     */
+    private static class G {
+        private static final int K_MIN = -324;
+        private static final int K_MAX = 292;
+        private static final long[] TABLE = new long[2 * (K_MAX - K_MIN + 1)];
+
+        static {
+            for (int k = K_MIN; k <= K_MAX; k++) {
+                int r = 125 - floorLog2Pow10(-k);
+                BigInteger power = BigInteger.TEN.pow(Math.abs(k));
+                BigInteger beta;
+                if (k <= 0) {
+                    beta = r >= 0 ? power.shiftLeft(r) : power.shiftRight(-r);
+                } else {
+                    beta = BigInteger.ONE.shiftLeft(r).divide(power);
+                }
+                BigInteger g = beta.add(BigInteger.ONE);
+                int index = 2 * (k - K_MIN);
+                TABLE[index] = g.shiftRight(63).longValue();
+                TABLE[index + 1] = g.longValue() & MASK_63;
+            }
+        }
+
+        static long g1(int k) {
+            return TABLE[2 * (k - K_MIN)];
+        }
+
+        static long g0(int k) {
+            return TABLE[2 * (k - K_MIN) + 1];
+        }
+    }
+}
@@ -0,0 +1,645 @@
+package net.dongliu.commons;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parse numbers from chars or ascii bytes, without throwing exception for invalid input.
+ * <p>
+ * Validation is done while scanning, so invalid input costs no more than valid input, instead of building a
+ * NumberFormatException with its stack trace. Methods accept the same formats as Integer/Long/Double/Float.parseXxx,
+ * except that only ascii digits are allowed.
+ * </p>
+ * <p>
+ * Decimals are converted to correctly rounded double/float by exact floating point operation if possible, then by
+ * the Eisel-Lemire algorithm. In the rare cases which it can not decide, such as subnormal values, or more than 19
+ * significant digits near halfway, the validated input is parsed by jdk.
+ * </p>
+ */
+class NumberParser {
+
+    private static final double[] DOUBLE_POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POW10 = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    // max count of significant digits kept in long mantissa
+    private static final int MAX_DIGITS = 19;
+    // exponent larger than this is always overflow or underflow, stop accumulating to avoid int overflow
+    private static final int MAX_EXPONENT = 100_000;
+
+    private static final BinaryFormat DOUBLE_FORMAT = new BinaryFormat(52, -1023, 0x7FF, -342, 308, -4, 23);
+    private static final BinaryFormat FLOAT_FORMAT = new BinaryFormat(23, -127, 0xFF, -65, 38, -17, 10);
+
+    static int parseInt(CharSequence str, int from, int to, int defaultValue) {
+        if (from == to) {
+            return defaultValue;
+        }
+        int i = from;
+        char c = str.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to) {
+                return defaultValue;
+            }
+        }
+        // accumulate negatively, as the range of negative int is larger
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiMin = limit / 10;
+        int result = 0;
+        for (; i < to; i++) {
+            char ch = str.charAt(i);
+            int digit = ch - '0';
+            if (digit < 0 || digit > 9) {
+                // non-ascii digits are rare, leave them to jdk
+                return ch >= 0x80 ? parseIntByJdk(str, from, to, defaultValue) : defaultValue;
+            }
+            if (result < multiMin) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    static int parseInt(byte[] data, int from, int to, int defaultValue) {
+        if (from == to) {
+            return defaultValue;
+        }
+        int i = from;
+        byte c = data[i];
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to) {
+                return defaultValue;
+            }
+        }
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiMin = limit / 10;
+        int result = 0;
+        for (; i < to; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9 || result < multiMin) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    static long parseLong(CharSequence str, int from, int to, long defaultValue) {
+        if (from == to) {
+            return defaultValue;
+        }
+        int i = from;
+        char c = str.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to) {
+                return defaultValue;
+            }
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiMin = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            char ch = str.charAt(i);
+            int digit = ch - '0';
+            if (digit < 0 || digit > 9) {
+                // non-ascii digits are rare, leave them to jdk
+                return ch >= 0x80 ? parseLongByJdk(str, from, to, defaultValue) : defaultValue;
+            }
+            if (result < multiMin) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    static long parseLong(byte[] data, int from, int to, long defaultValue) {
+        if (from == to) {
+            return defaultValue;
+        }
+        int i = from;
+        byte c = data[i];
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to) {
+                return defaultValue;
+            }
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiMin = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9 || result < multiMin) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static int parseIntByJdk(CharSequence str, int from, int to, int defaultValue) {
+        try {
+            return Integer.parseInt(str.subSequence(from, to).toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long parseLongByJdk(CharSequence str, int from, int to, long defaultValue) {
+        try {
+            return Long.parseLong(str.subSequence(from, to).toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    static double parseDouble(CharSequence str, int from, int to, double defaultValue) {
+        return parseDecimal(str, from, to, false, defaultValue);
+    }
+
+    static double parseDouble(byte[] data, int from, int to, double defaultValue) {
+        return parseDecimal(data, from, to, false, defaultValue);
+    }
+
+    /**
+     * Parse decimal to double, or to float if single is true. The float value is returned as double, which is exact.
+     */
+    private static double parseDecimal(CharSequence str, int from, int to, boolean single, double defaultValue) {
+        // leading and trailing whitespaces are ignored, as Double.parseDouble
+        while (from < to && str.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && str.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return defaultValue;
+        }
+        int i = from;
+        char c = str.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to) {
+                return defaultValue;
+            }
+            c = str.charAt(i);
+        }
+        if (c == 'N') {
+            return matches(str, i, to, "NaN") ? Double.NaN : defaultValue;
+        }
+        if (c == 'I') {
+            return matches(str, i, to, "Infinity")
+                    ? (negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY) : defaultValue;
+        }
+        if (c == '0' && i + 1 < to && (str.charAt(i + 1) | 0x20) == 'x') {
+            return parseHex(str.subSequence(from, to).toString(), single, defaultValue);
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigit = false;
+        boolean truncated = false;
+        for (; i < to; i++) {
+            c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            hasDigit = true;
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= c != '0';
+            }
+        }
+        if (i < to && c == '.') {
+            for (i++; i < to; i++) {
+                c = str.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                hasDigit = true;
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= c != '0';
+                }
+            }
+        }
+        if (!hasDigit) {
+            return defaultValue;
+        }
+        if (i < to && (c | 0x20) == 'e') {
+            if (++i == to) {
+                return defaultValue;
+            }
+            c = str.charAt(i);
+            boolean negativeExp = c == '-';
+            if ((negativeExp || c == '+') && ++i == to) {
+                return defaultValue;
+            }
+            int exp = 0;
+            int start = i;
+            for (; i < to; i++) {
+                c = str.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (exp < MAX_EXPONENT) {
+                    exp = exp * 10 + (c - '0');
+                }
+            }
+            if (i == start) {
+                return defaultValue;
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+        if (i < to && isTypeSuffix(c)) {
+            i++;
+        }
+        if (i != to) {
+            return defaultValue;
+        }
+
+        double value = single ? toFloat(mantissa, exponent, truncated) : toDouble(mantissa, exponent, truncated);
+        if (Double.isNaN(value)) {
+            // the input is validated, would not throw
+            String text = str.subSequence(from, to).toString();
+            return single ? Float.parseFloat(text) : Double.parseDouble(text);
+        }
+        return negative ? -value : value;
+    }
+
+    private static double parseDecimal(byte[] data, int from, int to, boolean single, double defaultValue) {
+        while (from < to && (data[from] & 0xff) <= ' ') {
+            from++;
+        }
+        while (to > from && (data[to - 1] & 0xff) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return defaultValue;
+        }
+        int i = from;
+        int c = data[i];
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            if (++i == to) {
+                return defaultValue;
+            }
+            c = data[i];
+        }
+        if (c == 'N') {
+            return matches(data, i, to, "NaN") ? Double.NaN : defaultValue;
+        }
+        if (c == 'I') {
+            return matches(data, i, to, "Infinity")
+                    ? (negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY) : defaultValue;
+        }
+        if (c == '0' && i + 1 < to && (data[i + 1] | 0x20) == 'x') {
+            return parseHex(new String(data, from, to - from, StandardCharsets.ISO_8859_1), single, defaultValue);
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigit = false;
+        boolean truncated = false;
+        for (; i < to; i++) {
+            c = data[i];
+            if (c < '0' || c > '9') {
+                break;
+            }
+            hasDigit = true;
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= c != '0';
+            }
+        }
+        if (i < to && c == '.') {
+            for (i++; i < to; i++) {
+                c = data[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                hasDigit = true;
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= c != '0';
+                }
+            }
+        }
+        if (!hasDigit) {
+            return defaultValue;
+        }
+        if (i < to && (c | 0x20) == 'e') {
+            if (++i == to) {
+                return defaultValue;
+            }
+            c = data[i];
+            boolean negativeExp = c == '-';
+            if ((negativeExp || c == '+') && ++i == to) {
+                return defaultValue;
+            }
+            int exp = 0;
+            int start = i;
+            for (; i < to; i++) {
+                c = data[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (exp < MAX_EXPONENT) {
+                    exp = exp * 10 + (c - '0');
+                }
+            }
+            if (i == start) {
+                return defaultValue;
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+        if (i < to && isTypeSuffix((char) c)) {
+            i++;
+        }
+        if (i != to) {
+            return defaultValue;
+        }
+
+        double value = single ? toFloat(mantissa, exponent, truncated) : toDouble(mantissa, exponent, truncated);
+        if (Double.isNaN(value)) {
+            String text = new String(data, from, to - from, StandardCharsets.ISO_8859_1);
+            return single ? Float.parseFloat(text) : Double.parseDouble(text);
+        }
+        return negative ? -value : value;
+    }
+
+    static float parseFloat(CharSequence str, int from, int to, float defaultValue) {
+        return (float) parseDecimal(str, from, to, true, defaultValue);
+    }
+
+    static float parseFloat(byte[] data, int from, int to, float defaultValue) {
+        return (float) parseDecimal(data, from, to, true, defaultValue);
+    }
+
+    /**
+     * Convert decimal mantissa * 10^exponent to correctly rounded double. The mantissa is an unsigned long, if
+     * truncated is true, the real mantissa has more digits which are not zero. Return NaN if can not decide.
+     */
+    private static double toDouble(long mantissa, int exponent, boolean truncated) {
+        if (mantissa == 0) {
+            return 0;
+        }
+        // both mantissa and power of 10 are exact double, so the result is correctly rounded
+        if (!truncated && mantissa > 0 && mantissa <= (1L << 53)) {
+            if (exponent >= 0 && exponent <= 22) {
+                return mantissa * DOUBLE_POW10[exponent];
+            }
+            if (exponent < 0 && exponent >= -22) {
+                return mantissa / DOUBLE_POW10[-exponent];
+            }
+        }
+        long bits = eiselLemire(mantissa, exponent, DOUBLE_FORMAT);
+        if (truncated && bits >= 0 && bits != eiselLemire(mantissa + 1, exponent, DOUBLE_FORMAT)) {
+            // the real value is between mantissa and mantissa + 1, and they are rounded to different values
+            return Double.NaN;
+        }
+        return bits < 0 ? Double.NaN : Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Convert decimal mantissa * 10^exponent to correctly rounded float. Return NaN if can not decide.
+     */
+    private static double toFloat(long mantissa, int exponent, boolean truncated) {
+        if (mantissa == 0) {
+            return 0;
+        }
+        if (!truncated && mantissa > 0 && mantissa <= (1L << 24)) {
+            if (exponent >= 0 && exponent <= 10) {
+                return (float) mantissa * FLOAT_POW10[exponent];
+            }
+            if (exponent < 0 && exponent >= -10) {
+                return (float) mantissa / FLOAT_POW10[-exponent];
+            }
+        }
+        long bits = eiselLemire(mantissa, exponent, FLOAT_FORMAT);
+        if (truncated && bits >= 0 && bits != eiselLemire(mantissa + 1, exponent, FLOAT_FORMAT)) {
+            return Double.NaN;
+        }
+        return bits < 0 ? Double.NaN : Float.intBitsToFloat((int) bits);
+    }
+
+    /**
+     * The Eisel-Lemire algorithm, convert w * 10^q to the nearest binary floating point number, by multiplying w with
+     * the 128-bit truncated power of five. See Daniel Lemire, Number Parsing at a Gigabyte per Second.
+     *
+     * @param w the decimal significand, unsigned, not zero
+     * @param q the decimal exponent
+     * @return the bits of positive floating point number, or -1 if can not decide, or the result is subnormal.
+     */
+    private static long eiselLemire(long w, int q, BinaryFormat format) {
+        if (q < format.minPower10) {
+            return 0;
+        }
+        if (q > format.maxPower10) {
+            return (long) format.infinitePower << format.mantissaBits;
+        }
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        long[] powers = PowersOfFive.POWERS;
+        int index = 2 * (q - PowersOfFive.MIN_POWER);
+        long high = unsignedMultiplyHigh(w, powers[index]);
+        long low = w * powers[index];
+        long precisionMask = -1L >>> (format.mantissaBits + 3);
+        if ((high & precisionMask) == precisionMask) {
+            // the truncated bits may affect rounding, use more bits of the power
+            long secondHigh = unsignedMultiplyHigh(w, powers[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+        if (low == -1L && (q < -27 || q > 55)) {
+            // the approximation may be not enough, out of the exponent range which 5^q is exact in 128 bits
+            return -1;
+        }
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - format.mantissaBits - 3;
+        long mantissa = high >>> shift;
+        // floor(log2(10^q)) + 63
+        int power2 = ((217706 * q) >> 16) + 63 + upperBit - lz - format.minExponent;
+        if (power2 <= 0) {
+            return -1;
+        }
+        // exactly halfway between two floating point numbers, round to even
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= format.minRoundToEven && q <= format.maxRoundToEven
+                && (mantissa & 3) == 1 && (mantissa << shift) == high) {
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << format.mantissaBits)) {
+            mantissa = 1L << format.mantissaBits;
+            power2++;
+        }
+        mantissa &= ~(1L << format.mantissaBits);
+        if (power2 >= format.infinitePower) {
+            return (long) format.infinitePower << format.mantissaBits;
+        }
+        return mantissa | (long) power2 << format.mantissaBits;
+    }
+
+    /**
+     * The high 64 bits of 128 bits product of two signed longs.
+     */
+    static long multiplyHigh(long x, long y) {
+        // Math.multiplyHigh is only available since Java 9
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+        long z0 = t >> 32;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /**
+     * The high 64 bits of 128 bits product of two unsigned longs.
+     */
+    static long unsignedMultiplyHigh(long x, long y) {
+        return multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    private static double parseHex(String str, boolean single, double defaultValue) {
+        // hex float is rare, just use jdk parser
+        try {
+            return single ? Float.parseFloat(str) : Double.parseDouble(str);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean isTypeSuffix(char c) {
+        return c == 'd' || c == 'D' || c == 'f' || c == 'F';
+    }
+
+    private static boolean matches(CharSequence str, int from, int to, String expected) {
+        if (to - from != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (str.charAt(from + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(byte[] data, int from, int to, String expected) {
+        if (to - from != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (data[from + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parameters of IEEE 754 binary floating point format, for Eisel-Lemire algorithm.
+     */
+    private static class BinaryFormat {
+        private final int mantissaBits;
+        private final int minExponent;
+        private final int infinitePower;
+        // w * 10^q with q out of this range is always zero or infinity, for w less than 2^64
+        private final int minPower10;
+        private final int maxPower10;
+        // the range of q which w * 10^q may be exactly halfway between two floating point numbers
+        private final int minRoundToEven;
+        private final int maxRoundToEven;
+
+        private BinaryFormat(int mantissaBits, int minExponent, int infinitePower, int minPower10, int maxPower10,
+                             int minRoundToEven, int maxRoundToEven) {
+            this.mantissaBits = mantissaBits;
+            this.minExponent = minExponent;
+            this.infinitePower = infinitePower;
+            this.minPower10 = minPower10;
+            this.maxPower10 = maxPower10;
+            this.minRoundToEven = minRoundToEven;
+            this.maxRoundToEven = maxRoundToEven;
+        }
+    }
+
+    /**
+     * The 128 bits truncated powers of five, 5^q normalized so that the most significant bit is set. For negative q,
+     * it is the reciprocal rounded up. Computed when first used, instead of a large literal table.
+     */
+    private static class PowersOfFive {
+        private static final int MIN_POWER = -342;
+        private static final int MAX_POWER = 308;
+        // high and low 64 bits of each power
+        private static final long[] POWERS = new long[2 * (MAX_POWER - MIN_POWER + 1)];
+
+        static {
+            BigInteger five = BigInteger.valueOf(5);
+            for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+                BigInteger value;
+                if (q < 0) {
+                    BigInteger power = five.pow(-q);
+                    int z = power.bitLength();
+                    int b = q >= -27 ? z + 127 : 2 * z + 128;
+                    value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                } else {
+                    value = five.pow(q);
+                }
+                value = value.bitLength() > 128 ? value.shiftRight(value.bitLength() - 128)
+                        : value.shiftLeft(128 - value.bitLength());
+                int index = 2 * (q - MIN_POWER);
+                POWERS[index] = value.shiftRight(64).longValue();
+                POWERS[index + 1] = value.longValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package net.dongliu.commons;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Search one needle in text repeatedly, using the Boyer-Moore-Horspool algorithm. The shift tables are computed once
+ * when the searcher is created, and the longer the needle is, the more chars are skipped in one step.
+ * <p>
+ * Chars are looked up in shift tables by their lowest 8 bits, chars with the same lowest 8 bits share the minimal
+ * shift, so the tables are small even for non-latin needles. Bytes are searched using the utf-8 encoded needle.
+ * </p>
+ * <p>
+ * For short needles, String.indexOf which is vectorized by jvm is faster, the searcher uses it when the text is a
+ * String and the range to search extends to the end(or the start, for lastIndexOf) of text.
+ * </p>
+ * The searcher is immutable and thread-safe. Create it by {@link Strings#searcher(String)}.
+ */
+public class Searcher {
+    // needles shorter than this are searched by String.indexOf, if possible
+    private static final int LATIN1_JDK_THRESHOLD = 8;
+    private static final int UTF16_JDK_THRESHOLD = 24;
+
+    private final String needle;
+    private final boolean preferJdk;
+    private final char[] chars;
+    private final byte[] bytes;
+    // shift when scanning forward, by the last char of window
+    private final int[] charShifts;
+    // shift when scanning backward, by the first char of window
+    private final int[] charBackShifts;
+    private final int[] byteShifts;
+    private final int[] byteBackShifts;
+
+    Searcher(String needle) {
+        Preconditions.assertArgument(!needle.isEmpty(), () -> "needle cannot be empty");
+        this.needle = needle;
+        this.chars = needle.toCharArray();
+        boolean latin1 = true;
+        for (char c : chars) {
+            latin1 &= c <= 0xff;
+        }
+        this.preferJdk = chars.length < (latin1 ? LATIN1_JDK_THRESHOLD : UTF16_JDK_THRESHOLD);
+        this.bytes = needle.getBytes(StandardCharsets.UTF_8);
+        this.charShifts = new int[256];
+        this.charBackShifts = new int[256];
+        this.byteShifts = new int[256];
+        this.byteBackShifts = new int[256];
+        int m = chars.length;
+        Arrays.fill(charShifts, m);
+        Arrays.fill(charBackShifts, m);
+        for (int i = 0; i < m - 1; i++) {
+            charShifts[chars[i] & 0xff] = m - 1 - i;
+        }
+        for (int i = m - 1; i > 0; i--) {
+            charBackShifts[chars[i] & 0xff] = i;
+        }
+        int n = bytes.length;
+        Arrays.fill(byteShifts, n);
+        Arrays.fill(byteBackShifts, n);
+        for (int i = 0; i < n - 1; i++) {
+            byteShifts[bytes[i] & 0xff] = n - 1 - i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            byteBackShifts[bytes[i] & 0xff] = i;
+        }
+    }
+
+    /**
+     * The needle to search.
+     *
+     * @return the needle
+     */
+    public String needle() {
+        return needle;
+    }
+
+    /**
+     * Find the first occurrence of needle in text.
+     *
+     * @param text the text
+     * @return the index of first occurrence, -1 if not found
+     */
+    public int indexOf(CharSequence text) {
+        return indexOf(text, 0, text.length());
+    }
+
+    /**
+     * Find the first occurrence of needle in a range of text.
+     *
+     * @param text the text
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the index of first occurrence in text, -1 if not found
+     */
+    public int indexOf(CharSequence text, int from, int to) {
+        Preconditions.checkSubRange(text.length(), from, to - from);
+        return forward(text, from, to);
+    }
+
+    /**
+     * Find the first occurrence of utf-8 encoded needle in a range of bytes.
+     *
+     * @param data the data
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the index of first occurrence in data, -1 if not found
+     */
+    public int indexOf(byte[] data, int from, int to) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        return forward(data, from, to);
+    }
+
+    /**
+     * Find the last occurrence of needle in text.
+     *
+     * @param text the text
+     * @return the index of last occurrence, -1 if not found
+     */
+    public int lastIndexOf(CharSequence text) {
+        return lastIndexOf(text, 0, text.length());
+    }
+
+    /**
+     * Find the last occurrence of needle in a range of text.
+     *
+     * @param text the text
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the index of last occurrence in text, -1 if not found
+     */
+    public int lastIndexOf(CharSequence text, int from, int to) {
+        Preconditions.checkSubRange(text.length(), from, to - from);
+        if (preferJdk && from == 0 && text instanceof String) {
+            return ((String) text).lastIndexOf(needle, to - chars.length);
+        }
+        char first = chars[0];
+        int m = chars.length;
+        int i = to - m;
+        while (i >= from) {
+            char c = text.charAt(i);
+            if (c == first && matchesAt(text, i)) {
+                return i;
+            }
+            i -= charBackShifts[c & 0xff];
+        }
+        return -1;
+    }
+
+    /**
+     * Find the last occurrence of utf-8 encoded needle in a range of bytes.
+     *
+     * @param data the data
+     * @param from the begin index of range, inclusive
+     * @param to   the end index of range, exclusive
+     * @return the index of last occurrence in data, -1 if not found
+     */
+    public int lastIndexOf(byte[] data, int from, int to) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        byte first = bytes[0];
+        int i = to - bytes.length;
+        while (i >= from) {
+            byte b = data[i];
+            if (b == first && matchesAt(data, i)) {
+                return i;
+            }
+            i -= byteBackShifts[b & 0xff];
+        }
+        return -1;
+    }
+
+    /**
+     * Count the occurrences of needle in text. The occurrences do not overlap.
+     *
+     * @param text the text
+     * @return the count
+     */
+    public int count(CharSequence text) {
+        return count(text, 0, text.length(), false);
+    }
+
+    /**
+     * Count the occurrences of needle in a range of text.
+     *
+     * @param text    the text
+     * @param from    the begin index of range, inclusive
+     * @param to      the end index of range, exclusive
+     * @param overlap if the occurrences can overlap
+     * @return the count
+     */
+    public int count(CharSequence text, int from, int to, boolean overlap) {
+        Preconditions.checkSubRange(text.length(), from, to - from);
+        int step = overlap ? 1 : chars.length;
+        int count = 0;
+        for (int i = forward(text, from, to); i >= 0; i = forward(text, i + step, to)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Count the occurrences of utf-8 encoded needle in a range of bytes.
+     *
+     * @param data    the data
+     * @param from    the begin index of range, inclusive
+     * @param to      the end index of range, exclusive
+     * @param overlap if the occurrences can overlap
+     * @return the count
+     */
+    public int count(byte[] data, int from, int to, boolean overlap) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        int step = overlap ? 1 : bytes.length;
+        int count = 0;
+        for (int i = forward(data, from, to); i >= 0; i = forward(data, i + step, to)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Call consumer with the index of every occurrence of needle in text, from left to right. The occurrences do not
+     * overlap.
+     *
+     * @param text     the text
+     * @param consumer the consumer
+     */
+    public void forEachMatch(CharSequence text, IntConsumer consumer) {
+        forEachMatch(text, 0, text.length(), consumer);
+    }
+
+    /**
+     * Call consumer with the index of every occurrence of needle in a range of text, from left to right. The
+     * occurrences do not overlap.
+     *
+     * @param text     the text
+     * @param from     the begin index of range, inclusive
+     * @param to       the end index of range, exclusive
+     * @param consumer the consumer
+     */
+    public void forEachMatch(CharSequence text, int from, int to, IntConsumer consumer) {
+        Preconditions.checkSubRange(text.length(), from, to - from);
+        requireNonNull(consumer);
+        for (int i = forward(text, from, to); i >= 0; i = forward(text, i + chars.length, to)) {
+            consumer.accept(i);
+        }
+    }
+
+    /**
+     * Call consumer with the index of every occurrence of utf-8 encoded needle in a range of bytes, from left to
+     * right. The occurrences do not overlap.
+     *
+     * @param data     the data
+     * @param from     the begin index of range, inclusive
+     * @param to       the end index of range, exclusive
+     * @param consumer the consumer
+     */
+    public void forEachMatch(byte[] data, int from, int to, IntConsumer consumer) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        requireNonNull(consumer);
+        for (int i = forward(data, from, to); i >= 0; i = forward(data, i + bytes.length, to)) {
+            consumer.accept(i);
+        }
+    }
+
+    private int forward(CharSequence text, int from, int to) {
+        if (preferJdk && to == text.length() && text instanceof String) {
+            return ((String) text).indexOf(needle, from);
+        }
+        int last = chars.length - 1;
+        char lastChar = chars[last];
+        int i = from;
+        int end = to - chars.length;
+        while (i <= end) {
+            char c = text.charAt(i + last);
+            if (c == lastChar && matchesAt(text, i)) {
+                return i;
+            }
+            i += charShifts[c & 0xff];
+        }
+        return -1;
+    }
+
+    private int forward(byte[] data, int from, int to) {
+        int last = bytes.length - 1;
+        byte lastByte = bytes[last];
+        int i = from;
+        int end = to - bytes.length;
+        while (i <= end) {
+            byte b = data[i + last];
+            if (b == lastByte && matchesAt(data, i)) {
+                return i;
+            }
+            i += byteShifts[b & 0xff];
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(CharSequence text, int offset) {
+        for (int j = 0; j < chars.length; j++) {
+            if (text.charAt(offset + j) != chars[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesAt(byte[] data, int offset) {
+        for (int j = 0; j < bytes.length; j++) {
+            if (data[offset + j] != bytes[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,347 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.annotation.Nullable;
+import net.dongliu.commons.collection.Iterables;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * For split strings. This is the counterpart of {@link Joiner}.
+ * <p>
+ * Unlike String.split, the separator string is not a regex, and the trailing empty pieces are kept unless omitEmpty is
+ * set. The pieces are returned as CharSequence views of the original text, call toString to get a String copy.
+ * </p>
+ * Splitter is immutable and thread-safe.
+ */
+public class Splitter {
+    // the separator when splitting by char
+    private final char separator;
+    // the separator when splitting by string
+    @Nullable
+    private final Searcher searcher;
+    // the separator when splitting by regex
+    @Nullable
+    private final Pattern pattern;
+    // trim whitespaces of pieces
+    private final boolean trim;
+    // skip empty pieces. If trim is set, the pieces are checked after trimmed.
+    private final boolean omitEmpty;
+    // the max count of pieces
+    private final int limit;
+
+    private Splitter(char separator, @Nullable Searcher searcher, @Nullable Pattern pattern, boolean trim,
+                     boolean omitEmpty, int limit) {
+        this.separator = separator;
+        this.searcher = searcher;
+        this.pattern = pattern;
+        this.trim = trim;
+        this.omitEmpty = omitEmpty;
+        this.limit = limit;
+    }
+
+    /**
+     * Create new Splitter, which split text by a char.
+     *
+     * @param separator the separator
+     * @return Splitter
+     */
+    public static Splitter of(char separator) {
+        return new Splitter(separator, null, null, false, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create new Splitter, which split text by a string. The separator is matched literally, not as a regex.
+     *
+     * @param separator the separator, can not be null or empty
+     * @return Splitter
+     */
+    public static Splitter of(String separator) {
+        requireNonNull(separator);
+        if (separator.length() == 1) {
+            return of(separator.charAt(0));
+        }
+        return new Splitter('\0', new Searcher(separator), null, false, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create new Splitter, which split text by a regex. Empty matches of pattern are ignored.
+     *
+     * @param pattern the separator pattern, can not be null
+     * @return Splitter
+     */
+    public static Splitter of(Pattern pattern) {
+        return new Splitter('\0', null, requireNonNull(pattern), false, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Return a new Splitter, which trim is set.
+     *
+     * @param trim If remove the leading and trailing whitespaces(as String.trim) of pieces. Default false.
+     * @return new Splitter
+     */
+    public Splitter trim(boolean trim) {
+        return new Splitter(separator, searcher, pattern, trim, omitEmpty, limit);
+    }
+
+    /**
+     * Return a new Splitter, which omitEmpty is set.
+     *
+     * @param omitEmpty If skip empty pieces. Default false. If trim is set, the pieces are checked after trimmed.
+     * @return new Splitter
+     */
+    public Splitter omitEmpty(boolean omitEmpty) {
+        return new Splitter(separator, searcher, pattern, trim, omitEmpty, limit);
+    }
+
+    /**
+     * Return a new Splitter, which limit is set.
+     *
+     * @param limit The max count of pieces, should be positive. When reached, the last piece contains all the
+     *              remaining text, without splitting. If omitEmpty is set, the separators at the begin of the
+     *              last piece are skipped. Default unlimited.
+     * @return new Splitter
+     */
+    public Splitter limit(int limit) {
+        Preconditions.assertArgument(limit > 0, () -> "limit should be positive: " + limit);
+        return new Splitter(separator, searcher, pattern, trim, omitEmpty, limit);
+    }
+
+    /**
+     * Split text, lazily. The pieces are views of text, so the text should not be modified while the pieces are used.
+     *
+     * @param text the text
+     * @return the pieces. Every call of iterator() split the text again.
+     */
+    public Iterable<CharSequence> split(CharSequence text) {
+        requireNonNull(text);
+        return () -> new PieceIterator(text);
+    }
+
+    /**
+     * Split text, return the pieces as Strings.
+     *
+     * @param text the text
+     * @return the pieces list
+     */
+    public List<String> splitToList(CharSequence text) {
+        List<String> list = new ArrayList<>();
+        forEach(text, (start, end) -> list.add(text.subSequence(start, end).toString()));
+        return list;
+    }
+
+    /**
+     * Split text, lazily. The pieces are views of text, so the text should not be modified while the pieces are used.
+     *
+     * @param text the text
+     * @return the pieces stream
+     */
+    public Stream<CharSequence> splitToStream(CharSequence text) {
+        return Iterables.stream(split(text));
+    }
+
+    /**
+     * Split text, and call consumer with the range of every piece. If the separator is not a pattern, no objects are
+     * created once the method is compiled by jvm.
+     *
+     * @param text     the text
+     * @param consumer the consumer
+     */
+    public void forEach(CharSequence text, PieceConsumer consumer) {
+        requireNonNull(text);
+        requireNonNull(consumer);
+        Matcher matcher = pattern == null ? null : pattern.matcher(text);
+        Cursor cursor = new Cursor();
+        while (advance(cursor, text, matcher)) {
+            consumer.on(cursor.start, cursor.end);
+        }
+    }
+
+    /**
+     * Move cursor to the next piece of text. Return false if there are no more pieces.
+     */
+    private boolean advance(Cursor cursor, CharSequence text, @Nullable Matcher matcher) {
+        while (cursor.position >= 0) {
+            int start = cursor.position;
+            int end;
+            int index = cursor.count == limit - 1 ? -1 : indexOfSeparator(text, start, matcher);
+            if (index < 0) {
+                // the last piece contains all remaining text, but without leading empty pieces
+                if (omitEmpty) {
+                    start = skipSeparators(text, start, matcher);
+                }
+                end = text.length();
+                cursor.position = -1;
+            } else {
+                end = index;
+                cursor.position = endOfSeparator(index, matcher);
+            }
+            if (trim) {
+                start = trimStart(text, start, end);
+                end = trimEnd(text, start, end);
+            }
+            if (omitEmpty && start == end) {
+                continue;
+            }
+            cursor.start = start;
+            cursor.end = end;
+            cursor.count++;
+            return true;
+        }
+        return false;
+    }
+
+    private static int trimStart(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    // skip separators(and whitespaces if trim is set) at the begin of text from position
+    private int skipSeparators(CharSequence text, int position, @Nullable Matcher matcher) {
+        int length = text.length();
+        while (true) {
+            if (trim) {
+                position = trimStart(text, position, length);
+            }
+            int end = separatorEndAt(text, position, matcher);
+            if (end < 0) {
+                return position;
+            }
+            position = end;
+        }
+    }
+
+    // the end of separator if it begins at position, -1 if not
+    private int separatorEndAt(CharSequence text, int position, @Nullable Matcher matcher) {
+        int length = text.length();
+        if (matcher != null) {
+            matcher.region(position, length);
+            if (matcher.lookingAt() && matcher.end() > position) {
+                return matcher.end();
+            }
+            return -1;
+        }
+        if (searcher != null) {
+            int end = Math.min(position + searcher.needle().length(), length);
+            return searcher.indexOf(text, position, end) == position ? end : -1;
+        }
+        if (position < length && text.charAt(position) == separator) {
+            return position + 1;
+        }
+        return -1;
+    }
+
+    private int indexOfSeparator(CharSequence text, int from, @Nullable Matcher matcher) {
+        if (matcher != null) {
+            while (matcher.find(from)) {
+                if (matcher.end() > matcher.start()) {
+                    return matcher.start();
+                }
+                from = matcher.start() + 1;
+                if (from > text.length()) {
+                    break;
+                }
+            }
+            return -1;
+        }
+        if (searcher != null) {
+            return searcher.indexOf(text, from, text.length());
+        }
+        if (text instanceof String) {
+            return ((String) text).indexOf(separator, from);
+        }
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == separator) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int endOfSeparator(int index, @Nullable Matcher matcher) {
+        if (matcher != null) {
+            return matcher.end();
+        }
+        if (searcher != null) {
+            return index + searcher.needle().length();
+        }
+        return index + 1;
+    }
+
+    /**
+     * Consumer for pieces.
+     */
+    @FunctionalInterface
+    public interface PieceConsumer {
+        /**
+         * Called when found a piece
+         *
+         * @param start the begin index of piece in text, inclusive
+         * @param end   the end index of piece in text, exclusive
+         */
+        void on(int start, int end);
+    }
+
+    // the state of splitting. It holds only primitive values, so that it can be eliminated by escape analysis.
+    private static final class Cursor {
+        // the begin index of next piece, -1 if reach the end
+        int position;
+        // the count of pieces found
+        int count;
+        // the range of current piece
+        int start;
+        int end;
+
+        // not private, to avoid synthetic accessor constructor which prevents jvm from inlining it
+        Cursor() {
+        }
+    }
+
+    private class PieceIterator implements Iterator<CharSequence> {
+        private final CharSequence text;
+        @Nullable
+        private final Matcher matcher;
+        private final Cursor cursor = new Cursor();
+        @Nullable
+        private CharSequence next;
+
+        PieceIterator(CharSequence text) {
+            this.text = text;
+            this.matcher = pattern == null ? null : pattern.matcher(text);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && advance(cursor, text, matcher)) {
+                next = CharSlice.of(text, cursor.start, cursor.end);
+            }
+            return next != null;
+        }
+
+        @Override
+        public CharSequence next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CharSequence value = next;
+            next = null;
+            return value;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package net.dongliu.commons;
 
 import net.dongliu.commons.annotation.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import static java.lang.Character.toLowerCase;
 import static java.lang.Character.toUpperCase;
@@ -14,6 +18,10 @@ import static java.util.Objects.requireNonNull;
  */
 public class Strings {
 
+    // for formatting numbers without allocation
+    private static final ThreadLocal<byte[]> formatBuffers =
+            ThreadLocal.withInitial(() -> new byte[NumberFormatter.MAX_DOUBLE_LENGTH]);
+
     /**
      * If str is null, return empty str; else return str self.
      *
@@ -25,47 +33,274 @@ public class Strings {
     }
 
     /**
-     * Parse str to int. If failed, return defaultValue.
+     * Parse str to int, in the format of {@link Integer#parseInt(String)}. If failed, return defaultValue.
      */
-    public static int toInt(String str, int defaultValue) {
-        try {
-            return Integer.parseInt(str);
-        } catch (NumberFormatException | NullPointerException e) {
-            return defaultValue;
-        }
+    public static int toInt(@Nullable String str, int defaultValue) {
+        return str == null ? defaultValue : NumberParser.parseInt(str, 0, str.length(), defaultValue);
     }
 
     /**
-     * Parse str to long. If failed, return defaultValue.
+     * Parse a range of chars to int, in the format of {@link Integer#parseInt(String)}. If failed, return
+     * defaultValue. Invalid ascii input is detected while parsing, no exception is created; chars containing
+     * non-ascii digits are parsed by {@link Integer#parseInt(String)}.
+     *
+     * @param str          the chars
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if chars is not a valid int
+     * @return the int value
      */
-    public static long toLong(String str, long defaultValue) {
-        try {
-            return Long.parseLong(str);
-        } catch (NumberFormatException | NullPointerException e) {
-            return defaultValue;
-        }
+    public static int toInt(CharSequence str, int from, int to, int defaultValue) {
+        Preconditions.checkSubRange(str.length(), from, to - from);
+        return NumberParser.parseInt(str, from, to, defaultValue);
+    }
+
+    /**
+     * Parse a range of ascii bytes to int. Only ascii digits are accepted, with an optional leading '+' or '-' sign.
+     * If failed, return defaultValue.
+     *
+     * @param data         the ascii bytes
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if bytes is not a valid int
+     * @return the int value
+     */
+    public static int toInt(byte[] data, int from, int to, int defaultValue) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        return NumberParser.parseInt(data, from, to, defaultValue);
+    }
+
+    /**
+     * Parse str to long, in the format of {@link Long#parseLong(String)}. If failed, return defaultValue.
+     */
+    public static long toLong(@Nullable String str, long defaultValue) {
+        return str == null ? defaultValue : NumberParser.parseLong(str, 0, str.length(), defaultValue);
+    }
+
+    /**
+     * Parse a range of chars to long, in the format of {@link Long#parseLong(String)}. If failed, return
+     * defaultValue. Invalid ascii input is detected while parsing, no exception is created; chars containing
+     * non-ascii digits are parsed by {@link Long#parseLong(String)}.
+     *
+     * @param str          the chars
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if chars is not a valid long
+     * @return the long value
+     */
+    public static long toLong(CharSequence str, int from, int to, long defaultValue) {
+        Preconditions.checkSubRange(str.length(), from, to - from);
+        return NumberParser.parseLong(str, from, to, defaultValue);
+    }
+
+    /**
+     * Parse a range of ascii bytes to long. Only ascii digits are accepted, with an optional leading '+' or '-' sign.
+     * If failed, return defaultValue.
+     *
+     * @param data         the ascii bytes
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if bytes is not a valid long
+     * @return the long value
+     */
+    public static long toLong(byte[] data, int from, int to, long defaultValue) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        return NumberParser.parseLong(data, from, to, defaultValue);
     }
 
     /**
      * Parse str to float. If failed, return defaultValue.
      */
-    public static float toFloat(String str, float defaultValue) {
-        try {
-            return Float.parseFloat(str);
-        } catch (NumberFormatException | NullPointerException e) {
-            return defaultValue;
-        }
+    public static float toFloat(@Nullable String str, float defaultValue) {
+        return str == null ? defaultValue : NumberParser.parseFloat(str, 0, str.length(), defaultValue);
+    }
+
+    /**
+     * Parse a range of chars to float, in the format of {@link Float#parseFloat(String)}. If failed, return
+     * defaultValue. Invalid input is detected while parsing, no exception is created.
+     *
+     * @param str          the chars
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if chars is not a valid float
+     * @return the float value
+     */
+    public static float toFloat(CharSequence str, int from, int to, float defaultValue) {
+        Preconditions.checkSubRange(str.length(), from, to - from);
+        return NumberParser.parseFloat(str, from, to, defaultValue);
+    }
+
+    /**
+     * Parse a range of ascii bytes to float, in the format of {@link Float#parseFloat(String)}. If failed, return
+     * defaultValue.
+     *
+     * @param data         the ascii bytes
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if bytes is not a valid float
+     * @return the float value
+     */
+    public static float toFloat(byte[] data, int from, int to, float defaultValue) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        return NumberParser.parseFloat(data, from, to, defaultValue);
     }
 
     /**
      * Parse str to double. If failed, return defaultValue.
      */
-    public static double toDouble(String str, double defaultValue) {
-        try {
-            return Double.parseDouble(str);
-        } catch (NumberFormatException | NullPointerException e) {
-            return defaultValue;
+    public static double toDouble(@Nullable String str, double defaultValue) {
+        return str == null ? defaultValue : NumberParser.parseDouble(str, 0, str.length(), defaultValue);
+    }
+
+    /**
+     * Parse a range of chars to double, in the format of {@link Double#parseDouble(String)}. If failed, return
+     * defaultValue. Invalid input is detected while parsing, no exception is created.
+     *
+     * @param str          the chars
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if chars is not a valid double
+     * @return the double value
+     */
+    public static double toDouble(CharSequence str, int from, int to, double defaultValue) {
+        Preconditions.checkSubRange(str.length(), from, to - from);
+        return NumberParser.parseDouble(str, from, to, defaultValue);
+    }
+
+    /**
+     * Parse a range of ascii bytes to double, in the format of {@link Double#parseDouble(String)}. If failed, return
+     * defaultValue.
+     *
+     * @param data         the ascii bytes
+     * @param from         the begin index of range, inclusive
+     * @param to           the end index of range, exclusive
+     * @param defaultValue the value to return if bytes is not a valid double
+     * @return the double value
+     */
+    public static double toDouble(byte[] data, int from, int to, double defaultValue) {
+        Preconditions.checkArrayAndRange(data, from, to - from);
+        return NumberParser.parseDouble(data, from, to, defaultValue);
+    }
+
+    /**
+     * Append the shortest decimal representation of double value, which can be parsed back to the same double. The
+     * format is the same as {@link Double#toString(double)} of Java 19+; earlier Java versions may output longer
+     * digits. No intermediate String is created.
+     *
+     * @param sb    the StringBuilder
+     * @param value the value
+     * @return the StringBuilder
+     */
+    public static StringBuilder appendDouble(StringBuilder sb, double value) {
+        byte[] buffer = formatBuffers.get();
+        int end = NumberFormatter.writeDouble(value, buffer, 0);
+        return appendAscii(sb, buffer, end);
+    }
+
+    /**
+     * Append the shortest decimal representation of float value, which can be parsed back to the same float. The
+     * format is the same as {@link Float#toString(float)} of Java 19+.
+     *
+     * @param sb    the StringBuilder
+     * @param value the value
+     * @return the StringBuilder
+     */
+    public static StringBuilder appendFloat(StringBuilder sb, float value) {
+        byte[] buffer = formatBuffers.get();
+        int end = NumberFormatter.writeFloat(value, buffer, 0);
+        return appendAscii(sb, buffer, end);
+    }
+
+    /**
+     * Write the shortest decimal representation of double value as ascii bytes, in the format of
+     * {@link #appendDouble(StringBuilder, double)}. At most 24 bytes are written.
+     *
+     * @param buffer the buffer to write to
+     * @param offset the offset of buffer
+     * @param value  the value
+     * @return the end offset of bytes written
+     * @throws IndexOutOfBoundsException if the buffer has not enough space
+     */
+    public static int writeDouble(byte[] buffer, int offset, double value) {
+        Preconditions.checkArrayAndRange(buffer, offset, 0);
+        if (buffer.length - offset >= NumberFormatter.MAX_DOUBLE_LENGTH) {
+            return NumberFormatter.writeDouble(value, buffer, offset);
+        }
+        byte[] temp = formatBuffers.get();
+        return copyAscii(temp, NumberFormatter.writeDouble(value, temp, 0), buffer, offset);
+    }
+
+    /**
+     * Write the shortest decimal representation of float value as ascii bytes, in the format of
+     * {@link #appendFloat(StringBuilder, float)}. At most 15 bytes are written.
+     *
+     * @param buffer the buffer to write to
+     * @param offset the offset of buffer
+     * @param value  the value
+     * @return the end offset of bytes written
+     * @throws IndexOutOfBoundsException if the buffer has not enough space
+     */
+    public static int writeFloat(byte[] buffer, int offset, float value) {
+        Preconditions.checkArrayAndRange(buffer, offset, 0);
+        if (buffer.length - offset >= NumberFormatter.MAX_FLOAT_LENGTH) {
+            return NumberFormatter.writeFloat(value, buffer, offset);
+        }
+        byte[] temp = formatBuffers.get();
+        return copyAscii(temp, NumberFormatter.writeFloat(value, temp, 0), buffer, offset);
+    }
+
+    private static StringBuilder appendAscii(StringBuilder sb, byte[] buffer, int len) {
+        sb.ensureCapacity(sb.length() + len);
+        for (int i = 0; i < len; i++) {
+            sb.append((char) buffer[i]);
+        }
+        return sb;
+    }
+
+    private static int copyAscii(byte[] temp, int len, byte[] buffer, int offset) {
+        if (len > buffer.length - offset) {
+            throw new IndexOutOfBoundsException("not enough space in buffer, need " + len + " bytes, offset: "
+                    + offset + ", buffer size: " + buffer.length);
+        }
+        System.arraycopy(temp, 0, buffer, offset, len);
+        return offset + len;
+    }
+
+    /**
+     * Create a searcher for searching the needle repeatedly. The searcher precomputes shift tables, which make
+     * searching long needles in long texts much faster than {@link String#indexOf(String)}.
+     *
+     * @param needle the needle, should not be empty
+     * @return the searcher
+     */
+    public static Searcher searcher(String needle) {
+        return new Searcher(requireNonNull(needle));
+    }
+
+    /**
+     * Create a searcher for searching multi needles in text at once, which takes time proportional to the length of
+     * text, regardless of the count of needles.
+     *
+     * @param needles the needles, should not be empty
+     * @return the searcher
+     */
+    public static MultiSearcher multiSearcher(Collection<String> needles) {
+        List<String> list = new ArrayList<>(needles.size());
+        for (String needle : needles) {
+            list.add(requireNonNull(needle));
         }
+        return new MultiSearcher(Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Create a searcher for searching multi needles in text at once.
+     *
+     * @param needles the needles, should not be empty
+     * @return the searcher
+     * @see #multiSearcher(Collection)
+     */
+    public static MultiSearcher multiSearcher(String... needles) {
+        return multiSearcher(Arrays.asList(needles));
     }
 
     /**
@@ -208,6 +443,127 @@ public class Strings {
         return str.substring(index + sep.length());
     }
 
+    /**
+     * Return a view of str in range [from, to), without copying. If the range covers the whole str, return str self.
+     *
+     * @param str  the origin str. can not be null
+     * @param from the begin index, inclusive
+     * @param to   the end index, exclusive
+     * @return the view
+     */
+    public static CharSequence slice(CharSequence str, int from, int to) {
+        Preconditions.checkSubRange(str.length(), from, to - from);
+        return CharSlice.of(str, from, to);
+    }
+
+    /**
+     * Same as {@link #subStringBefore(String, String)}, but return a view of str without copying.
+     *
+     * @param str the origin str. can not be null
+     * @param sep the separator to get sub string. cannot be null or empty
+     * @return the view of sub string
+     */
+    public static CharSequence sliceBefore(CharSequence str, String sep) {
+        requireNonNull(str);
+        Preconditions.assertArgument(!sep.isEmpty(), () -> "separator cannot be empty");
+        int index = indexOf(str, sep);
+        if (index < 0) {
+            return str;
+        }
+        return CharSlice.of(str, 0, index);
+    }
+
+    /**
+     * Same as {@link #subStringBeforeLast(String, String)}, but return a view of str without copying.
+     *
+     * @param str the origin str. can not be null
+     * @param sep the separator to get sub string. cannot be null or empty
+     * @return the view of sub string
+     */
+    public static CharSequence sliceBeforeLast(CharSequence str, String sep) {
+        requireNonNull(str);
+        Preconditions.assertArgument(!sep.isEmpty(), () -> "separator cannot be empty");
+        int index = lastIndexOf(str, sep);
+        if (index < 0) {
+            return str;
+        }
+        return CharSlice.of(str, 0, index);
+    }
+
+    /**
+     * Same as {@link #subStringAfter(String, String)}, but return a view of str without copying.
+     *
+     * @param str the origin str. can not be null
+     * @param sep the separator to get sub string. cannot be null or empty
+     * @return the view of sub string
+     */
+    public static CharSequence sliceAfter(CharSequence str, String sep) {
+        requireNonNull(str);
+        Preconditions.assertArgument(!sep.isEmpty(), () -> "separator cannot be empty");
+        int index = indexOf(str, sep);
+        if (index < 0) {
+            return str;
+        }
+        return CharSlice.of(str, index + sep.length(), str.length());
+    }
+
+    /**
+     * Same as {@link #subStringAfterLast(String, String)}, but return a view of str without copying.
+     *
+     * @param str the origin str. can not be null
+     * @param sep the separator to get sub string. cannot be null or empty
+     * @return the view of sub string
+     */
+    public static CharSequence sliceAfterLast(CharSequence str, String sep) {
+        requireNonNull(str);
+        Preconditions.assertArgument(!sep.isEmpty(), () -> "separator cannot be empty");
+        int index = lastIndexOf(str, sep);
+        if (index < 0) {
+            return str;
+        }
+        return CharSlice.of(str, index + sep.length(), str.length());
+    }
+
+    private static int indexOf(CharSequence str, String sub) {
+        if (str instanceof String) {
+            return ((String) str).indexOf(sub);
+        }
+        char first = sub.charAt(0);
+        int max = str.length() - sub.length();
+        for (int i = 0; i <= max; i++) {
+            if (str.charAt(i) == first && regionMatches(str, i, sub)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(CharSequence str, String sub) {
+        if (str instanceof String) {
+            return ((String) str).lastIndexOf(sub);
+        }
+        char first = sub.charAt(0);
+        for (int i = str.length() - sub.length(); i >= 0; i--) {
+            if (str.charAt(i) == first && regionMatches(str, i, sub)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // if str contains sub at offset
+    private static boolean regionMatches(CharSequence str, int offset, String sub) {
+        if (offset < 0 || offset > str.length() - sub.length()) {
+            return false;
+        }
+        for (int i = 0; i < sub.length(); i++) {
+            if (str.charAt(offset + i) != sub.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Calculate the count of sub string. The sub string do not overlap.
      *
@@ -357,6 +713,68 @@ public class Strings {
         return str.substring(0, str.length() - len);
     }
 
+    /**
+     * Same as {@link #removeSuffix(String, String)}, but return a view of str without copying.
+     *
+     * @param str    string
+     * @param suffix suffix
+     * @return view of str without suffix
+     */
+    public static CharSequence sliceRemoveSuffix(CharSequence str, String suffix) {
+        requireNonNull(str);
+        requireNonNull(suffix);
+        int end = str.length() - suffix.length();
+        if (regionMatches(str, end, suffix)) {
+            return CharSlice.of(str, 0, end);
+        }
+        return str;
+    }
+
+    /**
+     * Same as {@link #removePrefix(String, String)}, but return a view of str without copying.
+     *
+     * @param str    string
+     * @param prefix prefix
+     * @return view of str without prefix
+     */
+    public static CharSequence sliceRemovePrefix(CharSequence str, String prefix) {
+        requireNonNull(str);
+        requireNonNull(prefix);
+        if (regionMatches(str, 0, prefix)) {
+            return CharSlice.of(str, prefix.length(), str.length());
+        }
+        return str;
+    }
+
+    /**
+     * Same as {@link #removePrefixAndSuffix(String, String, String)}, but return a view of str without copying.
+     *
+     * @param str    string
+     * @param prefix prefix
+     * @param suffix suffix
+     * @return view of str without prefix and suffix
+     */
+    public static CharSequence sliceRemovePrefixAndSuffix(CharSequence str, String prefix, String suffix) {
+        requireNonNull(str);
+        requireNonNull(prefix);
+        requireNonNull(suffix);
+        if (str.length() == 0) {
+            return str;
+        }
+        int start = 0;
+        if (regionMatches(str, 0, prefix)) {
+            start = prefix.length();
+        }
+        int end = str.length();
+        if (regionMatches(str, end - suffix.length(), suffix)) {
+            end -= suffix.length();
+        }
+        if (start >= end) {
+            return "";
+        }
+        return CharSlice.of(str, start, end);
+    }
+
     /**
      * Return str, with first char is uppercase. If the first char of original str is already uppercase, or str is empty, return str self.
      * Note: this method do not handle surrogate correctly.
@@ -456,6 +874,79 @@ public class Strings {
         return new String(chars);
     }
 
+    /**
+     * If two CharSequences have the same chars. This works for any CharSequence implementations, such as the views
+     * returned by slice methods.
+     *
+     * @param a the first CharSequence, can be null
+     * @param b the second CharSequence, can be null
+     * @return true if both are null, or have the same chars
+     */
+    public static boolean contentEquals(@Nullable CharSequence a, @Nullable CharSequence b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        int length = a.length();
+        if (length != b.length()) {
+            return false;
+        }
+        if (a instanceof String) {
+            return ((String) a).contentEquals(b);
+        }
+        if (b instanceof String) {
+            return ((String) b).contentEquals(a);
+        }
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculate the hash code of chars, using the same algorithm as String.hashCode, so a CharSequence and the String
+     * with same chars have the same content hash code.
+     *
+     * @param str the CharSequence
+     * @return the hash code
+     */
+    public static int contentHashCode(CharSequence str) {
+        if (str instanceof String) {
+            return str.hashCode();
+        }
+        int h = 0;
+        for (int i = 0; i < str.length(); i++) {
+            h = 31 * h + str.charAt(i);
+        }
+        return h;
+    }
+
+    /**
+     * Compare two CharSequences lexicographically, as String.compareTo.
+     *
+     * @param a the first CharSequence
+     * @param b the second CharSequence
+     * @return negative, zero, or positive if a is less than, equal to, or greater than b
+     */
+    public static int compare(CharSequence a, CharSequence b) {
+        if (a instanceof String && b instanceof String) {
+            return ((String) a).compareTo((String) b);
+        }
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = a.charAt(i);
+            char c2 = b.charAt(i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return a.length() - b.length();
+    }
+
     /**
      * Join string lines with '\n'
      */
@@ -0,0 +1,14 @@
+package net.dongliu.commons.exception;
+
+import java.io.Serializable;
+
+/**
+ * Thrown when decode base32 error occurred.
+ */
+public class Base32DecodeException extends RuntimeException implements Serializable {
+    private static final long serialVersionUID = 6182249356125574302L;
+
+    public Base32DecodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package net.dongliu.commons.exception;
+
+import java.io.Serializable;
+
+/**
+ * Thrown when decode base58 error occurred.
+ */
+public class Base58DecodeException extends RuntimeException implements Serializable {
+    private static final long serialVersionUID = 2867590843162209719L;
+
+    public Base58DecodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package net.dongliu.commons.exception;
+
+import java.io.Serializable;
+
+/**
+ * Thrown when decode base64 error occurred.
+ */
+public class Base64DecodeException extends RuntimeException implements Serializable {
+    private static final long serialVersionUID = -3719453072394828021L;
+
+    public Base64DecodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,250 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.io.Bits;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size bit array, stored as 64 bits words. Bit index i is the bit (i % 64) of word (i / 64).
+ */
+abstract class BitArray {
+    private final int wordCount;
+
+    BitArray(int wordCount) {
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * Create a new bit array.
+     *
+     * @param wordCount  the count of 64 bits words
+     * @param offHeap    if store bits in direct ByteBuffer
+     * @param concurrent if support concurrent set by multi threads
+     */
+    static BitArray create(int wordCount, boolean offHeap, boolean concurrent) {
+        if (!offHeap) {
+            return concurrent ? new AtomicHeapBits(wordCount) : new HeapBits(wordCount);
+        }
+        if (wordCount > Integer.MAX_VALUE / 8 - 1) {
+            throw new IllegalArgumentException("too many bits for off-heap storage: " + wordCount * 64L);
+        }
+        return concurrent ? new AtomicDirectBits(wordCount) : new DirectBits(wordCount);
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    long bitSize() {
+        return wordCount * 64L;
+    }
+
+    boolean get(long index) {
+        return Bits.test(word((int) (index >>> 6)), (int) (index & 63));
+    }
+
+    /**
+     * Set the bit at index.
+     *
+     * @return true if the bit changed
+     */
+    boolean set(long index) {
+        int i = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        long word = word(i);
+        if (Bits.test(word, bit)) {
+            return false;
+        }
+        return orWord(i, word, Bits.set(0L, bit));
+    }
+
+    /**
+     * Set bits of word to word | mask.
+     *
+     * @param word the current word value read
+     * @return true if any bits changed
+     */
+    abstract boolean orWord(int i, long word, long mask);
+
+    abstract long word(int i);
+
+    /**
+     * The count of bits set.
+     */
+    long bitCount() {
+        long count = 0;
+        for (int i = 0; i < wordCount; i++) {
+            count += Long.bitCount(word(i));
+        }
+        return count;
+    }
+
+    /**
+     * Set bits which set in other bit array with the same size.
+     */
+    void or(BitArray other) {
+        for (int i = 0; i < wordCount; i++) {
+            long mask = other.word(i);
+            if (mask != 0) {
+                orWord(i, word(i), mask);
+            }
+        }
+    }
+
+    private static class HeapBits extends BitArray {
+        private final long[] words;
+
+        HeapBits(int wordCount) {
+            super(wordCount);
+            this.words = new long[wordCount];
+        }
+
+        @Override
+        boolean orWord(int i, long word, long mask) {
+            words[i] = word | mask;
+            return (word | mask) != word;
+        }
+
+        @Override
+        long word(int i) {
+            return words[i];
+        }
+    }
+
+    /**
+     * Set bits by CAS on words, lock-free.
+     */
+    private static class AtomicHeapBits extends BitArray {
+        private final AtomicLongArray words;
+
+        AtomicHeapBits(int wordCount) {
+            super(wordCount);
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        @Override
+        boolean orWord(int i, long word, long mask) {
+            while ((word | mask) != word) {
+                if (words.compareAndSet(i, word, word | mask)) {
+                    return true;
+                }
+                word = words.get(i);
+            }
+            return false;
+        }
+
+        @Override
+        long word(int i) {
+            return words.get(i);
+        }
+    }
+
+    private static class DirectBits extends BitArray {
+        final ByteBuffer buffer;
+
+        DirectBits(int wordCount) {
+            super(wordCount);
+            this.buffer = ByteBuffer.allocateDirect(wordCount * 8).order(ByteOrder.nativeOrder());
+        }
+
+        DirectBits(int wordCount, ByteBuffer buffer) {
+            super(wordCount);
+            this.buffer = buffer;
+        }
+
+        @Override
+        boolean orWord(int i, long word, long mask) {
+            buffer.putLong(i * 8, word | mask);
+            return (word | mask) != word;
+        }
+
+        @Override
+        long word(int i) {
+            return buffer.getLong(i * 8);
+        }
+    }
+
+    /**
+     * Set bits by CAS on words of direct buffer. CAS on ByteBuffer needs VarHandle of Java 9+, which is accessed by
+     * MethodHandles so this class still runs on Java 8; when not available, fallback to striped locks.
+     */
+    private static class AtomicDirectBits extends DirectBits {
+        // (ByteBuffer, int, long, long)boolean, null if VarHandle not available
+        private static final MethodHandle compareAndSet = compareAndSetHandle();
+        private static final int LOCK_STRIPES = 64;
+        private final Object[] locks;
+
+        AtomicDirectBits(int wordCount) {
+            super(wordCount, alignedBuffer(wordCount));
+            if (compareAndSet == null) {
+                locks = new Object[LOCK_STRIPES];
+                for (int i = 0; i < locks.length; i++) {
+                    locks[i] = new Object();
+                }
+            } else {
+                locks = null;
+            }
+        }
+
+        private static MethodHandle compareAndSetHandle() {
+            try {
+                Class<?> modeClass = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+                Object varHandle = MethodHandles.class.getMethod("byteBufferViewVarHandle", Class.class, ByteOrder.class)
+                        .invoke(null, long[].class, ByteOrder.nativeOrder());
+                Object mode = modeClass.getField("COMPARE_AND_SET").get(null);
+                MethodType type = MethodType.methodType(boolean.class, ByteBuffer.class, int.class, long.class,
+                        long.class);
+                MethodHandle invoker = (MethodHandle) MethodHandles.class
+                        .getMethod("varHandleInvoker", modeClass, MethodType.class)
+                        .invoke(null, mode, type);
+                return invoker.bindTo(varHandle);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Allocate direct buffer whose start address is aligned to 8 bytes, which CAS requires.
+         */
+        private static ByteBuffer alignedBuffer(int wordCount) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(wordCount * 8 + 8);
+            if (compareAndSet != null) {
+                try {
+                    buffer = (ByteBuffer) ByteBuffer.class.getMethod("alignedSlice", int.class).invoke(buffer, 8);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            buffer.limit(wordCount * 8);
+            return buffer.slice().order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        boolean orWord(int i, long word, long mask) {
+            if (compareAndSet == null) {
+                synchronized (locks[i % LOCK_STRIPES]) {
+                    word = word(i);
+                    return super.orWord(i, word, mask);
+                }
+            }
+            while ((word | mask) != word) {
+                boolean success;
+                try {
+                    success = (boolean) compareAndSet.invokeExact(buffer, i * 8, word, word | mask);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+                if (success) {
+                    return true;
+                }
+                word = word(i);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.dongliu.commons.hash;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Hash state for hash which consume data in fixed-size blocks. Full blocks are processed from the input directly,
+ * only partial blocks are buffered.
+ */
+abstract class BlockHashState extends HashState {
+    private final int blockSize;
+    private final ByteBuffer tail;
+    private int tailLength;
+    private long total;
+
+    BlockHashState(int blockSize) {
+        this.blockSize = blockSize;
+        this.tail = ByteBuffer.allocate(blockSize).order(LITTLE_ENDIAN);
+    }
+
+    @Override
+    final void update(ByteBuffer data, int offset, int len) {
+        total += len;
+        int end = offset + len;
+        if (tailLength > 0) {
+            int size = Math.min(blockSize - tailLength, len);
+            for (int i = 0; i < size; i++) {
+                tail.put(tailLength++, data.get(offset++));
+            }
+            if (tailLength < blockSize) {
+                return;
+            }
+            processBlock(tail, 0);
+            tailLength = 0;
+        }
+        for (; offset + blockSize <= end; offset += blockSize) {
+            processBlock(data, offset);
+        }
+        while (offset < end) {
+            tail.put(tailLength++, data.get(offset++));
+        }
+    }
+
+    @Override
+    final void reset() {
+        tailLength = 0;
+        total = 0;
+        resetBlocks();
+    }
+
+    /**
+     * Process one full block start at offset.
+     */
+    abstract void processBlock(ByteBuffer data, int offset);
+
+    /**
+     * Reset the state updated by blocks.
+     */
+    abstract void resetBlocks();
+
+    /**
+     * The buffer contains data not in a full block, start at index 0.
+     */
+    ByteBuffer tail() {
+        return tail;
+    }
+
+    int tailLength() {
+        return tailLength;
+    }
+
+    /**
+     * The total bytes count fed.
+     */
+    long total() {
+        return total;
+    }
+}
@@ -0,0 +1,276 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bloom filter, for probabilistic membership test. If mightContain returns false, the element was definitely not put;
+ * if returns true, the element probably was put.
+ * <p>
+ * Elements are hashed using xxHash64, and the bit indexes are derived from the hash by double hashing. The bits are
+ * stored in a long array, or in a direct ByteBuffer for large filters.
+ * Filters created with concurrent mode can be put and queried by multi threads, bits are set by CAS on words
+ * without locking; otherwise this class is not thread-safe.
+ * </p>
+ * Create bloom filter by {@link #newBuilder()}.
+ */
+public class BloomFilter {
+    private static final int SERIAL_VERSION = 1;
+    private static final int HEADER_SIZE = 1 + 1 + 4;
+    private static final int IO_BUFFER_SIZE = 8 * 1024;
+
+    private final BitArray bits;
+    private final int hashFunctions;
+
+    BloomFilter(BitArray bits, int hashFunctions) {
+        this.bits = bits;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Create a new BloomFilterBuilder.
+     *
+     * @return the builder
+     */
+    public static BloomFilterBuilder newBuilder() {
+        return new BloomFilterBuilder();
+    }
+
+    /**
+     * Put bytes into this filter.
+     *
+     * @param data the data
+     * @return true if the bits changed, which means the data is definitely not put before
+     */
+    public boolean put(byte[] data) {
+        return putHash(FastHashes.xxHash64().hash(data));
+    }
+
+    /**
+     * Put a range of bytes into this filter.
+     *
+     * @param data   the data
+     * @param offset the offset of data
+     * @param len    the count of bytes
+     * @return true if the bits changed, which means the data is definitely not put before
+     */
+    public boolean put(byte[] data, int offset, int len) {
+        return putHash(FastHashes.xxHash64().hash(data, offset, len));
+    }
+
+    /**
+     * Put string into this filter, the string is encoded using utf-8.
+     *
+     * @param str the string
+     * @return true if the bits changed, which means the string is definitely not put before
+     */
+    public boolean put(String str) {
+        return putHash(FastHashes.xxHash64().hash(str));
+    }
+
+    /**
+     * Put long value into this filter.
+     *
+     * @param value the value
+     * @return true if the bits changed, which means the value is definitely not put before
+     */
+    public boolean put(long value) {
+        return putHash(XxHash64.hashLong(value, 0));
+    }
+
+    /**
+     * Put element by its 64 bits hash value. The hash should be well distributed, such as the hash calculated by
+     * {@link FastHashes}.
+     *
+     * @param hash the hash value of element
+     * @return true if the bits changed, which means the element is definitely not put before
+     */
+    public boolean putHash(long hash) {
+        long h2 = DoubleHashing.secondHash(hash);
+        long bitSize = bits.bitSize();
+        boolean changed = false;
+        long combined = hash;
+        for (int i = 0; i < hashFunctions; i++) {
+            changed |= bits.set(DoubleHashing.index(combined, bitSize));
+            combined += h2;
+        }
+        return changed;
+    }
+
+    /**
+     * If the bytes might have been put into this filter.
+     *
+     * @param data the data
+     * @return false if the data is definitely not put
+     */
+    public boolean mightContain(byte[] data) {
+        return mightContainHash(FastHashes.xxHash64().hash(data));
+    }
+
+    /**
+     * If the range of bytes might have been put into this filter.
+     *
+     * @param data   the data
+     * @param offset the offset of data
+     * @param len    the count of bytes
+     * @return false if the data is definitely not put
+     */
+    public boolean mightContain(byte[] data, int offset, int len) {
+        return mightContainHash(FastHashes.xxHash64().hash(data, offset, len));
+    }
+
+    /**
+     * If the string might have been put into this filter.
+     *
+     * @param str the string
+     * @return false if the string is definitely not put
+     */
+    public boolean mightContain(String str) {
+        return mightContainHash(FastHashes.xxHash64().hash(str));
+    }
+
+    /**
+     * If the long value might have been put into this filter.
+     *
+     * @param value the value
+     * @return false if the value is definitely not put
+     */
+    public boolean mightContain(long value) {
+        return mightContainHash(XxHash64.hashLong(value, 0));
+    }
+
+    /**
+     * If the element with the hash value might have been put into this filter.
+     *
+     * @param hash the hash value of element
+     * @return false if the element is definitely not put
+     * @see #putHash(long)
+     */
+    public boolean mightContainHash(long hash) {
+        long h2 = DoubleHashing.secondHash(hash);
+        long bitSize = bits.bitSize();
+        long combined = hash;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (!bits.get(DoubleHashing.index(combined, bitSize))) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    /**
+     * Put all elements of other filter into this filter. The filters should have the same bit size and hash functions.
+     *
+     * @param other the other filter
+     */
+    public void putAll(BloomFilter other) {
+        requireNonNull(other);
+        Preconditions.assertArgument(bits.bitSize() == other.bits.bitSize() && hashFunctions == other.hashFunctions,
+                () -> "incompatible bloom filter");
+        bits.or(other.bits);
+    }
+
+    /**
+     * The count of bits of this filter.
+     *
+     * @return the bit size
+     */
+    public long bitSize() {
+        return bits.bitSize();
+    }
+
+    /**
+     * The count of hash functions, that is, the bits count set for one element.
+     *
+     * @return the hash functions count
+     */
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * The count of bits set.
+     *
+     * @return the bit count
+     */
+    public long bitCount() {
+        return bits.bitCount();
+    }
+
+    /**
+     * The probability that mightContain returns true for an element not put, estimated from the bits set.
+     *
+     * @return the expected false positive probability
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bits.bitCount() / bits.bitSize(), hashFunctions);
+    }
+
+    /**
+     * Write this filter to channel. The channel is left unclosed.
+     * If other threads put elements concurrently, the elements may be partial written.
+     *
+     * @param channel the channel
+     * @see BloomFilterBuilder#readFrom(ReadableByteChannel)
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        requireNonNull(channel);
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+        buffer.put((byte) SERIAL_VERSION).put((byte) hashFunctions).putInt(bits.wordCount());
+        for (int i = 0; i < bits.wordCount(); i++) {
+            if (buffer.remaining() < 8) {
+                writeFully(channel, buffer);
+            }
+            buffer.putLong(bits.word(i));
+        }
+        writeFully(channel, buffer);
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static BloomFilter readFrom(ReadableByteChannel channel, boolean offHeap, boolean concurrent)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+        buffer.limit(HEADER_SIZE);
+        readFully(channel, buffer);
+        int version = buffer.get();
+        int hashFunctions = buffer.get() & 0xff;
+        int wordCount = buffer.getInt();
+        if (version != SERIAL_VERSION || hashFunctions == 0 || wordCount <= 0) {
+            throw new IOException("invalid bloom filter data");
+        }
+        BitArray bits = BitArray.create(wordCount, offHeap, concurrent);
+        for (int i = 0; i < wordCount; ) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (wordCount - i) * 8L));
+            readFully(channel, buffer);
+            while (buffer.hasRemaining()) {
+                long word = buffer.getLong();
+                bits.orWord(i++, 0, word);
+            }
+        }
+        return new BloomFilter(bits, hashFunctions);
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("unexpected end of bloom filter data");
+            }
+        }
+        buffer.flip();
+    }
+}
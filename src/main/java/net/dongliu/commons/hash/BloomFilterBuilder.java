@@ -0,0 +1,102 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * For creating bloom filter.
+ */
+public class BloomFilterBuilder {
+    private static final double LN2 = Math.log(2);
+    // k is stored as one byte
+    private static final int MAX_HASH_FUNCTIONS = 255;
+
+    private long expectedInsertions = 1000;
+    private double fpp = 0.01;
+    private boolean offHeap = false;
+    private boolean concurrent = false;
+
+    BloomFilterBuilder() {
+    }
+
+    /**
+     * Set the expected count of elements to put. Default 1000.
+     *
+     * @param expectedInsertions the expected insertions, should be larger than 0
+     * @return self
+     */
+    public BloomFilterBuilder expectedInsertions(long expectedInsertions) {
+        Preconditions.assertArgument(expectedInsertions > 0,
+                () -> "expectedInsertions should be positive: " + expectedInsertions);
+        this.expectedInsertions = expectedInsertions;
+        return this;
+    }
+
+    /**
+     * Set the desired false positive probability, when expected count of elements are put. Default 0.01.
+     *
+     * @param fpp the false positive probability, should be in range (0, 1)
+     * @return self
+     */
+    public BloomFilterBuilder fpp(double fpp) {
+        Preconditions.assertArgument(fpp > 0 && fpp < 1, () -> "fpp should be in range (0, 1): " + fpp);
+        this.fpp = fpp;
+        return this;
+    }
+
+    /**
+     * If store bits in direct ByteBuffer out of java heap. Default false.
+     * Off-heap filter supports at most 2G bytes of bits.
+     *
+     * @param offHeap if off-heap
+     * @return self
+     */
+    public BloomFilterBuilder offHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+        return this;
+    }
+
+    /**
+     * If the filter can be put by multi threads concurrently. Default false.
+     *
+     * @param concurrent if concurrent
+     * @return self
+     */
+    public BloomFilterBuilder concurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+        return this;
+    }
+
+    /**
+     * Build a new empty bloom filter, sized by expected insertions and fpp.
+     *
+     * @return the bloom filter
+     */
+    public BloomFilter build() {
+        long bitSize = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (LN2 * LN2));
+        long words = Math.max(1, (bitSize + 63) / 64);
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bloom filter too large: " + bitSize + " bits");
+        }
+        int hashFunctions = (int) Math.round((double) words * 64 / expectedInsertions * LN2);
+        hashFunctions = Math.min(MAX_HASH_FUNCTIONS, Math.max(1, hashFunctions));
+        return new BloomFilter(BitArray.create((int) words, offHeap, concurrent), hashFunctions);
+    }
+
+    /**
+     * Read a bloom filter from channel, which is written by {@link BloomFilter#writeTo}. The size of filter is decided
+     * by the data read, expected insertions and fpp settings of this builder are ignored.
+     * The channel is left unclosed.
+     *
+     * @param channel the channel
+     * @return the bloom filter
+     */
+    public BloomFilter readFrom(ReadableByteChannel channel) throws IOException {
+        requireNonNull(channel);
+        return BloomFilter.readFrom(channel, offHeap, concurrent);
+    }
+}
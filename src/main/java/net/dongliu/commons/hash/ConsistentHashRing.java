@@ -0,0 +1,171 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Consistent hash ring, for mapping keys to nodes so that adding or removing one node only moves about 1/n of keys.
+ * <p>
+ * Each node is placed on the ring as multi virtual nodes, the points of virtual nodes are xxHash64 of node key and
+ * virtual node index. The points are kept in a sorted long array, a key is mapped to the first point not less than
+ * its hash, wrapping around at the end. Lookup is a binary search, with O(log(n * virtualNodes)) time and without
+ * allocation.
+ * </p>
+ * The ring is immutable, create a new ring when nodes changed. This class is thread-safe.
+ *
+ * @param <N> the node type
+ * @see RendezvousHash
+ * @see JumpHash
+ */
+public class ConsistentHashRing<N> {
+    private final List<N> nodes;
+    private final int virtualNodes;
+    // sorted hash points of virtual nodes
+    private final long[] points;
+    // the index of node which the point belongs to
+    private final int[] owners;
+
+    private ConsistentHashRing(List<N> nodes, int virtualNodes, Function<? super N, String> nodeKey) {
+        Preconditions.assertArgument(!nodes.isEmpty(), () -> "nodes should not be empty");
+        Preconditions.assertArgument(virtualNodes > 0, () -> "virtualNodes should be positive: " + virtualNodes);
+        Preconditions.assertArgument((long) nodes.size() * virtualNodes <= Integer.MAX_VALUE - 8,
+                () -> "too many virtual nodes: " + nodes.size() + " * " + virtualNodes);
+        this.nodes = nodes;
+        this.virtualNodes = virtualNodes;
+
+        int size = nodes.size() * virtualNodes;
+        long[] unsorted = new long[size];
+        Hasher hasher = FastHashes.xxHash64().newHasher();
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            String key = requireNonNull(nodeKey.apply(nodes.get(i)));
+            Preconditions.assertArgument(keys.add(key), () -> "duplicated node key: " + key);
+            for (int j = 0; j < virtualNodes; j++) {
+                unsorted[i * virtualNodes + j] = hasher.putString(key).putInt(j).hashLong();
+            }
+        }
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Long.compare(unsorted[i1], unsorted[i2]));
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = unsorted[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * Create a new hash ring. The node key used to place node on the ring is the toString value of node.
+     *
+     * @param nodes        the nodes, should not be empty, and the node keys should be distinct
+     * @param virtualNodes the count of virtual nodes per node. More virtual nodes make keys distributed more evenly,
+     *                     100 ~ 200 is usually enough
+     * @param <N>          the node type
+     * @return the hash ring
+     */
+    public static <N> ConsistentHashRing<N> create(Collection<? extends N> nodes, int virtualNodes) {
+        return create(nodes, virtualNodes, String::valueOf);
+    }
+
+    /**
+     * Create a new hash ring.
+     *
+     * @param nodes        the nodes, should not be empty, and the node keys should be distinct
+     * @param virtualNodes the count of virtual nodes per node
+     * @param nodeKey      the function to get the key of node, used to place node on the ring. The key should be
+     *                     stable across processes, so that rings created by different processes map keys the same way
+     * @param <N>          the node type
+     * @return the hash ring
+     */
+    public static <N> ConsistentHashRing<N> create(Collection<? extends N> nodes, int virtualNodes,
+                                                   Function<? super N, String> nodeKey) {
+        requireNonNull(nodeKey);
+        List<N> list = Collections.unmodifiableList(new ArrayList<>(requireNonNull(nodes)));
+        return new ConsistentHashRing<>(list, virtualNodes, nodeKey);
+    }
+
+    /**
+     * Get the node for string key, the key is hashed as utf-8 bytes.
+     *
+     * @param key the key
+     * @return the node
+     */
+    public N node(String key) {
+        return nodeForHash(XxHash64.hashUtf8(key));
+    }
+
+    /**
+     * Get the node for bytes key.
+     *
+     * @param key the key
+     * @return the node
+     */
+    public N node(byte[] key) {
+        return nodeForHash(FastHashes.xxHash64().hash(key));
+    }
+
+    /**
+     * Get the node for long key.
+     *
+     * @param key the key
+     * @return the node
+     */
+    public N node(long key) {
+        return nodeForHash(XxHash64.hashLong(key, 0));
+    }
+
+    /**
+     * Get the node by 64 bits hash value of key. The hash should be well distributed, such as the hash calculated by
+     * {@link FastHashes}.
+     *
+     * @param hash the hash of key
+     * @return the node
+     */
+    public N nodeForHash(long hash) {
+        return nodes.get(owners[pointIndex(hash)]);
+    }
+
+    /**
+     * The nodes of this ring, in the order passed in.
+     *
+     * @return immutable node list
+     */
+    public List<N> nodes() {
+        return nodes;
+    }
+
+    /**
+     * The count of virtual nodes per node.
+     *
+     * @return the virtual node count
+     */
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    private int pointIndex(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == points.length) {
+                // wrap around
+                index = 0;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,202 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-min sketch, for estimating frequencies of elements in fixed memory.
+ * The estimated count is never less than the real count; with width w = e / epsilon and depth d = ln(1 / delta), the
+ * estimated count exceeds the real count by more than epsilon * total with probability at most delta.
+ * <p>
+ * Elements are hashed using xxHash64, and the counter of each row is derived from the hash by double hashing.
+ * Counters are primitive longs updated by atomic add, so this class is thread-safe and lock-free.
+ * </p>
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final LongAdder total = new LongAdder();
+
+    private CountMinSketch(int width, int depth) {
+        Preconditions.assertArgument(width > 0 && depth > 0 && (long) width * depth <= Integer.MAX_VALUE,
+                () -> "invalid width and depth: " + width + ", " + depth);
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Create a new count-min sketch.
+     *
+     * @param width the count of counters per row
+     * @param depth the count of rows
+     * @return the sketch
+     */
+    public static CountMinSketch create(int width, int depth) {
+        return new CountMinSketch(width, depth);
+    }
+
+    /**
+     * Create a new count-min sketch, sized by error bound.
+     *
+     * @param epsilon    the relative error bound to total count, in range (0, 1)
+     * @param confidence the probability the estimation is in the error bound, in range (0, 1)
+     * @return the sketch
+     */
+    public static CountMinSketch create(double epsilon, double confidence) {
+        Preconditions.assertArgument(epsilon > 0 && epsilon < 1, () -> "epsilon should in range (0, 1): " + epsilon);
+        Preconditions.assertArgument(confidence > 0 && confidence < 1,
+                () -> "confidence should in range (0, 1): " + confidence);
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        return new CountMinSketch(width, depth);
+    }
+
+    /**
+     * Add count of string, the string is encoded using utf-8.
+     *
+     * @param str   the string
+     * @param count the count to add, should not be negative
+     */
+    public void add(String str, long count) {
+        addHash(FastHashes.xxHash64().hash(str), count);
+    }
+
+    /**
+     * Add count of bytes.
+     *
+     * @param data  the data
+     * @param count the count to add, should not be negative
+     */
+    public void add(byte[] data, long count) {
+        addHash(FastHashes.xxHash64().hash(data), count);
+    }
+
+    /**
+     * Add count of long value.
+     *
+     * @param value the value
+     * @param count the count to add, should not be negative
+     */
+    public void add(long value, long count) {
+        addHash(XxHash64.hashLong(value, 0), count);
+    }
+
+    /**
+     * Add count of element by its 64 bits hash value. The hash should be well distributed, such as the hash calculated
+     * by {@link FastHashes}.
+     *
+     * @param hash  the hash value of element
+     * @param count the count to add, should not be negative
+     */
+    public void addHash(long hash, long count) {
+        Preconditions.assertArgument(count >= 0, () -> "count should not be negative: " + count);
+        long h2 = DoubleHashing.secondHash(hash);
+        long combined = hash;
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(row * width + (int) DoubleHashing.index(combined, width), count);
+            combined += h2;
+        }
+        total.add(count);
+    }
+
+    /**
+     * Estimate count of string.
+     *
+     * @param str the string
+     * @return the estimated count
+     */
+    public long estimate(String str) {
+        return estimateHash(FastHashes.xxHash64().hash(str));
+    }
+
+    /**
+     * Estimate count of bytes.
+     *
+     * @param data the data
+     * @return the estimated count
+     */
+    public long estimate(byte[] data) {
+        return estimateHash(FastHashes.xxHash64().hash(data));
+    }
+
+    /**
+     * Estimate count of long value.
+     *
+     * @param value the value
+     * @return the estimated count
+     */
+    public long estimate(long value) {
+        return estimateHash(XxHash64.hashLong(value, 0));
+    }
+
+    /**
+     * Estimate count of element by its 64 bits hash value.
+     *
+     * @param hash the hash value of element
+     * @return the estimated count
+     * @see #addHash(long, long)
+     */
+    public long estimateHash(long hash) {
+        long h2 = DoubleHashing.secondHash(hash);
+        long combined = hash;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(row * width + (int) DoubleHashing.index(combined, width)));
+            combined += h2;
+        }
+        return min;
+    }
+
+    /**
+     * The total count added.
+     *
+     * @return the total count
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Halve all counters, so that old counts fade out when called periodically.
+     * Counts added concurrently while decaying may be halved or not.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, c -> c >>> 1);
+        }
+        total.add(-(total.sum() + 1) / 2);
+    }
+
+    /**
+     * Clear all counters.
+     * Counts added concurrently while resetting may be cleared or not.
+     */
+    public void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        total.reset();
+    }
+
+    /**
+     * The count of counters per row.
+     *
+     * @return the width
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * The count of rows.
+     *
+     * @return the depth
+     */
+    public int depth() {
+        return depth;
+    }
+}
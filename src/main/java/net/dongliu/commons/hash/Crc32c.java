@@ -0,0 +1,160 @@
+package net.dongliu.commons.hash;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+/**
+ * The CRC32C(Castagnoli) checksum. Use java.util.zip.CRC32C, which is intrinsified by JVM, when running on Java 9+;
+ * else fallback to a pure java slicing-by-8 implementation.
+ * The digest bytes are the big-endian representation of checksum value.
+ */
+final class Crc32c extends FastHashes.IntEncoder {
+    private static final int BULK_SIZE = 1024 * 8;
+    // constructor of java.util.zip.CRC32C, null if not exists
+    private static final MethodHandle jdkConstructor = jdkConstructor();
+
+    Crc32c() {
+        super("crc32c");
+    }
+
+    private static MethodHandle jdkConstructor() {
+        try {
+            Class<?> cls = Class.forName("java.util.zip.CRC32C");
+            return MethodHandles.publicLookup().findConstructor(cls, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Checksum.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static Checksum newChecksum() {
+        if (jdkConstructor == null) {
+            return new PureJavaCrc32c();
+        }
+        try {
+            return (Checksum) jdkConstructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    long hashRange(ByteBuffer data, int offset, int len) {
+        Checksum checksum = newChecksum();
+        update(checksum, data, offset, len);
+        return checksum.getValue();
+    }
+
+    @Override
+    HashState newState() {
+        return new State();
+    }
+
+    private static void update(Checksum checksum, ByteBuffer data, int offset, int len) {
+        if (data.hasArray()) {
+            checksum.update(data.array(), data.arrayOffset() + offset, len);
+            return;
+        }
+        byte[] buffer = new byte[Math.min(len, BULK_SIZE)];
+        ByteBuffer source = data.duplicate();
+        source.position(offset).limit(offset + len);
+        while (source.hasRemaining()) {
+            int size = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, size);
+            checksum.update(buffer, 0, size);
+        }
+    }
+
+    private static class State extends HashState {
+        private final Checksum checksum = newChecksum();
+
+        @Override
+        void update(ByteBuffer data, int offset, int len) {
+            Crc32c.update(checksum, data, offset, len);
+        }
+
+        @Override
+        long finishLong() {
+            return checksum.getValue();
+        }
+
+        @Override
+        byte[] finishBytes() {
+            return ByteBuffer.allocate(4).putInt((int) checksum.getValue()).array();
+        }
+
+        @Override
+        void reset() {
+            checksum.reset();
+        }
+    }
+
+    /**
+     * Pure java CRC32C implementation, using slicing-by-8.
+     */
+    static class PureJavaCrc32c implements Checksum {
+        private static final int POLY = 0x82F63B78;
+        // 8 tables, each has 256 entries
+        private static final int[] TABLE = table();
+
+        private int crc;
+
+        private static int[] table() {
+            int[] table = new int[8 * 256];
+            for (int n = 0; n < 256; n++) {
+                int c = n;
+                for (int k = 0; k < 8; k++) {
+                    c = (c & 1) != 0 ? (c >>> 1) ^ POLY : c >>> 1;
+                }
+                table[n] = c;
+            }
+            for (int t = 1; t < 8; t++) {
+                for (int n = 0; n < 256; n++) {
+                    int prev = table[(t - 1) * 256 + n];
+                    table[t * 256 + n] = (prev >>> 8) ^ table[prev & 0xff];
+                }
+            }
+            return table;
+        }
+
+        @Override
+        public void update(int b) {
+            int c = ~crc;
+            c = (c >>> 8) ^ TABLE[(c ^ b) & 0xff];
+            crc = ~c;
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            int c = ~crc;
+            int end = off + len;
+            for (; off + 8 <= end; off += 8) {
+                int lo = c ^ ((b[off] & 0xff) | (b[off + 1] & 0xff) << 8 | (b[off + 2] & 0xff) << 16
+                        | (b[off + 3] & 0xff) << 24);
+                int hi = (b[off + 4] & 0xff) | (b[off + 5] & 0xff) << 8 | (b[off + 6] & 0xff) << 16
+                        | (b[off + 7] & 0xff) << 24;
+                c = TABLE[7 * 256 + (lo & 0xff)] ^ TABLE[6 * 256 + ((lo >>> 8) & 0xff)]
+                        ^ TABLE[5 * 256 + ((lo >>> 16) & 0xff)] ^ TABLE[4 * 256 + (lo >>> 24)]
+                        ^ TABLE[3 * 256 + (hi & 0xff)] ^ TABLE[2 * 256 + ((hi >>> 8) & 0xff)]
+                        ^ TABLE[256 + ((hi >>> 16) & 0xff)] ^ TABLE[hi >>> 24];
+            }
+            for (; off < end; off++) {
+                c = (c >>> 8) ^ TABLE[(c ^ b[off]) & 0xff];
+            }
+            crc = ~c;
+        }
+
+        @Override
+        public long getValue() {
+            return crc & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public void reset() {
+            crc = 0;
+        }
+    }
+}
@@ -2,14 +2,26 @@ package net.dongliu.commons.hash;
 
 import net.dongliu.commons.Hexes;
 import net.dongliu.commons.Lazy;
+import net.dongliu.commons.annotation.Nullable;
 import net.dongliu.commons.exception.DigestEncodeException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
@@ -59,6 +71,23 @@ public class Digests {
         return sha512.get();
     }
 
+    /**
+     * Return a encoder which calculate digests of multi algorithms, reading the input only once.
+     *
+     * @param encoders the encoders of algorithms
+     * @return the multi encoder
+     */
+    public static MultiEncoder multi(Encoder... encoders) {
+        requireNonNull(encoders);
+        if (encoders.length == 0) {
+            throw new IllegalArgumentException("no digest encoder");
+        }
+        for (Encoder encoder : encoders) {
+            requireNonNull(encoder);
+        }
+        return new MultiEncoder(encoders.clone(), null);
+    }
+
     private static final Lazy<Encoder> md5 = Lazy.of(() -> new Encoder(ALG_MD5));
     private static final Lazy<Encoder> sha1 = Lazy.of(() -> new Encoder(ALG_SHA1));
     private static final Lazy<Encoder> sha256 = Lazy.of(() -> new Encoder(ALG_SHA_256));
@@ -67,13 +96,56 @@ public class Digests {
     /**
      * For digest encoding.
      * This is immutable class, can be reused.
+     * <p>
+     * Each thread reuses one MessageDigest instance of the encoder, which is reset after each use.
+     * Use {@link #newHasher()} if want to own a digest instance and feed data incrementally.
+     * </p>
      */
     public static class Encoder {
         private static final int BULK_SIZE = 1024 * 8;
+        // the content size, above which file content is memory-mapped
+        static final long MAP_THRESHOLD = 1024 * 1024;
+        static final long MAP_WINDOW_SIZE = 64 * 1024 * 1024;
         private final String algorithm;
+        private final ThreadLocal<DigestHolder> holders;
 
         private Encoder(String algorithm) {
             this.algorithm = algorithm;
+            this.holders = ThreadLocal.withInitial(() -> new DigestHolder(messageDigest(algorithm)));
+        }
+
+        /**
+         * The algorithm name of this encoder.
+         *
+         * @return the algorithm name
+         */
+        public String algorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Create a new Hasher, which owns a new digest instance of this algorithm.
+         * The Hasher is not thread-safe.
+         *
+         * @return the Hasher
+         */
+        public Hasher newHasher() {
+            return new Hasher(new MessageDigestState(messageDigest(algorithm)));
+        }
+
+        /**
+         * Return a tree encoder, which splits input into leaves of leafSize, hashes leaves in parallel, and combines
+         * leaf digests into a root digest. The leaves are hashed on the common ForkJoinPool by default.
+         *
+         * @param leafSize the bytes count of each leaf, except the last one
+         * @return the tree encoder
+         * @see TreeEncoder
+         */
+        public TreeEncoder tree(int leafSize) {
+            if (leafSize <= 0) {
+                throw new IllegalArgumentException("invalid leaf size: " + leafSize);
+            }
+            return new TreeEncoder(this, leafSize, ForkJoinPool.commonPool());
         }
 
         /**
@@ -107,14 +179,19 @@ public class Digests {
          */
         public DigestResult digest(byte[] data) {
             requireNonNull(data);
-            int offset = 0;
-            MessageDigest md = messageDigest(algorithm);
-            while (offset < data.length) {
-                int size = Math.min(BULK_SIZE, data.length - offset);
-                md.update(data, offset, size);
-                offset += size;
+            DigestHolder holder = holders.get();
+            MessageDigest md = holder.borrow(algorithm);
+            try {
+                int offset = 0;
+                while (offset < data.length) {
+                    int size = Math.min(BULK_SIZE, data.length - offset);
+                    md.update(data, offset, size);
+                    offset += size;
+                }
+                return new DigestResult(md.digest());
+            } finally {
+                holder.release(md);
             }
-            return new DigestResult(md.digest());
         }
 
         /**
@@ -126,13 +203,98 @@ public class Digests {
          */
         public DigestResult digest(InputStream in) throws IOException {
             requireNonNull(in);
-            MessageDigest md = messageDigest(algorithm);
-            byte[] data = new byte[BULK_SIZE];
-            int read;
-            while ((read = in.read(data)) != -1) {
-                md.update(data, 0, read);
+            DigestHolder holder = holders.get();
+            MessageDigest md = holder.borrow(algorithm);
+            try {
+                byte[] data = new byte[BULK_SIZE];
+                int read;
+                while ((read = in.read(data)) != -1) {
+                    md.update(data, 0, read);
+                }
+                return new DigestResult(md.digest());
+            } finally {
+                holder.release(md);
+            }
+        }
+
+        /**
+         * Calculate digest for the remaining data of ByteBuffer. The buffer position is advanced to its limit.
+         *
+         * @param buffer the buffer contains the data
+         * @return digest
+         */
+        public DigestResult digest(ByteBuffer buffer) {
+            requireNonNull(buffer);
+            DigestHolder holder = holders.get();
+            MessageDigest md = holder.borrow(algorithm);
+            try {
+                md.update(buffer);
+                return new DigestResult(md.digest());
+            } finally {
+                holder.release(md);
             }
-            return new DigestResult(md.digest());
+        }
+
+        /**
+         * Calculate digest for file content.
+         *
+         * @param path the file path
+         * @return digest
+         * @see #digest(FileChannel)
+         */
+        public DigestResult digest(Path path) throws IOException {
+            requireNonNull(path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return digest(channel);
+            }
+        }
+
+        /**
+         * Calculate digest for all data from the current position to the end of the FileChannel.
+         * Large content is memory-mapped in windows and fed to digest directly, without copying to heap arrays;
+         * files larger than 2G are supported.
+         * The channel position is set to the end of channel when finished, and the channel is left unclosed.
+         *
+         * @param channel the channel
+         * @return digest
+         */
+        public DigestResult digest(FileChannel channel) throws IOException {
+            requireNonNull(channel);
+            DigestHolder holder = holders.get();
+            MessageDigest md = holder.borrow(algorithm);
+            try {
+                long position = channel.position();
+                long size = channel.size();
+                if (size - position < MAP_THRESHOLD) {
+                    ByteBuffer buffer = ByteBuffer.allocate(BULK_SIZE);
+                    while (channel.read(buffer) != -1) {
+                        buffer.flip();
+                        md.update(buffer);
+                        buffer.clear();
+                    }
+                } else {
+                    for (long p = position; p < size; p += MAP_WINDOW_SIZE) {
+                        long len = Math.min(MAP_WINDOW_SIZE, size - p);
+                        md.update(channel.map(FileChannel.MapMode.READ_ONLY, p, len));
+                    }
+                    channel.position(size);
+                }
+                return new DigestResult(md.digest());
+            } finally {
+                holder.release(md);
+            }
+        }
+
+        /**
+         * Borrow the digest instance of current thread. Must call {@link #releaseDigest(MessageDigest)} in the same
+         * thread after use.
+         */
+        MessageDigest borrowDigest() {
+            return holders.get().borrow(algorithm);
+        }
+
+        void releaseDigest(MessageDigest md) {
+            holders.get().release(md);
         }
 
         private static MessageDigest messageDigest(String algorithm) {
@@ -142,9 +304,231 @@ public class Digests {
                 throw new DigestEncodeException(e);
             }
         }
+
+        /**
+         * Hold the MessageDigest instance of one thread. If the instance is already in use, for example the
+         * digest method is called again when reading from InputStream, a new instance is used.
+         */
+        private static class DigestHolder {
+            private final MessageDigest md;
+            private boolean inUse;
+
+            private DigestHolder(MessageDigest md) {
+                this.md = md;
+            }
+
+            private MessageDigest borrow(String algorithm) {
+                if (inUse) {
+                    return messageDigest(algorithm);
+                }
+                inUse = true;
+                return md;
+            }
+
+            private void release(MessageDigest md) {
+                if (md == this.md) {
+                    md.reset();
+                    inUse = false;
+                }
+            }
+        }
     }
 
 
+    /**
+     * Calculate digests of multi algorithms in one pass. The input is read once into a shared buffer, and fed to every
+     * digest engine; if a executor is set, the engines consume large chunks concurrently, while the next chunk is read.
+     * The digest results are in the order of encoders.
+     * This class is immutable and thread-safe.
+     */
+    public static class MultiEncoder {
+        private static final int BULK_SIZE = 1024 * 8;
+        // chunk size for reading stream, when engines run in the executor
+        private static final int PARALLEL_BULK_SIZE = 1024 * 1024;
+        // chunk smaller than this is fed in the calling thread
+        private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+        private final Encoder[] encoders;
+        @Nullable
+        private final Executor executor;
+
+        private MultiEncoder(Encoder[] encoders, @Nullable Executor executor) {
+            this.encoders = encoders;
+            this.executor = executor;
+        }
+
+        /**
+         * Return a new MultiEncoder, which run digest engines in the executor, for large input.
+         *
+         * @param executor the executor
+         * @return the multi encoder
+         */
+        public MultiEncoder executor(Executor executor) {
+            return new MultiEncoder(encoders, requireNonNull(executor));
+        }
+
+        /**
+         * Calculate digests for byte array data.
+         *
+         * @param data the data
+         * @return digests, in the order of encoders
+         */
+        public List<DigestResult> digest(byte[] data) {
+            requireNonNull(data);
+            return digest(ByteBuffer.wrap(data));
+        }
+
+        /**
+         * Calculate digests for the remaining data of ByteBuffer. The buffer position is advanced to its limit.
+         *
+         * @param buffer the buffer contains the data
+         * @return digests, in the order of encoders
+         */
+        public List<DigestResult> digest(ByteBuffer buffer) {
+            requireNonNull(buffer);
+            MessageDigest[] mds = borrow();
+            try {
+                update(mds, buffer).join();
+                buffer.position(buffer.limit());
+                return results(mds);
+            } finally {
+                release(mds);
+            }
+        }
+
+        /**
+         * Calculate digests for all data in InputStream.
+         * The InputSteam is left unclosed when finished or error occurred.
+         *
+         * @param in the inputStream contains the data
+         * @return digests, in the order of encoders
+         */
+        public List<DigestResult> digest(InputStream in) throws IOException {
+            requireNonNull(in);
+            MessageDigest[] mds = borrow();
+            CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+            try {
+                // when running in executor, read the next chunk while engines consume current one
+                byte[] current = new byte[executor == null ? BULK_SIZE : PARALLEL_BULK_SIZE];
+                byte[] next = executor == null ? current : new byte[current.length];
+                int read;
+                while ((read = readFully(in, current)) > 0) {
+                    pending.join();
+                    pending = update(mds, ByteBuffer.wrap(current, 0, read));
+                    byte[] tmp = current;
+                    current = next;
+                    next = tmp;
+                }
+                pending.join();
+                return results(mds);
+            } finally {
+                // wait engines to finish before release them
+                pending.exceptionally(e -> null).join();
+                release(mds);
+            }
+        }
+
+        /**
+         * Calculate digests for file content.
+         *
+         * @param path the file path
+         * @return digests, in the order of encoders
+         * @see #digest(FileChannel)
+         */
+        public List<DigestResult> digest(Path path) throws IOException {
+            requireNonNull(path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return digest(channel);
+            }
+        }
+
+        /**
+         * Calculate digests for all data from the current position to the end of the FileChannel.
+         * Large content is memory-mapped in windows, and each window is fed to all engines.
+         * The channel position is set to the end of channel when finished, and the channel is left unclosed.
+         *
+         * @param channel the channel
+         * @return digests, in the order of encoders
+         */
+        public List<DigestResult> digest(FileChannel channel) throws IOException {
+            requireNonNull(channel);
+            long position = channel.position();
+            long size = channel.size();
+            if (size - position < Encoder.MAP_THRESHOLD) {
+                return digest(Channels.newInputStream(channel));
+            }
+            MessageDigest[] mds = borrow();
+            try {
+                for (long p = position; p < size; p += Encoder.MAP_WINDOW_SIZE) {
+                    long len = Math.min(Encoder.MAP_WINDOW_SIZE, size - p);
+                    update(mds, channel.map(FileChannel.MapMode.READ_ONLY, p, len)).join();
+                }
+                channel.position(size);
+                return results(mds);
+            } finally {
+                release(mds);
+            }
+        }
+
+        private static int readFully(InputStream in, byte[] buffer) throws IOException {
+            int offset = 0;
+            int read;
+            while (offset < buffer.length && (read = in.read(buffer, offset, buffer.length - offset)) != -1) {
+                offset += read;
+            }
+            return offset;
+        }
+
+        /**
+         * Feed the remaining data of chunk to all engines. The chunk position is not changed.
+         *
+         * @return future completed when all engines consumed the chunk
+         */
+        private CompletableFuture<Void> update(MessageDigest[] mds, ByteBuffer chunk) {
+            if (executor == null || mds.length == 1 || chunk.remaining() < PARALLEL_THRESHOLD) {
+                for (MessageDigest md : mds) {
+                    md.update(chunk.duplicate());
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[mds.length];
+            for (int i = 0; i < mds.length; i++) {
+                MessageDigest md = mds[i];
+                futures[i] = CompletableFuture.runAsync(() -> md.update(chunk.duplicate()), executor);
+            }
+            return CompletableFuture.allOf(futures);
+        }
+
+        private MessageDigest[] borrow() {
+            MessageDigest[] mds = new MessageDigest[encoders.length];
+            try {
+                for (int i = 0; i < encoders.length; i++) {
+                    mds[i] = encoders[i].borrowDigest();
+                }
+            } catch (RuntimeException e) {
+                release(mds);
+                throw e;
+            }
+            return mds;
+        }
+
+        private void release(MessageDigest[] mds) {
+            for (int i = 0; i < mds.length; i++) {
+                if (mds[i] != null) {
+                    encoders[i].releaseDigest(mds[i]);
+                }
+            }
+        }
+
+        private static List<DigestResult> results(MessageDigest[] mds) {
+            DigestResult[] results = new DigestResult[mds.length];
+            for (int i = 0; i < mds.length; i++) {
+                results[i] = new DigestResult(mds[i].digest());
+            }
+            return Collections.unmodifiableList(Arrays.asList(results));
+        }
+    }
+
     /**
      * For hold digest result, and convert to result of various types.
      * This class is immutable.
@@ -152,7 +536,7 @@ public class Digests {
     public static class DigestResult {
         private final byte[] data;
 
-        private DigestResult(byte[] data) {
+        DigestResult(byte[] data) {
             this.data = data;
         }
 
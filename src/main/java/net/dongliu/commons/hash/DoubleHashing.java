@@ -0,0 +1,24 @@
+package net.dongliu.commons.hash;
+
+/**
+ * Derive multi indexes from one 64 bits hash, by double hashing: index_i = (h1 + i * h2) mod size.
+ */
+class DoubleHashing {
+
+    /**
+     * Derive the second hash, using the finalizer of SplitMix64. The result is always odd.
+     */
+    static long secondHash(long hash) {
+        long h = hash + 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return (h ^ (h >>> 31)) | 1;
+    }
+
+    /**
+     * Reduce combined hash to index in [0, size).
+     */
+    static long index(long combined, long size) {
+        return (combined & Long.MAX_VALUE) % size;
+    }
+}
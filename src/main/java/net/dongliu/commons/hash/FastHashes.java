@@ -0,0 +1,392 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Lazy;
+import net.dongliu.commons.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Non-cryptographic fast hash functions, for sharding keys, cache keys, and fingerprints.
+ * The encoders have the same shape as {@link Digests.Encoder}, and additionally return hash value as primitive
+ * long or int.
+ */
+public class FastHashes {
+
+    /**
+     * The xxHash64 encoder, with seed 0.
+     *
+     * @return the encoder
+     */
+    public static LongEncoder xxHash64() {
+        return xxHash64.get();
+    }
+
+    /**
+     * The xxHash64 encoder.
+     *
+     * @param seed the seed
+     * @return the encoder
+     */
+    public static LongEncoder xxHash64(long seed) {
+        return new XxHash64(seed);
+    }
+
+    /**
+     * The MurmurHash3 x86_32 encoder, with seed 0.
+     *
+     * @return the encoder
+     */
+    public static IntEncoder murmur3_32() {
+        return murmur3_32.get();
+    }
+
+    /**
+     * The MurmurHash3 x86_32 encoder.
+     *
+     * @param seed the seed
+     * @return the encoder
+     */
+    public static IntEncoder murmur3_32(int seed) {
+        return new Murmur3_32(seed);
+    }
+
+    /**
+     * The MurmurHash3 x64_128 encoder, with seed 0. The long hash value is the first 64 bits; use digest methods to
+     * get all 128 bits.
+     *
+     * @return the encoder
+     */
+    public static LongEncoder murmur3_128() {
+        return murmur3_128.get();
+    }
+
+    /**
+     * The MurmurHash3 x64_128 encoder. The long hash value is the first 64 bits; use digest methods to get all 128
+     * bits.
+     *
+     * @param seed the seed
+     * @return the encoder
+     */
+    public static LongEncoder murmur3_128(int seed) {
+        return new Murmur3_128(seed);
+    }
+
+    /**
+     * The CRC32C encoder. Use java.util.zip.CRC32C when running on Java 9+.
+     *
+     * @return the encoder
+     */
+    public static IntEncoder crc32c() {
+        return crc32c.get();
+    }
+
+    private static final Lazy<LongEncoder> xxHash64 = Lazy.of(() -> new XxHash64(0));
+    private static final Lazy<IntEncoder> murmur3_32 = Lazy.of(() -> new Murmur3_32(0));
+    private static final Lazy<LongEncoder> murmur3_128 = Lazy.of(() -> new Murmur3_128(0));
+    private static final Lazy<IntEncoder> crc32c = Lazy.of(Crc32c::new);
+
+    /**
+     * Hash encoder, calculate hash as {@link Digests.DigestResult}.
+     * This class is thread-safe.
+     */
+    public static abstract class Encoder {
+        static final int BULK_SIZE = 1024 * 8;
+        private final String algorithm;
+
+        Encoder(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * The name of hash algorithm.
+         *
+         * @return the algorithm name
+         */
+        public String algorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Create a new Hasher of this algorithm, for feeding data incrementally.
+         * The Hasher is not thread-safe.
+         *
+         * @return the Hasher
+         */
+        public Hasher newHasher() {
+            return new Hasher(newState());
+        }
+
+        /**
+         * Calculate hash for string using utf-8 charset.
+         *
+         * @param str the string
+         * @return digest
+         */
+        public Digests.DigestResult digest(String str) {
+            return digest(requireNonNull(str), UTF_8);
+        }
+
+        /**
+         * Calculate hash for string.
+         *
+         * @param str     the string
+         * @param charset the charset to decode string
+         * @return digest
+         */
+        public Digests.DigestResult digest(String str, Charset charset) {
+            requireNonNull(str);
+            requireNonNull(charset);
+            return digest(str.getBytes(charset));
+        }
+
+        /**
+         * Calculate hash for byte array data.
+         *
+         * @param data the data
+         * @return digest
+         */
+        public Digests.DigestResult digest(byte[] data) {
+            requireNonNull(data);
+            return digest(data, 0, data.length);
+        }
+
+        /**
+         * Calculate hash for a range of byte array data.
+         *
+         * @param data   the data
+         * @param offset the offset of data
+         * @param len    the count of bytes
+         * @return digest
+         */
+        public Digests.DigestResult digest(byte[] data, int offset, int len) {
+            Preconditions.checkArrayAndRange(data, offset, len);
+            HashState state = newState();
+            state.update(ByteBuffer.wrap(data).order(LITTLE_ENDIAN), offset, len);
+            return new Digests.DigestResult(state.finishBytes());
+        }
+
+        /**
+         * Calculate hash for all data in InputStream.
+         * The InputSteam is left unclosed when finished or error occurred.
+         *
+         * @param in the inputStream contains the data
+         * @return digest
+         */
+        public Digests.DigestResult digest(InputStream in) throws IOException {
+            return new Digests.DigestResult(feed(in).finishBytes());
+        }
+
+        /**
+         * Calculate hash for the remaining data of ByteBuffer. The buffer position is advanced to its limit.
+         *
+         * @param buffer the buffer contains the data
+         * @return digest
+         */
+        public Digests.DigestResult digest(ByteBuffer buffer) {
+            requireNonNull(buffer);
+            HashState state = newState();
+            state.update(buffer.duplicate().order(LITTLE_ENDIAN), buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return new Digests.DigestResult(state.finishBytes());
+        }
+
+        /**
+         * Calculate hash value for data in range, in one shot.
+         *
+         * @param data the data, in little-endian order
+         */
+        abstract long hashRange(ByteBuffer data, int offset, int len);
+
+        /**
+         * Create a new hash state, for feeding data incrementally.
+         */
+        abstract HashState newState();
+
+        long hashLong(byte[] data, int offset, int len) {
+            Preconditions.checkArrayAndRange(data, offset, len);
+            return hashRange(ByteBuffer.wrap(data).order(LITTLE_ENDIAN), offset, len);
+        }
+
+        long hashLong(ByteBuffer buffer) {
+            requireNonNull(buffer);
+            long value = hashRange(buffer.duplicate().order(LITTLE_ENDIAN), buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return value;
+        }
+
+        HashState feed(InputStream in) throws IOException {
+            requireNonNull(in);
+            HashState state = newState();
+            byte[] data = new byte[BULK_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(data).order(LITTLE_ENDIAN);
+            int read;
+            while ((read = in.read(data)) != -1) {
+                state.update(buffer, 0, read);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Encoder for hash with 64 bits(or wider) value.
+     * This class is thread-safe.
+     */
+    public static abstract class LongEncoder extends Encoder {
+
+        LongEncoder(String algorithm) {
+            super(algorithm);
+        }
+
+        /**
+         * Calculate hash for string using utf-8 charset.
+         *
+         * @param str the string
+         * @return the hash value
+         */
+        public long hash(String str) {
+            return hash(requireNonNull(str), UTF_8);
+        }
+
+        /**
+         * Calculate hash for string.
+         *
+         * @param str     the string
+         * @param charset the charset to decode string
+         * @return the hash value
+         */
+        public long hash(String str, Charset charset) {
+            requireNonNull(str);
+            requireNonNull(charset);
+            return hash(str.getBytes(charset));
+        }
+
+        /**
+         * Calculate hash for byte array data.
+         *
+         * @param data the data
+         * @return the hash value
+         */
+        public long hash(byte[] data) {
+            requireNonNull(data);
+            return hashLong(data, 0, data.length);
+        }
+
+        /**
+         * Calculate hash for a range of byte array data.
+         *
+         * @param data   the data
+         * @param offset the offset of data
+         * @param len    the count of bytes
+         * @return the hash value
+         */
+        public long hash(byte[] data, int offset, int len) {
+            return hashLong(data, offset, len);
+        }
+
+        /**
+         * Calculate hash for all data in InputStream.
+         * The InputSteam is left unclosed when finished or error occurred.
+         *
+         * @param in the inputStream contains the data
+         * @return the hash value
+         */
+        public long hash(InputStream in) throws IOException {
+            return feed(in).finishLong();
+        }
+
+        /**
+         * Calculate hash for the remaining data of ByteBuffer. The buffer position is advanced to its limit.
+         *
+         * @param buffer the buffer contains the data
+         * @return the hash value
+         */
+        public long hash(ByteBuffer buffer) {
+            return hashLong(buffer);
+        }
+    }
+
+    /**
+     * Encoder for hash with 32 bits value.
+     * This class is thread-safe.
+     */
+    public static abstract class IntEncoder extends Encoder {
+
+        IntEncoder(String algorithm) {
+            super(algorithm);
+        }
+
+        /**
+         * Calculate hash for string using utf-8 charset.
+         *
+         * @param str the string
+         * @return the hash value
+         */
+        public int hash(String str) {
+            return hash(requireNonNull(str), UTF_8);
+        }
+
+        /**
+         * Calculate hash for string.
+         *
+         * @param str     the string
+         * @param charset the charset to decode string
+         * @return the hash value
+         */
+        public int hash(String str, Charset charset) {
+            requireNonNull(str);
+            requireNonNull(charset);
+            return hash(str.getBytes(charset));
+        }
+
+        /**
+         * Calculate hash for byte array data.
+         *
+         * @param data the data
+         * @return the hash value
+         */
+        public int hash(byte[] data) {
+            requireNonNull(data);
+            return (int) hashLong(data, 0, data.length);
+        }
+
+        /**
+         * Calculate hash for a range of byte array data.
+         *
+         * @param data   the data
+         * @param offset the offset of data
+         * @param len    the count of bytes
+         * @return the hash value
+         */
+        public int hash(byte[] data, int offset, int len) {
+            return (int) hashLong(data, offset, len);
+        }
+
+        /**
+         * Calculate hash for all data in InputStream.
+         * The InputSteam is left unclosed when finished or error occurred.
+         *
+         * @param in the inputStream contains the data
+         * @return the hash value
+         */
+        public int hash(InputStream in) throws IOException {
+            return (int) feed(in).finishLong();
+        }
+
+        /**
+         * Calculate hash for the remaining data of ByteBuffer. The buffer position is advanced to its limit.
+         *
+         * @param buffer the buffer contains the data
+         * @return the hash value
+         */
+        public int hash(ByteBuffer buffer) {
+            return (int) hashLong(buffer);
+        }
+    }
+}
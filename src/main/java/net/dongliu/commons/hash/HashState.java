@@ -0,0 +1,32 @@
+package net.dongliu.commons.hash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The intermediate state of a streaming hash.
+ * The data buffers passed in are in little-endian order, and are accessed by absolute index.
+ * After finished, the state should be reset before fed again.
+ */
+abstract class HashState {
+
+    /**
+     * Feed data in range [offset, offset + len) of the buffer. The buffer position is not changed.
+     */
+    abstract void update(ByteBuffer data, int offset, int len);
+
+    /**
+     * The hash value of all data fed. For hash wider than 64 bits, return the first 64 bits; for 32 bits hash,
+     * return the value zero-extended.
+     */
+    abstract long finishLong();
+
+    /**
+     * The hash value of all data fed, as bytes.
+     */
+    abstract byte[] finishBytes();
+
+    /**
+     * Discard all data fed.
+     */
+    abstract void reset();
+}
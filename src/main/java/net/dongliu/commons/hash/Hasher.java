@@ -0,0 +1,283 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hasher which feed data incrementally, and calculate the digest.
+ * Data is written into an internal reusable buffer, and flushed to the hash algorithm in blocks; primitive values are
+ * written in little-endian. Hashers are created by {@link Digests.Encoder#newHasher()} or
+ * {@link FastHashes.Encoder#newHasher()}.
+ * After digest calculated, the hasher is reset, and can be reused.
+ * This class is not thread-safe.
+ */
+public class Hasher {
+    private static final int BUFFER_SIZE = 512;
+    // max bytes count of one char encoded by utf-8, including surrogate pair
+    private static final int MAX_UTF8_CHAR_SIZE = 4;
+
+    private final HashState state;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(LITTLE_ENDIAN);
+    // cached encoder of the last non-utf8 charset used
+    private CharsetEncoder charsetEncoder;
+
+    Hasher(HashState state) {
+        this.state = state;
+    }
+
+    /**
+     * Feed one byte.
+     *
+     * @param value the byte value
+     * @return this hasher
+     */
+    public Hasher putByte(byte value) {
+        ensureRemaining(1);
+        buffer.put(value);
+        return this;
+    }
+
+    /**
+     * Feed boolean value, as one byte 1 for true, and 0 for false.
+     *
+     * @param value the boolean value
+     * @return this hasher
+     */
+    public Hasher putBoolean(boolean value) {
+        return putByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Feed int value, as 4 bytes in little-endian.
+     *
+     * @param value the int value
+     * @return this hasher
+     */
+    public Hasher putInt(int value) {
+        ensureRemaining(4);
+        buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Feed long value, as 8 bytes in little-endian.
+     *
+     * @param value the long value
+     * @return this hasher
+     */
+    public Hasher putLong(long value) {
+        ensureRemaining(8);
+        buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * Feed bytes.
+     *
+     * @param data the data
+     * @return this hasher
+     */
+    public Hasher putBytes(byte[] data) {
+        requireNonNull(data);
+        return putBytes(data, 0, data.length);
+    }
+
+    /**
+     * Feed a range of bytes.
+     *
+     * @param data   the data
+     * @param offset the offset of data
+     * @param len    the count of bytes
+     * @return this hasher
+     */
+    public Hasher putBytes(byte[] data, int offset, int len) {
+        Preconditions.checkArrayAndRange(data, offset, len);
+        if (len <= buffer.remaining()) {
+            buffer.put(data, offset, len);
+            return this;
+        }
+        flush();
+        state.update(ByteBuffer.wrap(data).order(LITTLE_ENDIAN), offset, len);
+        return this;
+    }
+
+    /**
+     * Feed the remaining bytes of buffer. The buffer position is advanced to its limit.
+     *
+     * @param data the buffer
+     * @return this hasher
+     */
+    public Hasher putBytes(ByteBuffer data) {
+        requireNonNull(data);
+        if (data.remaining() <= buffer.remaining()) {
+            buffer.put(data);
+            return this;
+        }
+        flush();
+        state.update(data.duplicate().order(LITTLE_ENDIAN), data.position(), data.remaining());
+        data.position(data.limit());
+        return this;
+    }
+
+    /**
+     * Feed chars encoded using utf-8 charset.
+     *
+     * @param str the chars
+     * @return this hasher
+     */
+    public Hasher putString(CharSequence str) {
+        return putString(str, UTF_8);
+    }
+
+    /**
+     * Feed chars encoded using the charset. Malformed or unmappable chars are replaced as the way of
+     * {@link String#getBytes(Charset)}. The chars are encoded into the internal buffer directly, without creating
+     * intermediate byte array.
+     *
+     * @param str     the chars
+     * @param charset the charset
+     * @return this hasher
+     */
+    public Hasher putString(CharSequence str, Charset charset) {
+        requireNonNull(str);
+        requireNonNull(charset);
+        if (charset.equals(UTF_8)) {
+            putUtf8(str);
+        } else {
+            putEncoded(str, charset);
+        }
+        return this;
+    }
+
+    private void putUtf8(CharSequence str) {
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.remaining() < MAX_UTF8_CHAR_SIZE) {
+                flush();
+            }
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (!Character.isSurrogate(c)) {
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+                buffer.put((byte) (0xf0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (cp & 0x3f)));
+            } else {
+                // unpaired surrogate
+                buffer.put((byte) '?');
+            }
+        }
+    }
+
+    private void putEncoded(CharSequence str, Charset charset) {
+        CharsetEncoder encoder = charsetEncoder;
+        if (encoder == null || !encoder.charset().equals(charset)) {
+            encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            charsetEncoder = encoder;
+        }
+        encoder.reset();
+        CharBuffer chars = CharBuffer.wrap(str);
+        boolean endOfInput = false;
+        while (true) {
+            CoderResult result = endOfInput ? encoder.flush(buffer) : encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+                continue;
+            }
+            if (result.isError()) {
+                // should not happen with REPLACE actions
+                try {
+                    result.throwException();
+                } catch (CharacterCodingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            if (endOfInput) {
+                return;
+            }
+            endOfInput = true;
+        }
+    }
+
+    /**
+     * Calculate the digest of all data fed, and reset this hasher.
+     *
+     * @return the digest
+     */
+    public Digests.DigestResult digest() {
+        flush();
+        byte[] bytes = state.finishBytes();
+        state.reset();
+        return new Digests.DigestResult(bytes);
+    }
+
+    /**
+     * Calculate the hash value of all data fed as long, and reset this hasher.
+     * For non-cryptographic hash, return the hash value(the first 64 bits for hash wider than 64 bits, zero-extended
+     * for 32 bits hash); for message digest, return the first 8 bytes of digest in little-endian.
+     *
+     * @return the hash value
+     */
+    public long hashLong() {
+        flush();
+        long value = state.finishLong();
+        state.reset();
+        return value;
+    }
+
+    /**
+     * Calculate the hash value of all data fed as int, and reset this hasher.
+     * The value is the lower 32 bits of {@link #hashLong()}.
+     *
+     * @return the hash value
+     */
+    public int hashInt() {
+        return (int) hashLong();
+    }
+
+    /**
+     * Discard all data fed.
+     *
+     * @return this hasher
+     */
+    public Hasher reset() {
+        buffer.clear();
+        state.reset();
+        return this;
+    }
+
+    private void ensureRemaining(int size) {
+        if (buffer.remaining() < size) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (buffer.position() > 0) {
+            state.update(buffer, 0, buffer.position());
+            buffer.clear();
+        }
+    }
+}
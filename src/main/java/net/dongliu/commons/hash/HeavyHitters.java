@@ -0,0 +1,314 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Track the most frequent elements(heavy hitters) of a stream in fixed memory, using the Space-Saving algorithm.
+ * <p>
+ * At most capacity elements are monitored. When a new element arrives and all counters are used, the element with
+ * minimal count is replaced, and the new element inherits its count as error. Every element with frequency larger than
+ * total / capacity is guaranteed to be monitored, and the count of a monitored element over-estimates its real count
+ * by at most its error.
+ * </p>
+ * <p>
+ * The counters are split into stripes by hash code of element, each stripe has its own lock, so threads adding
+ * different elements rarely contend. With stripes, the guarantee holds per stripe.
+ * </p>
+ * This class is thread-safe.
+ *
+ * @param <K> the element type
+ */
+public class HeavyHitters<K> {
+    private final Stripe<K>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    private HeavyHitters(int capacity, int stripeCount) {
+        Preconditions.assertArgument(capacity > 0, () -> "capacity should be positive: " + capacity);
+        Preconditions.assertArgument(stripeCount > 0 && stripeCount <= capacity,
+                () -> "stripes should in range [1, capacity]: " + stripeCount);
+        this.stripes = (Stripe<K>[]) new Stripe<?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // distribute capacity to stripes
+            stripes[i] = new Stripe<>(capacity / stripeCount + (i < capacity % stripeCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Create a new tracker with one stripe.
+     *
+     * @param capacity the max count of elements monitored
+     * @param <K>      the element type
+     * @return the tracker
+     */
+    public static <K> HeavyHitters<K> create(int capacity) {
+        return new HeavyHitters<>(capacity, 1);
+    }
+
+    /**
+     * Create a new tracker.
+     *
+     * @param capacity the max count of elements monitored
+     * @param stripes  the count of stripes, for reducing lock contention
+     * @param <K>      the element type
+     * @return the tracker
+     */
+    public static <K> HeavyHitters<K> create(int capacity, int stripes) {
+        return new HeavyHitters<>(capacity, stripes);
+    }
+
+    /**
+     * Add one occurrence of element.
+     *
+     * @param element the element
+     */
+    public void add(K element) {
+        add(element, 1);
+    }
+
+    /**
+     * Add occurrences of element.
+     *
+     * @param element the element
+     * @param count   the count to add, should be positive
+     */
+    public void add(K element, long count) {
+        requireNonNull(element);
+        Preconditions.assertArgument(count > 0, () -> "count should be positive: " + count);
+        stripeOf(element).add(element, count);
+    }
+
+    /**
+     * The monitored count of element.
+     *
+     * @param element the element
+     * @return the count, 0 if element is not monitored
+     */
+    public long count(K element) {
+        requireNonNull(element);
+        return stripeOf(element).count(element);
+    }
+
+    /**
+     * The top elements with max counts.
+     *
+     * @param k the max count of elements to return
+     * @return the elements, in count descending order
+     */
+    public List<Entry<K>> top(int k) {
+        List<Entry<K>> entries = new ArrayList<>();
+        for (Stripe<K> stripe : stripes) {
+            stripe.collect(entries);
+        }
+        entries.sort((e1, e2) -> Long.compare(e2.count, e1.count));
+        return entries.size() <= k ? entries : new ArrayList<>(entries.subList(0, k));
+    }
+
+    /**
+     * Halve all counts and errors, so that old counts fade out when called periodically.
+     * Elements whose count becomes 0 are removed.
+     */
+    public void decay() {
+        for (Stripe<K> stripe : stripes) {
+            stripe.decay();
+        }
+    }
+
+    /**
+     * Remove all elements.
+     */
+    public void reset() {
+        for (Stripe<K> stripe : stripes) {
+            stripe.reset();
+        }
+    }
+
+    private Stripe<K> stripeOf(K element) {
+        if (stripes.length == 1) {
+            return stripes[0];
+        }
+        int h = element.hashCode() * 0x9E3779B9;
+        return stripes[(int) (((h >>> 16) & 0xffffL) * stripes.length >>> 16)];
+    }
+
+    /**
+     * One monitored element.
+     *
+     * @param <K> the element type
+     */
+    public static class Entry<K> {
+        private final K element;
+        private final long count;
+        private final long error;
+
+        private Entry(K element, long count, long error) {
+            this.element = element;
+            this.count = count;
+            this.error = error;
+        }
+
+        /**
+         * The element.
+         *
+         * @return the element
+         */
+        public K element() {
+            return element;
+        }
+
+        /**
+         * The estimated count, which is not less than the real count.
+         *
+         * @return the count
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * The max over-estimation of count. The real count is in range [count - error, count].
+         *
+         * @return the error
+         */
+        public long error() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{element=" + element + ", count=" + count + ", error=" + error + "}";
+        }
+    }
+
+    private static class Counter<K> {
+        private K element;
+        private long count;
+        private long error;
+        private int heapIndex;
+    }
+
+    /**
+     * Space-Saving counters, indexed by element and ordered by a min-heap of count.
+     */
+    private static class Stripe<K> {
+        private final int capacity;
+        private final Map<K, Counter<K>> counters;
+        private final Counter<K>[] heap;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.counters = new HashMap<>(capacity * 4 / 3 + 1);
+            this.heap = (Counter<K>[]) new Counter<?>[capacity];
+        }
+
+        synchronized void add(K element, long count) {
+            Counter<K> counter = counters.get(element);
+            if (counter == null && size < capacity) {
+                counter = new Counter<>();
+                counter.element = element;
+                counter.count = count;
+                counters.put(element, counter);
+                heap[size] = counter;
+                siftUp(size++);
+                return;
+            }
+            if (counter == null) {
+                // replace the min counter
+                counter = heap[0];
+                counters.remove(counter.element);
+                counter.element = element;
+                counter.error = counter.count;
+                counters.put(element, counter);
+            }
+            counter.count += count;
+            siftDown(counter.heapIndex);
+        }
+
+        synchronized long count(K element) {
+            Counter<K> counter = counters.get(element);
+            return counter == null ? 0 : counter.count;
+        }
+
+        synchronized void collect(List<Entry<K>> entries) {
+            for (int i = 0; i < size; i++) {
+                Counter<K> counter = heap[i];
+                entries.add(new Entry<>(counter.element, counter.count, counter.error));
+            }
+        }
+
+        synchronized void decay() {
+            int newSize = 0;
+            for (int i = 0; i < size; i++) {
+                Counter<K> counter = heap[i];
+                counter.count >>>= 1;
+                counter.error >>>= 1;
+                if (counter.count == 0) {
+                    counters.remove(counter.element);
+                } else {
+                    counter.heapIndex = newSize;
+                    heap[newSize++] = counter;
+                }
+            }
+            for (int i = newSize; i < size; i++) {
+                heap[i] = null;
+            }
+            size = newSize;
+            // counters are compacted, rebuild the heap
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        synchronized void reset() {
+            counters.clear();
+            for (int i = 0; i < size; i++) {
+                heap[i] = null;
+            }
+            size = 0;
+        }
+
+        private void siftUp(int index) {
+            Counter<K> counter = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap[parent].count <= counter.count) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                heap[index].heapIndex = index;
+                index = parent;
+            }
+            heap[index] = counter;
+            counter.heapIndex = index;
+        }
+
+        private void siftDown(int index) {
+            Counter<K> counter = heap[index];
+            while (true) {
+                int child = index * 2 + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                    child++;
+                }
+                if (heap[child].count >= counter.count) {
+                    break;
+                }
+                heap[index] = heap[child];
+                heap[index].heapIndex = index;
+                index = child;
+            }
+            heap[index] = counter;
+            counter.heapIndex = index;
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+import net.dongliu.commons.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * HyperLogLog cardinality estimator, which count distinct elements in fixed memory.
+ * <p>
+ * Elements are hashed using xxHash64. With precision p, there are 2^p registers, and the relative standard error is
+ * about 1.04 / sqrt(2^p).
+ * As HyperLogLog++, a new estimator starts with a sparse representation which records hashes in precision 25 and
+ * estimates by linear counting, so small cardinalities are almost exact; it converts to dense registers when the sparse
+ * form would use more memory. Dense registers are estimated by the improved estimator of Otmar Ertl, which needs
+ * no empirical bias correction tables.
+ * </p>
+ * Estimators created by {@link #createConcurrent(int)} use dense registers updated by CAS, and can be added by multi
+ * threads concurrently; otherwise this class is not thread-safe.
+ */
+public class HyperLogLog {
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+    private static final int DEFAULT_PRECISION = 14;
+    // precision of sparse representation
+    private static final int SPARSE_PRECISION = 25;
+    private static final int SERIAL_VERSION = 1;
+    private static final int FORMAT_SPARSE = 0;
+    private static final int FORMAT_DENSE = 1;
+    private static final double ALPHA_INF = 1 / (2 * Math.log(2));
+
+    private final int precision;
+    // sorted sparse entries, with unique index. Each entry is (index << 6) | rank, in sparse precision
+    private int[] sparse;
+    private int sparseSize;
+    // unsorted entries not merged into sparse yet
+    private int[] pending;
+    private int pendingSize;
+    @Nullable
+    private byte[] dense;
+    // packed registers for concurrent mode, 4 registers one int
+    @Nullable
+    private final AtomicIntegerArray atomic;
+
+    private HyperLogLog(int precision, boolean concurrent) {
+        Preconditions.assertArgument(precision >= MIN_PRECISION && precision <= MAX_PRECISION,
+                () -> "precision should in range [" + MIN_PRECISION + ", " + MAX_PRECISION + "]: " + precision);
+        this.precision = precision;
+        if (concurrent) {
+            this.atomic = new AtomicIntegerArray((1 << precision) / 4);
+        } else {
+            this.atomic = null;
+            this.sparse = new int[0];
+            this.pending = new int[Math.max(16, (1 << precision) / 32)];
+        }
+    }
+
+    /**
+     * Create a new estimator with default precision 14, which has relative standard error about 0.81%, and uses at most
+     * 16K bytes.
+     *
+     * @return the estimator
+     */
+    public static HyperLogLog create() {
+        return new HyperLogLog(DEFAULT_PRECISION, false);
+    }
+
+    /**
+     * Create a new estimator.
+     *
+     * @param precision the precision, in range [4, 18]
+     * @return the estimator
+     */
+    public static HyperLogLog create(int precision) {
+        return new HyperLogLog(precision, false);
+    }
+
+    /**
+     * Create a new estimator which can be added by multi threads concurrently.
+     * This estimator uses dense registers from start.
+     *
+     * @param precision the precision, in range [4, 18]
+     * @return the estimator
+     */
+    public static HyperLogLog createConcurrent(int precision) {
+        return new HyperLogLog(precision, true);
+    }
+
+    /**
+     * Add bytes.
+     *
+     * @param data the data
+     */
+    public void add(byte[] data) {
+        addHash(FastHashes.xxHash64().hash(data));
+    }
+
+    /**
+     * Add a range of bytes.
+     *
+     * @param data   the data
+     * @param offset the offset of data
+     * @param len    the count of bytes
+     */
+    public void add(byte[] data, int offset, int len) {
+        addHash(FastHashes.xxHash64().hash(data, offset, len));
+    }
+
+    /**
+     * Add string, the string is encoded using utf-8.
+     *
+     * @param str the string
+     */
+    public void add(String str) {
+        addHash(FastHashes.xxHash64().hash(str));
+    }
+
+    /**
+     * Add long value.
+     *
+     * @param value the value
+     */
+    public void add(long value) {
+        addHash(XxHash64.hashLong(value, 0));
+    }
+
+    /**
+     * Add element by its 64 bits hash value. The hash should be well distributed, such as the hash calculated by
+     * {@link FastHashes}.
+     *
+     * @param hash the hash value of element
+     */
+    public void addHash(long hash) {
+        if (isSparse()) {
+            int index = (int) (hash >>> (64 - SPARSE_PRECISION));
+            int rank = Math.min(Long.numberOfLeadingZeros(hash << SPARSE_PRECISION), 64 - SPARSE_PRECISION) + 1;
+            addSparse((index << 6) | rank);
+            return;
+        }
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        updateRegister(index, rank);
+    }
+
+    /**
+     * The estimated count of distinct elements.
+     *
+     * @return the cardinality
+     */
+    public long cardinality() {
+        if (isSparse()) {
+            flushPending();
+            double m = 1 << SPARSE_PRECISION;
+            return Math.round(m * Math.log(m / (m - sparseSize)));
+        }
+        int q = 64 - precision;
+        int m = 1 << precision;
+        int[] histogram = new int[q + 2];
+        for (int i = 0; i < m; i++) {
+            histogram[register(i)]++;
+        }
+        double z = m * tau((double) (m - histogram[q + 1]) / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+        return Math.round(ALPHA_INF * m * m / z);
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double prev;
+        do {
+            x *= x;
+            prev = z;
+            z += x * y;
+            y += y;
+        } while (z != prev);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double prev;
+        do {
+            x = Math.sqrt(x);
+            prev = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != prev);
+        return z / 3;
+    }
+
+    /**
+     * Merge other estimator into this one, then this estimator counts the union of elements. The estimators should
+     * have the same precision.
+     * If this estimator is concurrent, other threads can add elements while merging.
+     *
+     * @param other the other estimator
+     */
+    public void merge(HyperLogLog other) {
+        requireNonNull(other);
+        Preconditions.assertArgument(precision == other.precision,
+                () -> "precision not match: " + precision + ", " + other.precision);
+        if (other.isSparse()) {
+            other.flushPending();
+            for (int i = 0; i < other.sparseSize; i++) {
+                int entry = other.sparse[i];
+                if (isSparse()) {
+                    addSparse(entry);
+                } else {
+                    updateRegister(denseIndex(entry), denseRank(entry));
+                }
+            }
+            return;
+        }
+        toDense();
+        int m = 1 << precision;
+        for (int i = 0; i < m; i++) {
+            updateRegister(i, other.register(i));
+        }
+    }
+
+    /**
+     * The precision of this estimator.
+     *
+     * @return the precision
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * The bytes count of serialized data.
+     *
+     * @return the bytes count
+     */
+    public int serializedSize() {
+        if (isSparse()) {
+            flushPending();
+            int size = 3 + 4;
+            int last = 0;
+            for (int i = 0; i < sparseSize; i++) {
+                size += varIntSize(sparse[i] - last);
+                last = sparse[i];
+            }
+            return size;
+        }
+        return 3 + ((1 << precision) * 6 + 7) / 8;
+    }
+
+    /**
+     * Write this estimator to buffer, in compact format: sparse entries are delta encoded as var ints, and dense
+     * registers are packed as 6 bits each.
+     *
+     * @param buffer the buffer, should have at least {@link #serializedSize()} bytes remaining
+     * @see #readFrom(ByteBuffer)
+     */
+    public void writeTo(ByteBuffer buffer) {
+        requireNonNull(buffer);
+        buffer.put((byte) SERIAL_VERSION).put((byte) precision);
+        if (isSparse()) {
+            flushPending();
+            buffer.put((byte) FORMAT_SPARSE).putInt(sparseSize);
+            int last = 0;
+            for (int i = 0; i < sparseSize; i++) {
+                putVarInt(buffer, sparse[i] - last);
+                last = sparse[i];
+            }
+            return;
+        }
+        buffer.put((byte) FORMAT_DENSE);
+        int m = 1 << precision;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = 0; i < m; i++) {
+            bits = (bits << 6) | register(i);
+            bitCount += 6;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                buffer.put((byte) (bits >>> bitCount));
+            }
+        }
+        if (bitCount > 0) {
+            buffer.put((byte) (bits << (8 - bitCount)));
+        }
+    }
+
+    /**
+     * Read estimator from buffer, which is written by {@link #writeTo(ByteBuffer)}.
+     * The estimator returned is not concurrent.
+     *
+     * @param buffer the buffer
+     * @return the estimator
+     */
+    public static HyperLogLog readFrom(ByteBuffer buffer) {
+        requireNonNull(buffer);
+        int version = buffer.get();
+        int precision = buffer.get();
+        int format = buffer.get();
+        Preconditions.assertArgument(version == SERIAL_VERSION && precision >= MIN_PRECISION
+                && precision <= MAX_PRECISION, () -> "invalid hyperloglog data");
+        HyperLogLog hll = new HyperLogLog(precision, false);
+        if (format == FORMAT_SPARSE) {
+            int size = buffer.getInt();
+            Preconditions.assertArgument(size >= 0 && size <= 1 << precision, () -> "invalid hyperloglog data");
+            hll.sparse = new int[size];
+            int last = 0;
+            for (int i = 0; i < size; i++) {
+                last += getVarInt(buffer);
+                hll.sparse[i] = last;
+            }
+            hll.sparseSize = size;
+            return hll;
+        }
+        Preconditions.assertArgument(format == FORMAT_DENSE, () -> "invalid hyperloglog data");
+        int m = 1 << precision;
+        byte[] dense = new byte[m];
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = 0; i < m; i++) {
+            if (bitCount < 6) {
+                bits = (bits << 8) | (buffer.get() & 0xff);
+                bitCount += 8;
+            }
+            bitCount -= 6;
+            dense[i] = (byte) ((bits >>> bitCount) & 0x3f);
+        }
+        hll.dense = dense;
+        hll.sparse = null;
+        hll.pending = null;
+        return hll;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("invalid hyperloglog data");
+    }
+
+    private boolean isSparse() {
+        return sparse != null;
+    }
+
+    private void addSparse(int entry) {
+        if (pendingSize == pending.length) {
+            flushPending();
+            if (!isSparse()) {
+                updateRegister(denseIndex(entry), denseRank(entry));
+                return;
+            }
+        }
+        pending[pendingSize++] = entry;
+    }
+
+    /**
+     * Merge pending entries into sparse entries, and convert to dense if sparse entries is too many.
+     */
+    private void flushPending() {
+        if (pendingSize == 0) {
+            return;
+        }
+        Arrays.sort(pending, 0, pendingSize);
+        int[] merged = new int[sparseSize + pendingSize];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sparseSize || j < pendingSize) {
+            int entry;
+            if (j == pendingSize || (i < sparseSize && sparse[i] < pending[j])) {
+                entry = sparse[i++];
+            } else {
+                entry = pending[j++];
+            }
+            // entries with same index are sorted by rank, keep the last one
+            if (size > 0 && (merged[size - 1] >>> 6) == (entry >>> 6)) {
+                merged[size - 1] = entry;
+            } else {
+                merged[size++] = entry;
+            }
+        }
+        pendingSize = 0;
+        sparse = merged;
+        sparseSize = size;
+        // sparse entry uses 4 bytes, while dense register uses 1 byte
+        if (sparseSize > (1 << precision) / 4) {
+            toDense();
+        }
+    }
+
+    private void toDense() {
+        if (!isSparse()) {
+            return;
+        }
+        int[] entries = sparse;
+        int size = sparseSize;
+        if (pendingSize > 0) {
+            entries = Arrays.copyOf(sparse, sparseSize + pendingSize);
+            System.arraycopy(pending, 0, entries, sparseSize, pendingSize);
+            size += pendingSize;
+        }
+        dense = new byte[1 << precision];
+        sparse = null;
+        pending = null;
+        sparseSize = 0;
+        pendingSize = 0;
+        for (int i = 0; i < size; i++) {
+            updateRegister(denseIndex(entries[i]), denseRank(entries[i]));
+        }
+    }
+
+    // the dense register index of sparse entry
+    private int denseIndex(int entry) {
+        return entry >>> (6 + SPARSE_PRECISION - precision);
+    }
+
+    // the dense register rank of sparse entry
+    private int denseRank(int entry) {
+        int extraBits = SPARSE_PRECISION - precision;
+        int extra = (entry >>> 6) & ((1 << extraBits) - 1);
+        if (extra != 0) {
+            return Integer.numberOfLeadingZeros(extra) - (32 - extraBits) + 1;
+        }
+        return extraBits + (entry & 0x3f);
+    }
+
+    private int register(int i) {
+        if (atomic != null) {
+            return (atomic.get(i >>> 2) >>> ((i & 3) << 3)) & 0xff;
+        }
+        return dense[i];
+    }
+
+    private void updateRegister(int i, int rank) {
+        if (atomic == null) {
+            if (dense[i] < rank) {
+                dense[i] = (byte) rank;
+            }
+            return;
+        }
+        int shift = (i & 3) << 3;
+        int word;
+        do {
+            word = atomic.get(i >>> 2);
+            if (((word >>> shift) & 0xff) >= rank) {
+                return;
+            }
+        } while (!atomic.compareAndSet(i >>> 2, word, (word & ~(0xff << shift)) | (rank << shift)));
+    }
+}
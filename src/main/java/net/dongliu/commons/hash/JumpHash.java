@@ -0,0 +1,60 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+/**
+ * Jump consistent hash, by John Lamping and Eric Veach. Map keys to buckets numbered [0, buckets), so that when
+ * buckets increase from n to n + 1, only about 1/(n + 1) of keys move to the new bucket.
+ * <p>
+ * It needs no memory and takes O(log n) time, and keys are distributed evenly. But buckets can only be added or
+ * removed at the end, so it fits sharded storage better than a set of servers which may go down randomly; for the
+ * later, use {@link ConsistentHashRing} or {@link RendezvousHash}.
+ * </p>
+ */
+public class JumpHash {
+
+    private JumpHash() {
+    }
+
+    /**
+     * Get the bucket for long key. The key is used as the seed of random sequence directly, so keys should be well
+     * distributed hash value, or use {@link #bucket(String, int)}.
+     *
+     * @param key     the key
+     * @param buckets the count of buckets, should be positive
+     * @return the bucket number, in range [0, buckets)
+     */
+    public static int bucket(long key, int buckets) {
+        Preconditions.assertArgument(buckets > 0, () -> "buckets should be positive: " + buckets);
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    /**
+     * Get the bucket for string key, the key is hashed as utf-8 bytes.
+     *
+     * @param key     the key
+     * @param buckets the count of buckets, should be positive
+     * @return the bucket number, in range [0, buckets)
+     */
+    public static int bucket(String key, int buckets) {
+        return bucket(XxHash64.hashUtf8(key), buckets);
+    }
+
+    /**
+     * Get the bucket for bytes key.
+     *
+     * @param key     the key
+     * @param buckets the count of buckets, should be positive
+     * @return the bucket number, in range [0, buckets)
+     */
+    public static int bucket(byte[] key, int buckets) {
+        return bucket(FastHashes.xxHash64().hash(key), buckets);
+    }
+}
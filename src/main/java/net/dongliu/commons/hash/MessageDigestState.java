@@ -0,0 +1,44 @@
+package net.dongliu.commons.hash;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Adapt MessageDigest as hash state. The MessageDigest is reset after finished.
+ * The long value is the first 8 bytes of digest, in little-endian.
+ */
+class MessageDigestState extends HashState {
+    private final MessageDigest md;
+
+    MessageDigestState(MessageDigest md) {
+        this.md = md;
+    }
+
+    @Override
+    void update(ByteBuffer data, int offset, int len) {
+        if (data.hasArray()) {
+            md.update(data.array(), data.arrayOffset() + offset, len);
+            return;
+        }
+        ByteBuffer range = data.duplicate();
+        range.position(offset).limit(offset + len);
+        md.update(range);
+    }
+
+    @Override
+    long finishLong() {
+        return ByteBuffer.wrap(md.digest()).order(LITTLE_ENDIAN).getLong();
+    }
+
+    @Override
+    byte[] finishBytes() {
+        return md.digest();
+    }
+
+    @Override
+    void reset() {
+        md.reset();
+    }
+}
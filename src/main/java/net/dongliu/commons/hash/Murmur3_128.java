@@ -0,0 +1,121 @@
+package net.dongliu.commons.hash;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * The MurmurHash3 x64_128 algorithm. The long hash value is the first 64 bits(h1), and the digest bytes are h1 and h2
+ * in little-endian.
+ */
+final class Murmur3_128 extends FastHashes.LongEncoder {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final int BLOCK_SIZE = 16;
+
+    private final long seed;
+
+    Murmur3_128(int seed) {
+        super("murmur3_128");
+        this.seed = seed & 0xFFFFFFFFL;
+    }
+
+    @Override
+    long hashRange(ByteBuffer data, int offset, int len) {
+        State state = new State();
+        state.update(data, offset, len);
+        return state.finishLong();
+    }
+
+    @Override
+    HashState newState() {
+        return new State();
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        return k ^ (k >>> 33);
+    }
+
+    private class State extends BlockHashState {
+        private long h1;
+        private long h2;
+        // the finished hash values
+        private long r1;
+        private long r2;
+
+        State() {
+            super(BLOCK_SIZE);
+            resetBlocks();
+        }
+
+        @Override
+        void processBlock(ByteBuffer data, int offset) {
+            h1 ^= mixK1(data.getLong(offset));
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(data.getLong(offset + 8));
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        @Override
+        void resetBlocks() {
+            h1 = seed;
+            h2 = seed;
+        }
+
+        @Override
+        long finishLong() {
+            finish();
+            return r1;
+        }
+
+        @Override
+        byte[] finishBytes() {
+            finish();
+            return ByteBuffer.allocate(16).order(LITTLE_ENDIAN).putLong(r1).putLong(r2).array();
+        }
+
+        private void finish() {
+            ByteBuffer tail = tail();
+            int tailLength = tailLength();
+            long k1 = 0;
+            long k2 = 0;
+            for (int i = tailLength - 1; i >= 8; i--) {
+                k2 = (k2 << 8) | (tail.get(i) & 0xff);
+            }
+            for (int i = Math.min(tailLength, 8) - 1; i >= 0; i--) {
+                k1 = (k1 << 8) | (tail.get(i) & 0xff);
+            }
+            r1 = h1 ^ (tailLength > 0 ? mixK1(k1) : 0);
+            r2 = h2 ^ (tailLength > 8 ? mixK2(k2) : 0);
+            r1 ^= total();
+            r2 ^= total();
+            r1 += r2;
+            r2 += r1;
+            r1 = fmix64(r1);
+            r2 = fmix64(r2);
+            r1 += r2;
+            r2 += r1;
+        }
+    }
+}
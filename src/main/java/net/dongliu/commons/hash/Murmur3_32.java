@@ -0,0 +1,100 @@
+package net.dongliu.commons.hash;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * The MurmurHash3 x86_32 algorithm. The digest bytes are the little-endian representation of hash value.
+ */
+final class Murmur3_32 extends FastHashes.IntEncoder {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    private final int seed;
+
+    Murmur3_32(int seed) {
+        super("murmur3_32");
+        this.seed = seed;
+    }
+
+    @Override
+    long hashRange(ByteBuffer data, int offset, int len) {
+        int end = offset + len;
+        int h = seed;
+        for (; offset + 4 <= end; offset += 4) {
+            h = mixH(h, mixK(data.getInt(offset)));
+        }
+        return finish(h, data, offset, end - offset, len) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    HashState newState() {
+        return new State();
+    }
+
+    private static int mixK(int k) {
+        k *= C1;
+        k = Integer.rotateLeft(k, 15);
+        return k * C2;
+    }
+
+    private static int mixH(int h, int k) {
+        h ^= k;
+        h = Integer.rotateLeft(h, 13);
+        return h * 5 + 0xe6546b64;
+    }
+
+    @SuppressWarnings("fallthrough")
+    private static int finish(int h, ByteBuffer data, int offset, int tailLength, long total) {
+        int k = 0;
+        switch (tailLength) {
+            case 3:
+                k ^= (data.get(offset + 2) & 0xff) << 16;
+                // fall through
+            case 2:
+                k ^= (data.get(offset + 1) & 0xff) << 8;
+                // fall through
+            case 1:
+                k ^= data.get(offset) & 0xff;
+                h ^= mixK(k);
+                // fall through
+            default:
+        }
+        h ^= (int) total;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private class State extends BlockHashState {
+        private int h;
+
+        State() {
+            super(4);
+            resetBlocks();
+        }
+
+        @Override
+        void processBlock(ByteBuffer data, int offset) {
+            h = mixH(h, mixK(data.getInt(offset)));
+        }
+
+        @Override
+        void resetBlocks() {
+            h = seed;
+        }
+
+        @Override
+        long finishLong() {
+            return finish(h, tail(), 0, tailLength(), total()) & 0xFFFFFFFFL;
+        }
+
+        @Override
+        byte[] finishBytes() {
+            return ByteBuffer.allocate(4).order(LITTLE_ENDIAN).putInt((int) finishLong()).array();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Rendezvous hashing(highest random weight hashing), for mapping keys to nodes so that removing one node only moves
+ * keys mapped to that node.
+ * <p>
+ * For each key, a score is computed for every node by mixing the key hash with the node hash, and the node with the
+ * highest score is selected. Lookup takes O(n) time without allocation, and no memory is needed besides the node
+ * hashes, which makes it a good choice for small count of nodes. For large count of nodes, use
+ * {@link ConsistentHashRing}.
+ * </p>
+ * This class is immutable and thread-safe.
+ *
+ * @param <N> the node type
+ */
+public class RendezvousHash<N> {
+    private final List<N> nodes;
+    private final long[] nodeHashes;
+
+    private RendezvousHash(List<N> nodes, Function<? super N, String> nodeKey) {
+        Preconditions.assertArgument(!nodes.isEmpty(), () -> "nodes should not be empty");
+        this.nodes = nodes;
+        this.nodeHashes = new long[nodes.size()];
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            String key = requireNonNull(nodeKey.apply(nodes.get(i)));
+            Preconditions.assertArgument(keys.add(key), () -> "duplicated node key: " + key);
+            nodeHashes[i] = XxHash64.hashUtf8(key);
+        }
+    }
+
+    /**
+     * Create a new rendezvous hash. The node key used to score node is the toString value of node.
+     *
+     * @param nodes the nodes, should not be empty, and the node keys should be distinct
+     * @param <N>   the node type
+     * @return the rendezvous hash
+     */
+    public static <N> RendezvousHash<N> create(Collection<? extends N> nodes) {
+        return create(nodes, String::valueOf);
+    }
+
+    /**
+     * Create a new rendezvous hash.
+     *
+     * @param nodes   the nodes, should not be empty, and the node keys should be distinct
+     * @param nodeKey the function to get the key of node. The key should be stable across processes
+     * @param <N>     the node type
+     * @return the rendezvous hash
+     */
+    public static <N> RendezvousHash<N> create(Collection<? extends N> nodes, Function<? super N, String> nodeKey) {
+        requireNonNull(nodeKey);
+        List<N> list = Collections.unmodifiableList(new ArrayList<>(requireNonNull(nodes)));
+        return new RendezvousHash<>(list, nodeKey);
+    }
+
+    /**
+     * Get the node for string key, the key is hashed as utf-8 bytes.
+     *
+     * @param key the key
+     * @return the node
+     */
+    public N node(String key) {
+        return nodeForHash(XxHash64.hashUtf8(key));
+    }
+
+    /**
+     * Get the node for bytes key.
+     *
+     * @param key the key
+     * @return the node
+     */
+    public N node(byte[] key) {
+        return nodeForHash(FastHashes.xxHash64().hash(key));
+    }
+
+    /**
+     * Get the node for long key.
+     *
+     * @param key the key
+     * @return the node
+     */
+    public N node(long key) {
+        return nodeForHash(XxHash64.hashLong(key, 0));
+    }
+
+    /**
+     * Get the node by 64 bits hash value of key.
+     *
+     * @param hash the hash of key
+     * @return the node
+     */
+    public N nodeForHash(long hash) {
+        int selected = 0;
+        long maxScore = Long.MIN_VALUE;
+        for (int i = 0; i < nodeHashes.length; i++) {
+            long score = XxHash64.hashLong(hash, nodeHashes[i]);
+            if (score > maxScore || score == maxScore && nodeHashes[i] > nodeHashes[selected]) {
+                maxScore = score;
+                selected = i;
+            }
+        }
+        return nodes.get(selected);
+    }
+
+    /**
+     * The nodes, in the order passed in.
+     *
+     * @return immutable node list
+     */
+    public List<N> nodes() {
+        return nodes;
+    }
+}
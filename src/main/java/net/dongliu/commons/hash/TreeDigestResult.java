@@ -0,0 +1,66 @@
+package net.dongliu.commons.hash;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The result of tree digest. The root digest is hold as the digest value, and the leaf digests are also available.
+ * This class is immutable.
+ */
+public class TreeDigestResult extends Digests.DigestResult {
+    private final int leafSize;
+    private final byte[][] leaves;
+
+    TreeDigestResult(byte[] root, int leafSize, byte[][] leaves) {
+        super(root);
+        this.leafSize = leafSize;
+        this.leaves = leaves;
+    }
+
+    /**
+     * The leaf size used to split input.
+     *
+     * @return the leaf size
+     */
+    public int leafSize() {
+        return leafSize;
+    }
+
+    /**
+     * The count of leaves.
+     *
+     * @return the leaves count
+     */
+    public int leafCount() {
+        return leaves.length;
+    }
+
+    /**
+     * The digest of leaf at index. The leaf contains data in range [index * leafSize, (index + 1) * leafSize).
+     *
+     * @param index the leaf index
+     * @return the leaf digest
+     */
+    public Digests.DigestResult leaf(int index) {
+        return new Digests.DigestResult(leaves[index]);
+    }
+
+    /**
+     * The digests of all leaves, in order.
+     *
+     * @return immutable list of leaf digests
+     */
+    public List<Digests.DigestResult> leaves() {
+        return new AbstractList<Digests.DigestResult>() {
+            @Override
+            public Digests.DigestResult get(int index) {
+                return leaf(index);
+            }
+
+            @Override
+            public int size() {
+                return leaves.length;
+            }
+        };
+    }
+}
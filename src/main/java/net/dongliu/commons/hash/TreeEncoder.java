@@ -0,0 +1,283 @@
+package net.dongliu.commons.hash;
+
+import net.dongliu.commons.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tree(Merkle) hash encoder, for digesting very large input using multi cores.
+ * <p>
+ * The input is split into leaves of fixed leaf size, the last leaf may be shorter; empty input has one empty leaf.
+ * Each leaf digest is H(0x00 || leaf data); Adjacent digests are combined level by level as
+ * H(0x01 || left || right), and the last digest of a level with odd count is promoted to the next level unchanged.
+ * As the leaf size and the combination rule are fixed, the root digest does not depend on how many threads ran.
+ * </p>
+ * This class is immutable, and can be reused.
+ */
+public class TreeEncoder {
+    private static final byte LEAF_PREFIX = 0;
+    private static final byte NODE_PREFIX = 1;
+    // the max bytes count hashed by one fork-join task, unless a leaf is larger
+    private static final long TASK_SIZE = 16 * 1024 * 1024;
+
+    private final Digests.Encoder encoder;
+    private final int leafSize;
+    private final ForkJoinPool pool;
+
+    TreeEncoder(Digests.Encoder encoder, int leafSize, ForkJoinPool pool) {
+        this.encoder = encoder;
+        this.leafSize = leafSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Return a new tree encoder, which hashes leaves using the pool.
+     *
+     * @param pool the ForkJoinPool
+     * @return the tree encoder
+     */
+    public TreeEncoder pool(ForkJoinPool pool) {
+        return new TreeEncoder(encoder, leafSize, requireNonNull(pool));
+    }
+
+    /**
+     * The leaf size of this encoder
+     *
+     * @return the leaf size
+     */
+    public int leafSize() {
+        return leafSize;
+    }
+
+    /**
+     * Calculate the digest of one leaf. This can be used to verify a range of data, with the leaf digests of
+     * {@link TreeDigestResult}.
+     *
+     * @param data   the data
+     * @param offset the offset of leaf data
+     * @param len    the len of leaf data
+     * @return the leaf digest
+     */
+    public Digests.DigestResult leafDigest(byte[] data, int offset, int len) {
+        Preconditions.checkArrayAndRange(data, offset, len);
+        return new Digests.DigestResult(hashLeaf(ByteBuffer.wrap(data, offset, len)));
+    }
+
+    /**
+     * Calculate tree digest for byte array data.
+     *
+     * @param data the data
+     * @return the tree digest
+     */
+    public TreeDigestResult digest(byte[] data) {
+        requireNonNull(data);
+        return digest(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Calculate tree digest for the remaining data of ByteBuffer. The buffer position is advanced to its limit.
+     *
+     * @param buffer the buffer contains the data
+     * @return the tree digest
+     */
+    public TreeDigestResult digest(ByteBuffer buffer) {
+        requireNonNull(buffer);
+        ByteBuffer data = buffer.slice();
+        byte[][] leaves = hashLeaves(data.remaining(), (offset, len) -> {
+            ByteBuffer region = data.duplicate();
+            region.position((int) offset).limit((int) (offset + len));
+            return region.slice();
+        });
+        buffer.position(buffer.limit());
+        return combine(leaves);
+    }
+
+    /**
+     * Calculate tree digest for file content.
+     *
+     * @param path the file path
+     * @return the tree digest
+     */
+    public TreeDigestResult digest(Path path) throws IOException {
+        requireNonNull(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return digest(channel);
+        }
+    }
+
+    /**
+     * Calculate tree digest for all data from the current position to the end of the FileChannel.
+     * Leaves are memory-mapped and hashed in parallel.
+     * The channel position is set to the end of channel when finished, and the channel is left unclosed.
+     *
+     * @param channel the channel
+     * @return the tree digest
+     */
+    public TreeDigestResult digest(FileChannel channel) throws IOException {
+        requireNonNull(channel);
+        long position = channel.position();
+        long size = channel.size();
+        byte[][] leaves;
+        try {
+            leaves = hashLeaves(Math.max(0, size - position), (offset, len) -> {
+                try {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, position + offset, len);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        channel.position(size);
+        return combine(leaves);
+    }
+
+    /**
+     * Calculate tree digest which digest all data in InputStream. Data is read sequentially, and the leaves are
+     * hashed in parallel; the count of leaves read but not hashed is bounded by the parallelism of pool.
+     * The InputSteam is left unclosed when finished or error occurred.
+     *
+     * @param in the inputStream contains the data
+     * @return the tree digest
+     */
+    public TreeDigestResult digest(InputStream in) throws IOException {
+        requireNonNull(in);
+        int maxInFlight = pool.getParallelism() * 2;
+        List<byte[]> leaves = new ArrayList<>();
+        Deque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+        try {
+            while (true) {
+                byte[] leaf = new byte[leafSize];
+                int size = readFully(in, leaf);
+                if (size == 0 && !(leaves.isEmpty() && inFlight.isEmpty())) {
+                    break;
+                }
+                if (inFlight.size() >= maxInFlight) {
+                    leaves.add(inFlight.removeFirst().join());
+                }
+                inFlight.addLast(pool.submit(() -> hashLeaf(ByteBuffer.wrap(leaf, 0, size))));
+                if (size < leafSize) {
+                    break;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                leaves.add(inFlight.removeFirst().join());
+            }
+        } finally {
+            for (ForkJoinTask<byte[]> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        return combine(leaves.toArray(new byte[0][]));
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int offset = 0;
+        int read;
+        while (offset < buffer.length && (read = in.read(buffer, offset, buffer.length - offset)) != -1) {
+            offset += read;
+        }
+        return offset;
+    }
+
+    /**
+     * Provide the region of data.
+     */
+    private interface Regions {
+        ByteBuffer region(long offset, int len);
+    }
+
+    private byte[][] hashLeaves(long size, Regions regions) {
+        int count = Math.toIntExact(Math.max(1, (size + leafSize - 1) / leafSize));
+        byte[][] leaves = new byte[count][];
+        pool.invoke(new LeafTask(regions, size, 0, count, leaves));
+        return leaves;
+    }
+
+    private class LeafTask extends RecursiveAction {
+        private static final long serialVersionUID = 2213427094236601587L;
+        private final Regions regions;
+        private final long size;
+        private final int from;
+        private final int to;
+        private final byte[][] leaves;
+
+        private LeafTask(Regions regions, long size, int from, int to, byte[][] leaves) {
+            this.regions = regions;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+            this.leaves = leaves;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && (long) (to - from) * leafSize > TASK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LeafTask(regions, size, from, mid, leaves), new LeafTask(regions, size, mid, to, leaves));
+                return;
+            }
+            long start = (long) from * leafSize;
+            long end = Math.min(size, (long) to * leafSize);
+            ByteBuffer region = end > start ? regions.region(start, (int) (end - start)) : ByteBuffer.allocate(0);
+            for (int i = from; i < to; i++) {
+                int leafStart = (int) ((long) (i - from) * leafSize);
+                int leafEnd = (int) Math.min(end - start, leafStart + (long) leafSize);
+                region.limit(leafEnd).position(leafStart);
+                leaves[i] = hashLeaf(region);
+            }
+        }
+    }
+
+    private byte[] hashLeaf(ByteBuffer data) {
+        MessageDigest md = encoder.borrowDigest();
+        try {
+            md.update(LEAF_PREFIX);
+            md.update(data);
+            return md.digest();
+        } finally {
+            encoder.releaseDigest(md);
+        }
+    }
+
+    private TreeDigestResult combine(byte[][] leaves) {
+        MessageDigest md = encoder.borrowDigest();
+        try {
+            byte[][] level = leaves;
+            while (level.length > 1) {
+                byte[][] next = new byte[(level.length + 1) / 2][];
+                for (int i = 0; i < level.length; i += 2) {
+                    if (i + 1 == level.length) {
+                        next[i / 2] = level[i];
+                        continue;
+                    }
+                    md.update(NODE_PREFIX);
+                    md.update(level[i]);
+                    md.update(level[i + 1]);
+                    next[i / 2] = md.digest();
+                }
+                level = next;
+            }
+            return new TreeDigestResult(level[0], leafSize, leaves);
+        } finally {
+            encoder.releaseDigest(md);
+        }
+    }
+}
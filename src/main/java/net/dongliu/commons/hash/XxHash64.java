@@ -0,0 +1,155 @@
+package net.dongliu.commons.hash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The xxHash64 algorithm. The digest bytes are the big-endian(canonical) representation of hash value.
+ */
+final class XxHash64 extends FastHashes.LongEncoder {
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE_SIZE = 32;
+
+    // for hashing chars without creating the encoded byte array
+    private static final ThreadLocal<Hasher> utf8Hashers = ThreadLocal.withInitial(() -> new XxHash64(0).newHasher());
+
+    private final long seed;
+
+    XxHash64(long seed) {
+        super("xxHash64");
+        this.seed = seed;
+    }
+
+    @Override
+    long hashRange(ByteBuffer data, int offset, int len) {
+        int end = offset + len;
+        long h;
+        if (len >= STRIPE_SIZE) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            int limit = end - STRIPE_SIZE;
+            do {
+                v1 = round(v1, data.getLong(offset));
+                v2 = round(v2, data.getLong(offset + 8));
+                v3 = round(v3, data.getLong(offset + 16));
+                v4 = round(v4, data.getLong(offset + 24));
+                offset += STRIPE_SIZE;
+            } while (offset <= limit);
+            h = converge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        return finish(h + len, data, offset, end);
+    }
+
+    /**
+     * The hash of a long value, same as hash of its 8 bytes in little-endian, without creating the byte array.
+     */
+    static long hashLong(long value, long seed) {
+        long h = seed + P5 + 8;
+        h ^= round(0, value);
+        h = Long.rotateLeft(h, 27) * P1 + P4;
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * The hash of chars encoded by utf-8, with seed 0; same as hash of the encoded bytes, without creating the byte
+     * array.
+     */
+    static long hashUtf8(CharSequence str) {
+        return utf8Hashers.get().putString(str).hashLong();
+    }
+
+    @Override
+    HashState newState() {
+        return new State();
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long mergeRound(long acc, long v) {
+        acc ^= round(0, v);
+        return acc * P1 + P4;
+    }
+
+    private static long converge(long v1, long v2, long v3, long v4) {
+        long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+        h = mergeRound(h, v1);
+        h = mergeRound(h, v2);
+        h = mergeRound(h, v3);
+        return mergeRound(h, v4);
+    }
+
+    private static long finish(long h, ByteBuffer data, int offset, int end) {
+        for (; offset + 8 <= end; offset += 8) {
+            h ^= round(0, data.getLong(offset));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (offset + 4 <= end) {
+            h ^= (data.getInt(offset) & 0xFFFFFFFFL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            offset += 4;
+        }
+        for (; offset < end; offset++) {
+            h ^= (data.get(offset) & 0xFF) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        return h ^ (h >>> 32);
+    }
+
+    private class State extends BlockHashState {
+        private long v1;
+        private long v2;
+        private long v3;
+        private long v4;
+
+        State() {
+            super(STRIPE_SIZE);
+            resetBlocks();
+        }
+
+        @Override
+        void processBlock(ByteBuffer data, int offset) {
+            v1 = round(v1, data.getLong(offset));
+            v2 = round(v2, data.getLong(offset + 8));
+            v3 = round(v3, data.getLong(offset + 16));
+            v4 = round(v4, data.getLong(offset + 24));
+        }
+
+        @Override
+        void resetBlocks() {
+            v1 = seed + P1 + P2;
+            v2 = seed + P2;
+            v3 = seed;
+            v4 = seed - P1;
+        }
+
+        @Override
+        long finishLong() {
+            long h = total() >= STRIPE_SIZE ? converge(v1, v2, v3, v4) : seed + P5;
+            return finish(h + total(), tail(), 0, tailLength());
+        }
+
+        @Override
+        byte[] finishBytes() {
+            return ByteBuffer.allocate(8).putLong(finishLong()).array();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.exception.Base32DecodeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base32sTest {
+
+    private static final String[][] VECTORS = {
+            {"", ""},
+            {"f", "MY======"},
+            {"fo", "MZXQ===="},
+            {"foo", "MZXW6==="},
+            {"foob", "MZXW6YQ="},
+            {"fooba", "MZXW6YTB"},
+            {"foobar", "MZXW6YTBOI======"},
+    };
+
+    @Test
+    void encode() {
+        for (String[] vector : VECTORS) {
+            byte[] data = vector[0].getBytes(US_ASCII);
+            assertEquals(vector[1], Base32s.encoder().encode(data));
+            assertEquals(vector[1].replace("=", ""), Base32s.encoder(false).encode(data));
+            assertEquals(vector[1].length(), Base32s.encoder().encodedLength(data.length));
+        }
+    }
+
+    @Test
+    void decode() {
+        for (String[] vector : VECTORS) {
+            byte[] data = vector[0].getBytes(US_ASCII);
+            assertArrayEquals(data, Base32s.decoder().decode(vector[1]));
+            assertArrayEquals(data, Base32s.decoder().decode(vector[1].replace("=", "")));
+            assertArrayEquals(data, Base32s.decoder().decode(vector[1].toLowerCase()));
+        }
+        assertThrows(Base32DecodeException.class, () -> Base32s.decoder().decode("MZX"));
+        assertThrows(Base32DecodeException.class, () -> Base32s.decoder().decode("MZXW6=="));
+        assertThrows(Base32DecodeException.class, () -> Base32s.decoder().decode("MZXW1YTB"));
+    }
+
+    @Test
+    void streaming() throws IOException {
+        byte[] data = new byte[50_003];
+        new Random(0).nextBytes(data);
+        String expected = Base32s.encoder().encode(data);
+
+        StringWriter writer = new StringWriter();
+        try (OutputStream out = Base32s.encoder().wrap(writer)) {
+            out.write(data);
+        }
+        assertEquals(expected, writer.toString());
+
+        try (InputStream in = Base32s.decoder().wrap(new StringReader(expected))) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1000];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, read);
+            }
+            assertArrayEquals(data, bos.toByteArray());
+        }
+    }
+
+    @Test
+    void streamingIllegalCharIndex() {
+        char[] chars = new char[40_000];
+        Arrays.fill(chars, 'A');
+        chars[30_001] = '*';
+        String encoded = new String(chars);
+
+        Base32DecodeException e = assertThrows(Base32DecodeException.class, () -> {
+            InputStream in = Base32s.decoder().wrap(new StringReader(encoded));
+            byte[] buffer = new byte[1000];
+            while (in.read(buffer) != -1) {
+            }
+        });
+        assertTrue(e.getMessage().endsWith("at index 30001"), e.getMessage());
+    }
+}
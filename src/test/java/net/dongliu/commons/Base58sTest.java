@@ -0,0 +1,76 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.exception.Base58DecodeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base58sTest {
+
+    private static final String[][] VECTORS = {
+            {"", ""},
+            {"61", "2g"},
+            {"626262", "a3gV"},
+            {"636363", "aPEr"},
+            {"73696d706c792061206c6f6e6720737472696e67", "2cFupjhnEsSn59qHXstmK2ffpLv2"},
+            {"00eb15231dfceb60925886b67d065299925915aeb172c06647", "1NS17iag9jJgTHD1VXjvLCEnZuQ3rJDE9L"},
+            {"516b6fcd0f", "ABnLTmg"},
+            {"bf4f89001e670274dd", "3SEo3LWLoPntC"},
+            {"572e4794", "3EFU7m"},
+            {"ecac89cad93923c02321", "EJDM8drfXA6uyA"},
+            {"10c8511e", "Rt5zm"},
+            {"00000000000000000000", "1111111111"},
+    };
+
+    @Test
+    void encode() throws IOException {
+        for (String[] vector : VECTORS) {
+            byte[] data = Hexes.decoder().decode(vector[0]);
+            assertEquals(vector[1], Base58s.encoder().encode(data));
+
+            char[] chars = new char[Base58s.encoder().maxEncodedLength(data.length)];
+            int size = Base58s.encoder().encode(data, 0, data.length, chars, 0);
+            assertEquals(vector[1], new String(chars, 0, size));
+
+            byte[] bytes = new byte[Base58s.encoder().maxEncodedLength(data.length)];
+            size = Base58s.encoder().encode(data, 0, data.length, bytes, 0);
+            assertEquals(vector[1], new String(bytes, 0, size, US_ASCII));
+
+            assertEquals(vector[1], Base58s.encoder().encode(data, 0, data.length, new StringWriter()).toString());
+        }
+    }
+
+    @Test
+    void decode() {
+        for (String[] vector : VECTORS) {
+            byte[] data = Hexes.decoder().decode(vector[0]);
+            assertArrayEquals(data, Base58s.decoder().decode(vector[1]));
+
+            byte[] bytes = new byte[vector[1].length()];
+            int size = Base58s.decoder().decode(vector[1].getBytes(US_ASCII), 0, vector[1].length(), bytes, 0);
+            assertArrayEquals(data, Arrays.copyOf(bytes, size));
+
+            ByteBuffer buffer = ByteBuffer.allocate(vector[1].length());
+            Base58s.decoder().decode(vector[1], 0, vector[1].length(), buffer);
+            assertArrayEquals(data, Arrays.copyOf(buffer.array(), buffer.position()));
+
+            buffer = ByteBuffer.allocateDirect(vector[1].length());
+            Base58s.decoder().decode(vector[1].getBytes(US_ASCII), 0, vector[1].length(), buffer);
+            buffer.flip();
+            byte[] decoded = new byte[buffer.remaining()];
+            buffer.get(decoded);
+            assertArrayEquals(data, decoded);
+        }
+        assertThrows(Base58DecodeException.class, () -> Base58s.decoder().decode("3EFU0m"));
+        assertThrows(Base58DecodeException.class, () -> Base58s.decoder().decode("3EFUIm"));
+        assertThrows(BufferOverflowException.class,
+                () -> Base58s.decoder().decode("a3gV".getBytes(US_ASCII), 0, 4, ByteBuffer.allocate(2)));
+    }
+}
@@ -0,0 +1,161 @@
+package net.dongliu.commons;
+
+import net.dongliu.commons.exception.Base64DecodeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base64sTest {
+
+    @Test
+    void encode() {
+        Random random = new Random(0);
+        for (int size = 0; size < 100; size++) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            assertEquals(Base64.getEncoder().encodeToString(data), Base64s.encoder().encode(data));
+            assertEquals(Base64.getUrlEncoder().encodeToString(data), Base64s.urlEncoder().encode(data));
+            assertEquals(Base64.getEncoder().withoutPadding().encodeToString(data),
+                    Base64s.encoder().padding(false).encode(data));
+            assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(data),
+                    Base64s.encoder(true, false).encode(data));
+        }
+    }
+
+    @Test
+    void encodeToBuffers() throws IOException {
+        byte[] data = "test测试".getBytes(US_ASCII);
+        String expected = Base64.getEncoder().encodeToString(data);
+        char[] chars = new char[expected.length() + 1];
+        assertEquals(expected.length(), Base64s.encoder().encode(data, 0, data.length, chars, 1));
+        assertEquals(expected, new String(chars, 1, expected.length()));
+        assertThrows(IndexOutOfBoundsException.class, () -> Base64s.encoder().encode(data, 0, data.length, chars, 2));
+
+        byte[] bytes = new byte[expected.length()];
+        Base64s.encoder().encode(data, 0, data.length, bytes, 0);
+        assertEquals(expected, new String(bytes, US_ASCII));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length());
+        Base64s.encoder().encode(data, 0, data.length, buffer);
+        buffer.flip();
+        buffer.get(bytes);
+        assertEquals(expected, new String(bytes, US_ASCII));
+
+        assertEquals("#" + expected, Base64s.encoder().encode(data, 0, data.length, new StringBuilder("#")).toString());
+        assertEquals(expected, Base64s.encoder().encode(data, 0, data.length, new StringWriter()).toString());
+    }
+
+    @Test
+    void decode() {
+        Random random = new Random(0);
+        for (int size = 0; size < 100; size++) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            assertArrayEquals(data, Base64s.decoder().decode(Base64.getEncoder().encodeToString(data)));
+            assertArrayEquals(data, Base64s.urlDecoder().decode(Base64.getUrlEncoder().encodeToString(data)));
+            assertArrayEquals(data, Base64s.decoder().decode(Base64.getEncoder().withoutPadding().encodeToString(data)));
+            byte[] ascii = Base64.getEncoder().encode(data);
+            byte[] decoded = new byte[size];
+            assertEquals(size, Base64s.decoder().decode(ascii, 0, ascii.length, decoded, 0));
+            assertArrayEquals(data, decoded);
+        }
+        assertThrows(Base64DecodeException.class, () -> Base64s.decoder().decode("QUJDQ"));
+        assertThrows(Base64DecodeException.class, () -> Base64s.decoder().decode("Q"));
+        assertThrows(Base64DecodeException.class, () -> Base64s.decoder().decode("QQ="));
+        assertThrows(Base64DecodeException.class, () -> Base64s.decoder().decode("Q==="));
+        assertThrows(Base64DecodeException.class, () -> Base64s.decoder().decode("QU-D"));
+        assertThrows(Base64DecodeException.class, () -> Base64s.urlDecoder().decode("QU+D"));
+        assertThrows(Base64DecodeException.class, () -> Base64s.decoder().decode("QUJDàUJD"));
+    }
+
+    @Test
+    void decodeToBuffers() {
+        byte[] expected = {1, 2, 3, 4, 5};
+        String str = "##" + Base64.getEncoder().encodeToString(expected) + "##";
+        byte[] bytes = new byte[6];
+        assertEquals(5, Base64s.decoder().decode(str, 2, str.length() - 2, bytes, 1));
+        assertArrayEquals(expected, Arrays.copyOfRange(bytes, 1, 6));
+        assertEquals(6, Base64s.decoder().maxDecodedLength(8));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(5);
+        Base64s.decoder().decode(str, 2, str.length() - 2, buffer);
+        buffer.flip();
+        buffer.get(bytes, 0, 5);
+        assertArrayEquals(expected, Arrays.copyOf(bytes, 5));
+    }
+
+    @Test
+    void streaming() throws IOException {
+        byte[] data = new byte[100_001];
+        new Random(0).nextBytes(data);
+        String expected = Base64.getEncoder().encodeToString(data);
+
+        StringWriter writer = new StringWriter();
+        try (OutputStream out = Base64s.encoder().wrap(writer)) {
+            out.write(data, 0, 1);
+            out.flush();
+            out.write(data[1]);
+            out.write(data, 2, data.length - 2);
+        }
+        assertEquals(expected, writer.toString());
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = Base64s.encoder().wrap(bos)) {
+            out.write(data);
+        }
+        assertEquals(expected, new String(bos.toByteArray(), US_ASCII));
+
+        try (InputStream in = Base64s.decoder().wrap(new StringReader(expected))) {
+            assertArrayEquals(data, readAll(in));
+        }
+        try (InputStream in = Base64s.decoder().wrap(new ByteArrayInputStream(expected.getBytes(US_ASCII)))) {
+            assertArrayEquals(data, readAll(in));
+        }
+
+        InputStream illegal = Base64s.decoder().wrap(new StringReader("QUJDQ"));
+        assertThrows(Base64DecodeException.class, () -> readAll(illegal));
+    }
+
+    @Test
+    void streamingIllegalCharIndex() {
+        char[] chars = new char[40_000];
+        Arrays.fill(chars, 'A');
+        chars[30_001] = '*';
+        String encoded = new String(chars);
+        String message = "at index 30001";
+
+        Base64DecodeException e = assertThrows(Base64DecodeException.class,
+                () -> Base64s.decoder().decode(encoded));
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+
+        e = assertThrows(Base64DecodeException.class,
+                () -> readAll(Base64s.decoder().wrap(new StringReader(encoded))));
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+
+        e = assertThrows(Base64DecodeException.class,
+                () -> readAll(Base64s.decoder().wrap(new ByteArrayInputStream(encoded.getBytes(US_ASCII)))));
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        int first = in.read();
+        if (first == -1) {
+            return bos.toByteArray();
+        }
+        bos.write(first);
+        byte[] buffer = new byte[777];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bos.write(buffer, 0, read);
+        }
+        return bos.toByteArray();
+    }
+}
@@ -3,6 +3,13 @@ package net.dongliu.commons;
 import net.dongliu.commons.exception.HexDecodeException;
 import org.junit.jupiter.api.Test;
 
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,10 +21,200 @@ class HexesTest {
         assertEquals("74657374e6b58be8af95", Hexes.encoder(false).encode("test测试".getBytes(UTF_8)));
     }
 
+    @Test
+    void encodeToBuffers() throws IOException {
+        byte[] data = "test测试".getBytes(UTF_8);
+        assertEquals("74657374", Hexes.encoder().encode(data, 0, 4));
+
+        char[] chars = new char[24];
+        assertEquals(20, Hexes.encoder().encode(data, 0, data.length, chars, 2));
+        assertEquals("74657374E6B58BE8AF95", new String(chars, 2, 20));
+        assertThrows(IndexOutOfBoundsException.class, () -> Hexes.encoder().encode(data, 0, data.length, chars, 5));
+
+        byte[] bytes = new byte[20];
+        assertEquals(20, Hexes.encoder(false).encode(data, 0, data.length, bytes, 0));
+        assertEquals("74657374e6b58be8af95", new String(bytes, US_ASCII));
+
+        ByteBuffer heapBuffer = ByteBuffer.allocate(21);
+        heapBuffer.put((byte) '#');
+        Hexes.encoder().encode(data, 0, data.length, heapBuffer);
+        assertEquals(0, heapBuffer.remaining());
+        assertEquals("#74657374E6B58BE8AF95", new String(heapBuffer.array(), US_ASCII));
+        assertThrows(BufferOverflowException.class, () -> Hexes.encoder().encode(data, 0, 1, heapBuffer));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(20);
+        Hexes.encoder().encode(data, 0, data.length, directBuffer);
+        directBuffer.flip();
+        byte[] directBytes = new byte[directBuffer.remaining()];
+        directBuffer.get(directBytes);
+        assertEquals("74657374E6B58BE8AF95", new String(directBytes, US_ASCII));
+
+        assertEquals("0x74657374", Hexes.encoder().encode(data, 0, 4, new StringBuilder("0x")).toString());
+        assertEquals("E6B58BE8AF95", Hexes.encoder().encode(data, 4, 6, new StringWriter()).toString());
+
+        byte[] large = new byte[1000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        assertEquals(Hexes.encoder().encode(large), Hexes.encoder().encode(large, 0, large.length,
+                new StringWriter()).toString());
+        assertEquals(Hexes.encoder().encode(large), Hexes.encoder().encode(large, 0, large.length,
+                (Appendable) new StringBuffer()).toString());
+    }
+
     @Test
     void decode() {
         assertArrayEquals("test测试".getBytes(UTF_8), Hexes.decoder().decode("74657374E6B58BE8AF95"));
         assertThrows(HexDecodeException.class, () -> Hexes.decoder().decode("74657374E6B58BE8AF9"));
         assertThrows(HexDecodeException.class, () -> Hexes.decoder().decode("74657374E6B58BE8AF9Y"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void decodeToBuffers() {
+        byte[] expected = "test测试".getBytes(UTF_8);
+        String hex = "##74657374e6b58BE8AF95##";
+
+        byte[] bytes = new byte[12];
+        assertEquals(10, Hexes.decoder().decode(hex, 2, 22, bytes, 1));
+        assertArrayEquals(expected, Arrays.copyOfRange(bytes, 1, 11));
+        assertThrows(IndexOutOfBoundsException.class, () -> Hexes.decoder().decode(hex, 2, 22, bytes, 3));
+        assertThrows(HexDecodeException.class, () -> Hexes.decoder().decode(hex, 2, 21, bytes, 0));
+        assertThrows(HexDecodeException.class, () -> Hexes.decoder().decode(hex, 0, 20, bytes, 0));
+        assertThrows(HexDecodeException.class, () -> Hexes.decoder().decode("7\u00e0", 0, 2, bytes, 0));
+
+        byte[] asciiHex = hex.getBytes(US_ASCII);
+        Arrays.fill(bytes, (byte) 0);
+        assertEquals(10, Hexes.decoder().decode(asciiHex, 2, 22, bytes, 0));
+        assertArrayEquals(expected, Arrays.copyOf(bytes, 10));
+        asciiHex[2] = (byte) 0xE6;
+        assertThrows(HexDecodeException.class, () -> Hexes.decoder().decode(asciiHex, 2, 22, bytes, 0));
+
+        ByteBuffer heapBuffer = ByteBuffer.allocate(10);
+        Hexes.decoder().decode(hex, 2, 22, heapBuffer);
+        assertArrayEquals(expected, heapBuffer.array());
+        assertThrows(BufferOverflowException.class, () -> Hexes.decoder().decode(hex, 2, 4, heapBuffer));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(10);
+        Hexes.decoder().decode(hex.getBytes(US_ASCII), 2, 22, directBuffer);
+        directBuffer.flip();
+        byte[] directBytes = new byte[10];
+        directBuffer.get(directBytes);
+        assertArrayEquals(expected, directBytes);
+    }
+
+    @Test
+    void streaming() throws IOException {
+        byte[] data = new byte[100_003];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        String hex = Hexes.encoder(false).encode(data);
+
+        StringWriter writer = new StringWriter();
+        try (OutputStream out = Hexes.encoder(false).wrap(writer)) {
+            out.write(data[0]);
+            out.write(data, 1, data.length - 1);
+        }
+        assertEquals(hex, writer.toString());
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = Hexes.encoder(false).wrap(bos)) {
+            out.write(data, 0, 5);
+            out.write(data[5]);
+            out.write(data, 6, data.length - 6);
+        }
+        assertEquals(hex, new String(bos.toByteArray(), US_ASCII));
+
+        try (InputStream in = Hexes.decoder().wrap(new StringReader(hex))) {
+            assertEquals(data[0] & 0xFF, in.read());
+            byte[] decoded = new byte[data.length];
+            decoded[0] = data[0];
+            int offset = 1;
+            int read;
+            while ((read = in.read(decoded, offset, decoded.length - offset)) > 0) {
+                offset += read;
+            }
+            assertEquals(data.length, offset);
+            assertEquals(-1, in.read());
+            assertArrayEquals(data, decoded);
+        }
+
+        try (InputStream in = Hexes.decoder().wrap(new ByteArrayInputStream(hex.getBytes(US_ASCII)))) {
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1000];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                decoded.write(buffer, 0, read);
+            }
+            assertArrayEquals(data, decoded.toByteArray());
+        }
+
+        InputStream odd = Hexes.decoder().wrap(new StringReader("7465737"));
+        assertEquals(3, odd.read(new byte[10]));
+        assertThrows(HexDecodeException.class, () -> odd.read(new byte[10]));
+        InputStream illegal = Hexes.decoder().wrap(new ByteArrayInputStream("74X5".getBytes(US_ASCII)));
+        assertThrows(HexDecodeException.class, () -> illegal.read(new byte[10]));
+    }
+
+    @Test
+    void streamingIllegalCharIndex() {
+        char[] chars = new char[20_000];
+        Arrays.fill(chars, 'a');
+        chars[17_001] = 'z';
+        String hex = new String(chars);
+        String message = "at index 17001";
+
+        HexDecodeException e = assertThrows(HexDecodeException.class, () -> {
+            InputStream in = Hexes.decoder().wrap(new ByteArrayInputStream(hex.getBytes(US_ASCII)));
+            byte[] buffer = new byte[1000];
+            while (in.read(buffer) != -1) {
+            }
+        });
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+
+        e = assertThrows(HexDecodeException.class, () -> {
+            InputStream in = Hexes.decoder().wrap(new ByteArrayInputStream(hex.getBytes(US_ASCII)));
+            while (in.read() != -1) {
+            }
+        });
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+
+        e = assertThrows(HexDecodeException.class, () -> {
+            InputStream in = Hexes.decoder().wrap(new StringReader(hex));
+            byte[] buffer = new byte[1000];
+            while (in.read(buffer) != -1) {
+            }
+        });
+        assertTrue(e.getMessage().endsWith(message), e.getMessage());
+    }
+
+    @Test
+    void bulk() {
+        Random random = new Random(0);
+        for (int size = 0; size < 300; size++) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            for (boolean uppercase : new boolean[]{true, false}) {
+                char[] chars = new char[size * 2];
+                byte[] bytes = new byte[size * 2];
+                Hexes.encoder(uppercase).encode(data, 0, size, chars, 0);
+                Hexes.encoder(uppercase).encode(data, 0, size, bytes, 0);
+                assertEquals(new String(chars), new String(bytes, US_ASCII));
+                byte[] decoded = new byte[size];
+                Hexes.decoder().decode(bytes, 0, bytes.length, decoded, 0);
+                assertArrayEquals(data, decoded);
+            }
+        }
+
+        byte[] hex = Hexes.encoder().encode(new byte[100]).getBytes(US_ASCII);
+        for (byte illegal : new byte[]{'/', ':', '@', 'G', '`', 'g', 0, 0x10, (byte) 0x80, (byte) 0xC6}) {
+            for (int index : new int[]{0, 7, 8, 15, 33, 199}) {
+                byte[] bad = hex.clone();
+                bad[index] = illegal;
+                HexDecodeException e = assertThrows(HexDecodeException.class,
+                        () -> Hexes.decoder().decode(bad, 0, bad.length, new byte[100], 0));
+                assertTrue(e.getMessage().endsWith("at index " + index));
+            }
+        }
+    }
+}
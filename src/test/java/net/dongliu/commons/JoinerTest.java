@@ -2,21 +2,66 @@ package net.dongliu.commons;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class JoinerTest {
 
     @Test
     void join() {
+        Joiner joiner = Joiner.of("(", ")", ", ");
+        assertEquals("(a, b, c)", joiner.join(Arrays.asList("a", "b", "c")));
+        assertEquals("(a, 1, 2, null)", joiner.join("a", 1, 2L, null));
+        assertEquals("()", joiner.join(Collections.emptyList()));
+        Iterable<String> iterable = () -> Arrays.asList("a", "b").iterator();
+        assertEquals("(a, b)", joiner.join(iterable));
+        assertEquals("(a, null)", joiner.join(Arrays.asList(new StringBuilder("a"), null)));
+    }
+
+    @Test
+    void joinPrimitives() {
+        Joiner joiner = Joiner.of("IN (", ")", ",");
+        assertEquals("IN (1,-20,2147483647,-2147483648)",
+                joiner.join(new int[]{1, -20, Integer.MAX_VALUE, Integer.MIN_VALUE}));
+        assertEquals("IN (0,9223372036854775807,-9223372036854775808)",
+                joiner.join(new long[]{0, Long.MAX_VALUE, Long.MIN_VALUE}));
+        assertEquals("IN (1.0,0.1,-2.5E-7)", joiner.join(new double[]{1, 0.1, -2.5e-7}));
+        assertEquals("IN ()", joiner.join(new int[0]));
+    }
+
+    @Test
+    void joinTo() {
+        Joiner joiner = Joiner.of("[", "]", "|").nullToEmpty(true);
+        StringBuilder sb = new StringBuilder("x=");
+        assertEquals("x=[a||1]", joiner.joinTo(sb, "a", null, 1).toString());
+        assertEquals("[1|2]", Joiner.of("[", "]", "|").joinTo(new StringBuilder(), new long[]{1, 2}).toString());
+        StringWriter writer = new StringWriter();
+        joiner.joinTo(writer, Arrays.asList("a", null, 1.5));
+        assertEquals("[a||1.5]", writer.toString());
+    }
+
+    @Test
+    void collector() {
+        Joiner joiner = Joiner.of("<", ">", ", ").skipNulls(true);
+        assertEquals("<a, b>", Stream.of("a", null, "b").collect(joiner.collector()));
+        assertEquals("<>", Stream.empty().collect(joiner.collector()));
+        String expected = joiner.join(IntStream.range(0, 1000).toArray());
+        assertEquals(expected, IntStream.range(0, 1000).boxed().parallel().collect(joiner.collector()));
     }
 
     @Test
     void skipNulls() {
         assertEquals("1, 2", Joiner.of(", ").skipNulls(true).join(1, 2, null));
+        assertEquals("1, 2", Joiner.of(", ").skipNulls(true).join(Arrays.asList(null, "1", null, "2")));
     }
 
     @Test
     void nullToEmpty() {
         assertEquals("1, 2, ", Joiner.of(", ").nullToEmpty(true).join(1, 2, null));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package net.dongliu.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiSearcherTest {
+
+    @Test
+    void search() {
+        MultiSearcher searcher = Strings.multiSearcher("he", "she", "his", "hers");
+        String text = "ushers";
+        assertEquals(3, searcher.count(text));
+        assertTrue(searcher.containsAny(text));
+        assertFalse(searcher.containsAny("abc"));
+        assertEquals(new MultiSearcher.Match("she", 1, 1, 4), searcher.findFirst(text));
+        assertNull(searcher.findFirst("xyz"));
+        assertEquals(Arrays.asList(
+                new MultiSearcher.Match("she", 1, 1, 4),
+                new MultiSearcher.Match("he", 0, 2, 4),
+                new MultiSearcher.Match("hers", 3, 2, 6)
+        ), searcher.findAll(text));
+
+        byte[] data = ("xx" + text + "xx").getBytes(StandardCharsets.US_ASCII);
+        assertEquals(3, searcher.count(data, 2, 8));
+        assertEquals(2, searcher.count(data, 2, 7));
+        assertTrue(searcher.containsAny(data, 0, data.length));
+        assertEquals(new MultiSearcher.Match("she", 1, 3, 6), searcher.findFirst(data, 0, data.length));
+        assertEquals(searcher.findAll("xx" + text + "xx"), searcher.findAll(data, 0, data.length));
+    }
+
+    @Test
+    void nonAscii() {
+        MultiSearcher searcher = Strings.multiSearcher("中文", "文字", "a");
+        assertEquals(3, searcher.count("中文字a"));
+        List<int[]> matches = new ArrayList<>();
+        searcher.forEachMatch("x中文字", (index, start, end) -> matches.add(new int[]{index, start, end}));
+        assertEquals(2, matches.size());
+        assertArrayEquals(new int[]{0, 1, 3}, matches.get(0));
+        assertArrayEquals(new int[]{1, 2, 4}, matches.get(1));
+
+        byte[] data = "中文a".getBytes(StandardCharsets.UTF_8);
+        assertEquals(1, searcher.count(data, 0, data.length));
+    }
+
+    @Test
+    void duplicated() {
+        MultiSearcher searcher = Strings.multiSearcher("ab", "ab", "b");
+        assertEquals(Arrays.asList(
+                new MultiSearcher.Match("ab", 0, 0, 2),
+                new MultiSearcher.Match("b", 2, 1, 2)
+        ), searcher.findAll("ab"));
+        assertThrows(IllegalArgumentException.class, () -> Strings.multiSearcher(""));
+        assertThrows(IllegalArgumentException.class, () -> Strings.multiSearcher(new ArrayList<>()));
+    }
+
+    @Test
+    void sameAsIndexOf() {
+        Random random = new Random(0);
+        for (int round = 0; round < 50; round++) {
+            List<String> needles = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(50); i++) {
+                needles.add(randomString(random, 1 + random.nextInt(5)));
+            }
+            MultiSearcher searcher = Strings.multiSearcher(needles);
+            String text = randomString(random, 2000);
+            int expected = 0;
+            int firstEnd = Integer.MAX_VALUE;
+            for (int i = 0; i < needles.size(); i++) {
+                String needle = needles.get(i);
+                if (needles.indexOf(needle) != i) {
+                    continue;
+                }
+                for (int from = text.indexOf(needle); from >= 0; from = text.indexOf(needle, from + 1)) {
+                    expected++;
+                    firstEnd = Math.min(firstEnd, from + needle.length());
+                }
+            }
+            assertEquals(expected, searcher.count(text));
+            assertEquals(expected, searcher.findAll(text).size());
+            assertEquals(expected > 0, searcher.containsAny(text));
+            if (expected > 0) {
+                assertEquals(firstEnd, searcher.findFirst(text).end());
+            }
+            for (MultiSearcher.Match match : searcher.findAll(text)) {
+                assertEquals(match.needle(), text.substring(match.start(), match.end()));
+                assertEquals(match.needle(), needles.get(match.needleIndex()));
+            }
+        }
+    }
+
+    private static String randomString(Random random, int len) {
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,93 @@
+package net.dongliu.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearcherTest {
+
+    @Test
+    void search() {
+        Searcher searcher = Strings.searcher("abcab");
+        String text = "xabcabcabx";
+        assertEquals("abcab", searcher.needle());
+        assertEquals(1, searcher.indexOf(text));
+        assertEquals(4, searcher.lastIndexOf(text));
+        assertEquals(4, searcher.indexOf(text, 2, 10));
+        assertEquals(4, Strings.searcher("abcabcab").indexOf("xxxxabcabcabxx", 1, 12));
+        assertEquals(-1, searcher.indexOf(text, 2, 8));
+        assertEquals(1, searcher.lastIndexOf(text, 0, 8));
+        assertEquals(1, searcher.count(text));
+        assertEquals(2, searcher.count(text, 0, text.length(), true));
+        List<Integer> matches = new ArrayList<>();
+        searcher.forEachMatch("abcababcab", matches::add);
+        assertEquals(Arrays.asList(0, 5), matches);
+        assertEquals(-1, searcher.indexOf("abca"));
+        assertEquals(-1, searcher.lastIndexOf(""));
+        assertThrows(IndexOutOfBoundsException.class, () -> searcher.indexOf(text, 5, 4));
+        assertThrows(IllegalArgumentException.class, () -> Strings.searcher(""));
+
+        byte[] data = text.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(1, searcher.indexOf(data, 0, data.length));
+        assertEquals(4, searcher.lastIndexOf(data, 0, data.length));
+        assertEquals(2, searcher.count(data, 0, data.length, true));
+        assertEquals(0, searcher.count(data, 2, 8, false));
+        List<Integer> byteMatches = new ArrayList<>();
+        searcher.forEachMatch(data, 0, data.length, byteMatches::add);
+        assertEquals(Arrays.asList(1), byteMatches);
+    }
+
+    @Test
+    void nonLatin() {
+        // chars with the same lowest 8 bits
+        Searcher searcher = Strings.searcher("ŁɁ");
+        assertEquals(2, searcher.indexOf("ɁŁŁɁ"));
+        assertEquals(-1, searcher.indexOf("ɁɁŁŁ"));
+
+        Searcher chinese = Strings.searcher("中文");
+        String text = "a中文b中文";
+        assertEquals(1, chinese.indexOf(text));
+        assertEquals(4, chinese.lastIndexOf(text));
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(1, chinese.indexOf(data, 0, data.length));
+        assertEquals(8, chinese.lastIndexOf(data, 0, data.length));
+        assertEquals(2, chinese.count(data, 0, data.length, false));
+    }
+
+    @Test
+    void sameAsString() {
+        Random random = new Random(0);
+        for (int round = 0; round < 2000; round++) {
+            String needle = randomString(random, 1 + random.nextInt(6));
+            String text = randomString(random, random.nextInt(200));
+            Searcher searcher = Strings.searcher(needle);
+            byte[] data = text.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(text.indexOf(needle), searcher.indexOf(text));
+            assertEquals(text.lastIndexOf(needle), searcher.lastIndexOf(text));
+            assertEquals(text.indexOf(needle), searcher.indexOf(data, 0, data.length));
+            assertEquals(text.lastIndexOf(needle), searcher.lastIndexOf(data, 0, data.length));
+            assertEquals(Strings.countOf(text, needle), searcher.count(text));
+            assertEquals(Strings.countOf(text, needle, true), searcher.count(text, 0, text.length(), true));
+            assertEquals(Strings.countOf(text, needle, true), searcher.count(data, 0, data.length, true));
+            // not a String, searched by shift tables
+            StringBuilder sb = new StringBuilder(text);
+            assertEquals(text.indexOf(needle), searcher.indexOf(sb));
+            assertEquals(text.lastIndexOf(needle), searcher.lastIndexOf(sb));
+            assertEquals(Strings.countOf(text, needle, true), searcher.count(sb, 0, sb.length(), true));
+        }
+    }
+
+    private static String randomString(Random random, int len) {
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,85 @@
+package net.dongliu.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitterTest {
+
+    @Test
+    void split() {
+        assertEquals(Arrays.asList("a", "b", "", "c", ""), Splitter.of(',').splitToList("a,b,,c,"));
+        assertEquals(Collections.singletonList(""), Splitter.of(',').splitToList(""));
+        assertEquals(Arrays.asList("a", "b", "c"), Splitter.of(", ").splitToList("a, b, c"));
+        assertEquals(Arrays.asList("a", "b", "c"), Splitter.of(Pattern.compile("\\s+")).splitToList("a  b\tc"));
+        assertEquals(Arrays.asList("a", "b", "c"), Splitter.of(',').splitToList(new StringBuilder("a,b,c")));
+    }
+
+    @Test
+    void trimAndOmitEmpty() {
+        assertEquals(Arrays.asList("a", "", "b"), Splitter.of('|').trim(true).splitToList(" a | |b "));
+        assertEquals(Arrays.asList(" a ", " ", "b "), Splitter.of('|').omitEmpty(true).splitToList(" a || |b |"));
+        assertEquals(Arrays.asList("a", "b"), Splitter.of('|').trim(true).omitEmpty(true).splitToList(" a | |b |"));
+    }
+
+    @Test
+    void limit() {
+        assertEquals(Arrays.asList("a", "b", "c,d"), Splitter.of(',').limit(3).splitToList("a,b,c,d"));
+        assertEquals(Arrays.asList("a", "b", "c , d"),
+                Splitter.of(',').limit(3).trim(true).omitEmpty(true).splitToList("a,,b, c , d "));
+        assertEquals(Arrays.asList("a", "b", "c,,,d"),
+                Splitter.of(',').limit(3).omitEmpty(true).splitToList("a,,,b,,,c,,,d"));
+        assertEquals(Arrays.asList("a", "b", "c,,,d"),
+                Splitter.of(',').limit(3).omitEmpty(true).trim(true).splitToList("a,,,b, , ,c,,,d "));
+        assertEquals(Arrays.asList("a", "b", "c::d"),
+                Splitter.of("::").limit(3).omitEmpty(true).splitToList("a::b::::c::d"));
+        assertEquals(Arrays.asList("a", "b", "c  d"),
+                Splitter.of(Pattern.compile(" +")).limit(3).omitEmpty(true).splitToList("a b   c  d"));
+        assertEquals(Arrays.asList("a", "b"), Splitter.of(',').limit(3).omitEmpty(true).splitToList("a,b,,,"));
+        List<String> pieces = new ArrayList<>();
+        for (CharSequence piece : Splitter.of(',').limit(3).omitEmpty(true).split("a,,,b,,,c,,,d")) {
+            pieces.add(piece.toString());
+        }
+        assertEquals(Arrays.asList("a", "b", "c,,,d"), pieces);
+        assertThrows(IllegalArgumentException.class, () -> Splitter.of(',').limit(0));
+    }
+
+    @Test
+    void emptyMatchOfPattern() {
+        assertEquals(Arrays.asList("a", "b"), Splitter.of(Pattern.compile(",*")).splitToList("a,,b"));
+    }
+
+    @Test
+    void views() {
+        String text = "key=value";
+        List<String> pieces = new ArrayList<>();
+        for (CharSequence piece : Splitter.of('=').split(text)) {
+            pieces.add(piece.toString());
+        }
+        assertEquals(Arrays.asList("key", "value"), pieces);
+        CharSequence value = Splitter.of('=').split(text).iterator().next();
+        assertEquals(3, value.length());
+        assertEquals('e', value.charAt(1));
+        assertEquals("ey", value.subSequence(1, 3).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> value.charAt(3));
+        assertEquals(Arrays.asList("a", "b"), Splitter.of("::").splitToStream("a::b")
+                .map(CharSequence::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    void forEach() {
+        List<Integer> ranges = new ArrayList<>();
+        Splitter.of(',').forEach("ab,c", (start, end) -> {
+            ranges.add(start);
+            ranges.add(end);
+        });
+        assertEquals(Arrays.asList(0, 2, 3, 4), ranges);
+    }
+}
@@ -3,7 +3,17 @@ package net.dongliu.commons;
 import net.dongliu.commons.collection.Lists;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StringsTest {
 
@@ -63,6 +73,179 @@ public class StringsTest {
         assertEquals(0, Strings.toDouble("", 0), 0.0001);
     }
 
+    @Test
+    public void toIntRange() {
+        assertEquals(123, Strings.toInt("a=123;", 2, 5, -1));
+        assertEquals(-123, Strings.toInt("-123", 0, 4, 0));
+        assertEquals(Integer.MIN_VALUE, Strings.toInt("-2147483648", 0, 11, 0));
+        assertEquals(Integer.MAX_VALUE, Strings.toInt("+2147483647", 0, 11, 0));
+        assertEquals(-1, Strings.toInt("2147483648", 0, 10, -1));
+        assertEquals(-1, Strings.toInt("-", 0, 1, -1));
+        assertEquals(-1, Strings.toInt("12a", 0, 3, -1));
+        assertEquals(-1, Strings.toInt(" 1", 0, 2, -1));
+        assertEquals(-1, Strings.toInt((String) null, -1));
+        assertEquals(45, Strings.toInt("x45".getBytes(StandardCharsets.US_ASCII), 1, 3, -1));
+        assertEquals(-1, Strings.toInt("x4\u00e55".getBytes(StandardCharsets.UTF_8), 1, 4, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.toInt("123", 2, 1, 0));
+
+        assertEquals(Long.MIN_VALUE, Strings.toLong("-9223372036854775808", 0, 20, 0));
+        assertEquals(-1, Strings.toLong("9223372036854775808", 0, 19, -1));
+        assertEquals(9876543210L, Strings.toLong("|9876543210|".getBytes(StandardCharsets.US_ASCII), 1, 11, -1));
+        // non-ascii digits, accepted by Integer.parseInt
+        assertEquals(12, Strings.toInt("\u0661\u0662", -1));
+        assertEquals(-12L, Strings.toLong("-\u0661\u0662", -1));
+        assertEquals(12, Strings.toInt(new StringBuilder("x\u0661\u0662"), 1, 3, -1));
+        assertEquals(-1, Strings.toInt("1\u00e9", -1));
+    }
+
+    @Test
+    public void toDoubleRange() {
+        assertEquals(1.5, Strings.toDouble("v=1.5;", 2, 5, 0));
+        assertEquals(0.1, Strings.toDouble("0.1".getBytes(StandardCharsets.US_ASCII), 0, 3, 0));
+        assertEquals(0.1f, Strings.toFloat("0.1", 0, 3, 0));
+        assertEquals(-0.0, Strings.toDouble("-0", 0));
+        assertEquals(Double.NEGATIVE_INFINITY, Strings.toDouble("-Infinity", 0));
+        assertEquals(Double.NaN, Strings.toDouble("NaN", 0));
+        assertEquals(Float.NaN, Strings.toFloat("NaN", 0));
+        assertEquals(8.0, Strings.toDouble("0x1p3", 0));
+        assertEquals(-1, Strings.toDouble("0x1z", -1));
+        String[] invalid = {"", " ", ".", "e5", "1e", "1e+", "1.2.3", "--1", "1d5", "Inf", "nan", "1_000", "0x"};
+        for (String str : invalid) {
+            assertEquals(-1, Strings.toDouble(str, -1), str);
+            assertEquals(-1, Strings.toFloat(str, -1), str);
+            byte[] data = str.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(-1, Strings.toDouble(data, 0, data.length, -1), str);
+        }
+    }
+
+    @Test
+    public void toDoubleSameAsJdk() {
+        String[] samples = {"0", "1", "-1", " 12.5 ", "1.", ".5", "1e10", "1E-10", "1.5d", "2f", "+3.25e+2",
+                "0.30000000000000004", "123456789012345678901234567890", "4.9e-324", "2.4e-324", "1.7976931348623157e308",
+                "1e309", "1e-400", "9007199254740993", "0.000000000000000000000000001234", "3.4028235e38",
+                "1.00000017881393421514957253748434595763683319091796875001", "7.038531e-26", "1e23"};
+        for (String str : samples) {
+            assertEquals(Double.parseDouble(str), Strings.toDouble(str, -1), str);
+            assertEquals(Float.parseFloat(str), Strings.toFloat(str, -1), str);
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            String str;
+            switch (i % 4) {
+                case 0:
+                    str = Double.toString(Double.longBitsToDouble(random.nextLong()));
+                    break;
+                case 1:
+                    str = Float.toString(Float.intBitsToFloat(random.nextInt()));
+                    break;
+                case 2:
+                    str = (random.nextInt(2000000) - 1000000) + "." + random.nextInt(1000000);
+                    break;
+                default:
+                    str = random.nextLong() + "e" + (random.nextInt(80) - 40);
+            }
+            assertEquals(Double.parseDouble(str), Strings.toDouble(str, -1), str);
+            assertEquals(Float.parseFloat(str), Strings.toFloat(str, -1), str);
+            byte[] data = str.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Double.parseDouble(str), Strings.toDouble(data, 0, data.length, -1), str);
+        }
+    }
+
+    @Test
+    public void toDoubleHalfway() {
+        Random random = new Random(2);
+        for (int i = 0; i < 2000; i++) {
+            // exactly halfway between two adjacent doubles, and with more digits than a long can hold
+            double d = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+            BigDecimal halfway = new BigDecimal(d).add(new BigDecimal(Math.nextUp(d))).divide(BigDecimal.valueOf(2));
+            String str = halfway.toString();
+            assertEquals(Double.parseDouble(str), Strings.toDouble(str, -1), str);
+            String rounded = halfway.round(new MathContext(20)).toString();
+            assertEquals(Double.parseDouble(rounded), Strings.toDouble(rounded, -1), rounded);
+
+            float f = Float.intBitsToFloat(random.nextInt() & 0x7F7FFFFF);
+            String floatStr = new BigDecimal(f).add(new BigDecimal(Math.nextUp(f)))
+                    .divide(BigDecimal.valueOf(2)).toString();
+            assertEquals(Float.parseFloat(floatStr), Strings.toFloat(floatStr, -1), floatStr);
+        }
+    }
+
+    @Test
+    public void appendDouble() {
+        assertEquals("0.0", Strings.appendDouble(new StringBuilder(), 0).toString());
+        assertEquals("x=-0.0", Strings.appendDouble(new StringBuilder("x="), -0.0).toString());
+        assertEquals("100.0", Strings.appendDouble(new StringBuilder(), 100).toString());
+        assertEquals("1234567.0", Strings.appendDouble(new StringBuilder(), 1234567).toString());
+        assertEquals("1.0E7", Strings.appendDouble(new StringBuilder(), 1e7).toString());
+        assertEquals("0.001", Strings.appendDouble(new StringBuilder(), 0.001).toString());
+        assertEquals("1.0E-4", Strings.appendDouble(new StringBuilder(), 1e-4).toString());
+        assertEquals("0.1", Strings.appendDouble(new StringBuilder(), 0.1).toString());
+        assertEquals("2.0E23", Strings.appendDouble(new StringBuilder(), 2e23).toString());
+        assertEquals("4.9E-324", Strings.appendDouble(new StringBuilder(), Double.MIN_VALUE).toString());
+        assertEquals("1.7976931348623157E308", Strings.appendDouble(new StringBuilder(), Double.MAX_VALUE).toString());
+        assertEquals("NaN", Strings.appendDouble(new StringBuilder(), Double.NaN).toString());
+        assertEquals("-Infinity", Strings.appendDouble(new StringBuilder(), Double.NEGATIVE_INFINITY).toString());
+        assertEquals("0.3", Strings.appendFloat(new StringBuilder(), 0.3f).toString());
+        assertEquals("1.4E-45", Strings.appendFloat(new StringBuilder(), Float.MIN_VALUE).toString());
+        assertEquals("3.4028235E38", Strings.appendFloat(new StringBuilder(), Float.MAX_VALUE).toString());
+    }
+
+    @Test
+    public void appendDoubleShortest() {
+        Random random = new Random(3);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            sb.setLength(0);
+            String str = Strings.appendDouble(sb, d).toString();
+            if (Double.isNaN(d)) {
+                assertEquals("NaN", str);
+                continue;
+            }
+            assertEquals(d, Double.parseDouble(str), str);
+            assertTrue(str.length() <= Double.toString(d).length(), str);
+            if (i % 10 == 0) {
+                // the closest decimal with the shortest digits
+                BigDecimal exact = new BigDecimal(d);
+                for (int precision = 3; precision <= 17; precision++) {
+                    BigDecimal candidate = exact.round(new MathContext(precision, RoundingMode.HALF_EVEN));
+                    if (candidate.doubleValue() == d) {
+                        assertEquals(0, candidate.compareTo(new BigDecimal(str)), str);
+                        break;
+                    }
+                }
+            }
+
+            float f = Float.intBitsToFloat(random.nextInt());
+            sb.setLength(0);
+            String floatStr = Strings.appendFloat(sb, f).toString();
+            if (!Float.isNaN(f)) {
+                assertEquals(f, Float.parseFloat(floatStr), floatStr);
+                assertTrue(floatStr.length() <= Float.toString(f).length(), floatStr);
+            }
+        }
+    }
+
+    @Test
+    public void writeDouble() {
+        byte[] buffer = new byte[32];
+        int end = Strings.writeDouble(buffer, 2, 1.5);
+        assertEquals(5, end);
+        assertEquals("1.5", new String(buffer, 2, 3, StandardCharsets.US_ASCII));
+        end = Strings.writeFloat(buffer, end, -0.25f);
+        assertEquals("1.5-0.25", new String(buffer, 2, end - 2, StandardCharsets.US_ASCII));
+
+        byte[] small = new byte[4];
+        assertEquals(4, Strings.writeDouble(small, 1, 0.5));
+        assertEquals("0.5", new String(small, 1, 3, StandardCharsets.US_ASCII));
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.writeDouble(small, 2, 0.5));
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.writeFloat(small, 0, 0.125f));
+
+        double value = -1.2345678901234567E-300;
+        end = Strings.writeDouble(buffer, 0, value);
+        assertEquals(value, Strings.toDouble(buffer, 0, end, 0));
+    }
+
     @Test
     public void subStringBefore() {
         assertEquals("ab", Strings.subStringBefore("abcdc", "c"));
@@ -91,6 +274,56 @@ public class StringsTest {
         assertEquals("", Strings.subStringAfter("", "c"));
     }
 
+    @Test
+    public void slice() {
+        String text = "key=a=b";
+        CharSequence before = Strings.sliceBefore(text, "=");
+        assertEquals("key", before.toString());
+        assertEquals("key=a", Strings.sliceBeforeLast(text, "=").toString());
+        assertEquals("a=b", Strings.sliceAfter(text, "=").toString());
+        assertEquals("b", Strings.sliceAfterLast(text, "=").toString());
+        assertSame(text, Strings.sliceAfter(text, "#"));
+        // slice of slice
+        CharSequence value = Strings.sliceAfter(new StringBuilder("x:12:34"), ":");
+        assertEquals("12", Strings.sliceBefore(value, ":").toString());
+        assertEquals("34", Strings.sliceAfterLast(value, ":").toString());
+        assertEquals("12", Strings.sliceBeforeLast(value, ":").toString());
+        assertEquals(12, Strings.toInt(Strings.sliceBefore(value, ":"), 0, 2, -1));
+        assertEquals("ey", Strings.slice(text, 1, 3).toString());
+        assertEquals("y", Strings.slice(text, 1, 3).subSequence(1, 2).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.slice(text, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> Strings.sliceBefore(text, ""));
+    }
+
+    @Test
+    public void sliceRemove() {
+        assertEquals("abc", Strings.sliceRemovePrefix("[abc", "[").toString());
+        assertEquals("[abc", Strings.sliceRemoveSuffix("[abc]", "]").toString());
+        assertEquals("abc", Strings.sliceRemovePrefixAndSuffix("[abc]", "[", "]").toString());
+        assertEquals("abc", Strings.sliceRemovePrefixAndSuffix(new StringBuilder("[abc]"), "[", "]").toString());
+        assertEquals("", Strings.sliceRemovePrefixAndSuffix("[]]", "[]", "]").toString());
+        assertEquals("[abc]", Strings.sliceRemovePrefix("[abc]", "(").toString());
+        assertEquals("", Strings.sliceRemoveSuffix("", "]").toString());
+    }
+
+    @Test
+    public void contentEqualsAndHashCode() {
+        CharSequence a = Strings.slice("xabcx", 1, 4);
+        CharSequence b = Strings.slice(new StringBuilder("abcd"), 0, 3);
+        assertTrue(Strings.contentEquals(a, b));
+        assertTrue(Strings.contentEquals(a, "abc"));
+        assertTrue(Strings.contentEquals(null, null));
+        assertFalse(Strings.contentEquals(a, null));
+        assertFalse(Strings.contentEquals(a, "abd"));
+        assertEquals(a, b);
+        assertEquals("abc".hashCode(), a.hashCode());
+        assertEquals("abc".hashCode(), Strings.contentHashCode(b));
+        assertEquals(0, Strings.compare(a, "abc"));
+        assertTrue(Strings.compare(a, "abd") < 0);
+        assertTrue(Strings.compare(a, "ab") > 0);
+        assertEquals(Integer.signum("abc".compareTo("abcd")), Integer.signum(Strings.compare(b, "abcd")));
+    }
+
     @Test
     public void countOf() {
         assertEquals(2, Strings.countOf("abcdc", "c"));
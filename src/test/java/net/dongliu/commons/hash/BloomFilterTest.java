@@ -0,0 +1,128 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void putAndTest() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            for (boolean concurrent : new boolean[]{false, true}) {
+                BloomFilter filter = BloomFilter.newBuilder().expectedInsertions(10000).fpp(0.01)
+                        .offHeap(offHeap).concurrent(concurrent).build();
+                assertEquals(7, filter.hashFunctions());
+                for (int i = 0; i < 10000; i++) {
+                    filter.put("key" + i);
+                    filter.put(i);
+                }
+                for (int i = 0; i < 10000; i++) {
+                    assertTrue(filter.mightContain("key" + i));
+                    assertTrue(filter.mightContain(i));
+                }
+                int falsePositives = 0;
+                for (int i = 0; i < 10000; i++) {
+                    if (filter.mightContain("other" + i)) {
+                        falsePositives++;
+                    }
+                }
+                // double insertions, the fpp is about 0.16
+                assertTrue(falsePositives < 2000, "false positives: " + falsePositives);
+                assertTrue(filter.expectedFpp() > 0.1 && filter.expectedFpp() < 0.25);
+            }
+        }
+
+        BloomFilter filter = BloomFilter.newBuilder().build();
+        assertTrue(filter.put("test"));
+        assertFalse(filter.put("test"));
+        assertTrue(filter.mightContain("test".getBytes()));
+        assertFalse(filter.mightContain("test2"));
+    }
+
+    @Test
+    void hashLong() {
+        byte[] bytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(123456789L).array();
+        assertEquals(FastHashes.xxHash64().hash(bytes), XxHash64.hashLong(123456789L, 0));
+    }
+
+    @Test
+    void serialization() throws IOException {
+        BloomFilter filter = BloomFilter.newBuilder().expectedInsertions(100000).build();
+        for (int i = 0; i < 1000; i++) {
+            filter.put(i);
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        filter.writeTo(Channels.newChannel(bos));
+        byte[] data = bos.toByteArray();
+
+        for (boolean offHeap : new boolean[]{false, true}) {
+            BloomFilter read = BloomFilter.newBuilder().offHeap(offHeap).concurrent(offHeap)
+                    .readFrom(Channels.newChannel(new ByteArrayInputStream(data)));
+            assertEquals(filter.bitSize(), read.bitSize());
+            assertEquals(filter.hashFunctions(), read.hashFunctions());
+            assertEquals(filter.bitCount(), read.bitCount());
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(read.mightContain(i));
+            }
+        }
+
+        byte[] truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> BloomFilter.newBuilder()
+                .readFrom(Channels.newChannel(new ByteArrayInputStream(truncated))));
+    }
+
+    @Test
+    void putAll() {
+        BloomFilter filter1 = BloomFilter.newBuilder().build();
+        BloomFilter filter2 = BloomFilter.newBuilder().offHeap(true).build();
+        filter1.put("a");
+        filter2.put("b");
+        filter1.putAll(filter2);
+        assertTrue(filter1.mightContain("a"));
+        assertTrue(filter1.mightContain("b"));
+        assertThrows(IllegalArgumentException.class,
+                () -> filter1.putAll(BloomFilter.newBuilder().expectedInsertions(10).build()));
+    }
+
+    @Test
+    void concurrent() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (boolean offHeap : new boolean[]{false, true}) {
+                BloomFilter filter = BloomFilter.newBuilder().expectedInsertions(100000).offHeap(offHeap)
+                        .concurrent(true).build();
+                BloomFilter expected = BloomFilter.newBuilder().expectedInsertions(100000).build();
+                List<CompletableFuture<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int start = t;
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        for (int i = start; i < 100000; i += 4) {
+                            filter.put(i);
+                        }
+                    }, executor));
+                }
+                for (int i = 0; i < 100000; i++) {
+                    expected.put(i);
+                }
+                futures.forEach(CompletableFuture::join);
+                assertEquals(expected.bitCount(), filter.bitCount());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
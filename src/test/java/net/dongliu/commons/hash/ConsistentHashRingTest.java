@@ -0,0 +1,64 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void node() {
+        List<String> nodes = Arrays.asList("node-1", "node-2", "node-3", "node-4");
+        ConsistentHashRing<String> ring = ConsistentHashRing.create(nodes, 160);
+        assertEquals(nodes, ring.nodes());
+        assertEquals(160, ring.virtualNodes());
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 40000; i++) {
+            counts.merge(ring.node("key-" + i), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > 7000 && count < 13000, "count: " + count);
+        }
+
+        assertEquals(ring.node("key"), ring.node("key".getBytes()));
+        assertEquals(ring.node("key"), ring.nodeForHash(FastHashes.xxHash64().hash("key")));
+        assertEquals(ring.node(12345L), ring.nodeForHash(XxHash64.hashLong(12345L, 0)));
+        assertEquals(ring.nodeForHash(Long.MAX_VALUE), ring.nodeForHash(Long.MIN_VALUE));
+    }
+
+    @Test
+    void minimalMove() {
+        List<String> nodes = new ArrayList<>(Arrays.asList("node-1", "node-2", "node-3", "node-4", "node-5"));
+        ConsistentHashRing<String> ring = ConsistentHashRing.create(nodes, 100);
+        nodes.remove("node-3");
+        ConsistentHashRing<String> removed = ConsistentHashRing.create(nodes, 100);
+        for (int i = 0; i < 10000; i++) {
+            String node = ring.node(i);
+            if (!node.equals("node-3")) {
+                assertEquals(node, removed.node(i));
+            }
+        }
+    }
+
+    @Test
+    void nodeKey() {
+        List<Integer> nodes = Arrays.asList(1, 2, 3);
+        ConsistentHashRing<Integer> ring = ConsistentHashRing.create(nodes, 10, n -> "server-" + n);
+        ConsistentHashRing<String> named = ConsistentHashRing.create(
+                Arrays.asList("server-1", "server-2", "server-3"), 10);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("server-" + ring.node(i), named.node(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashRing.create(Arrays.asList("a", "a"), 10));
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashRing.create(new ArrayList<>(), 10));
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashRing.create(nodes, 0));
+    }
+}
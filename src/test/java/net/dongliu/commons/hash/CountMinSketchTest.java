@@ -0,0 +1,59 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate() {
+        CountMinSketch sketch = CountMinSketch.create(0.001, 0.99);
+        assertEquals(2719, sketch.width());
+        assertEquals(5, sketch.depth());
+        for (int i = 0; i < 10000; i++) {
+            sketch.add(i, i % 10 == 0 ? 100 : 1);
+        }
+        sketch.add("hot", 5000);
+        sketch.add("hot".getBytes(), 5000);
+        long total = sketch.total();
+        assertEquals(1000 * 100 + 9000 + 10000, total);
+        assertTrue(sketch.estimate("hot") >= 10000);
+        assertTrue(sketch.estimate("hot") <= 10000 + total * 0.001);
+        int bad = 0;
+        for (int i = 0; i < 10000; i++) {
+            long real = i % 10 == 0 ? 100 : 1;
+            long estimate = sketch.estimate(i);
+            assertTrue(estimate >= real);
+            if (estimate > real + total * 0.001) {
+                bad++;
+            }
+        }
+        assertTrue(bad < 100, "bad estimation: " + bad);
+        assertEquals(0, CountMinSketch.create(100, 3).estimate("absent"));
+    }
+
+    @Test
+    void decayAndReset() {
+        CountMinSketch sketch = CountMinSketch.create(100, 3);
+        sketch.add("a", 101);
+        sketch.decay();
+        assertEquals(50, sketch.estimate("a"));
+        assertEquals(50, sketch.total());
+        sketch.reset();
+        assertEquals(0, sketch.estimate("a"));
+        assertEquals(0, sketch.total());
+    }
+
+    @Test
+    void concurrent() {
+        CountMinSketch sketch = CountMinSketch.create(1000, 4);
+        IntStream.range(0, 100_000).parallel().forEach(i -> sketch.add(i % 10, 1));
+        assertEquals(100_000, sketch.total());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(10_000, sketch.estimate(i), 100);
+        }
+    }
+}
@@ -2,6 +2,23 @@ package net.dongliu.commons.hash;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class DigestsTest {
@@ -16,4 +33,98 @@ class DigestsTest {
         assertEquals("2C36A0CB7203A0C41D24A26CD1E7B91645F0418EE77C2D44410A6BB1FE3957F225BBAC26F2E89BA080255C8B6AF5F041060C0DEB9FCD1D040829F3148F1EB98B",
                 Digests.sha512().digest("test测试").asHex());
     }
-}
\ No newline at end of file
+
+    @Test
+    void reuse() throws IOException {
+        String expected = "705A6D0F3256F1B4A360982216F651FF";
+        assertEquals(expected, Digests.md5().digest("test测试").asHex());
+        assertEquals(expected, Digests.md5().digest("test测试").asHex());
+        assertEquals(expected, Digests.md5().digest(new ByteArrayInputStream("test测试".getBytes(UTF_8))).asHex());
+
+        // digest called again while the thread's digest instance is in use
+        InputStream in = new ByteArrayInputStream("test测试".getBytes(UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                assertEquals(expected, Digests.md5().digest("test测试").asHex());
+                return super.read(b, off, len);
+            }
+        };
+        assertEquals(expected, Digests.md5().digest(in).asHex());
+    }
+
+    @Test
+    void hasher() {
+        byte[] data = "test测试".getBytes(UTF_8);
+        Hasher hasher = Digests.md5().newHasher();
+        hasher.putBytes(data, 0, 3).putBytes(ByteBuffer.wrap(data, 3, data.length - 3));
+        assertEquals("705A6D0F3256F1B4A360982216F651FF", hasher.digest().asHex());
+        assertEquals("705A6D0F3256F1B4A360982216F651FF", hasher.putBytes(data).digest().asHex());
+        assertEquals("D41D8CD98F00B204E9800998ECF8427E", hasher.putBytes(data).reset().digest().asHex());
+    }
+
+    @Test
+    void digestFile() throws IOException {
+        for (int size : new int[]{0, 1000, 3 * 1024 * 1024 + 7}) {
+            byte[] data = new byte[size];
+            new Random(size).nextBytes(data);
+            Path path = Files.createTempFile("digest", ".bin");
+            try {
+                Files.write(path, data);
+                String expected = Digests.sha256().digest(data).asHex();
+                assertEquals(expected, Digests.sha256().digest(path).asHex());
+                try (FileChannel channel = FileChannel.open(path)) {
+                    channel.position(Math.min(10, size));
+                    assertEquals(Digests.sha256().digest(Arrays.copyOfRange(data, Math.min(10, size), size))
+                            .asHex(), Digests.sha256().digest(channel).asHex());
+                    assertEquals(size, channel.position());
+                }
+                ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+                buffer.put(data).flip();
+                assertEquals(expected, Digests.sha256().digest(buffer).asHex());
+                assertEquals(0, buffer.remaining());
+            } finally {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void multi() throws IOException {
+        Digests.Encoder[] encoders = {Digests.md5(), Digests.sha1(), Digests.sha256(), Digests.md5()};
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int size : new int[]{0, 100, 3 * 1024 * 1024 + 7}) {
+                byte[] data = new byte[size];
+                new Random(size).nextBytes(data);
+                List<String> expected = new ArrayList<>();
+                for (Digests.Encoder encoder : encoders) {
+                    expected.add(encoder.digest(data).asHex());
+                }
+
+                Digests.MultiEncoder multi = Digests.multi(encoders);
+                for (Digests.MultiEncoder encoder : Arrays.asList(multi, multi.executor(executor))) {
+                    assertEquals(expected, hexes(encoder.digest(data)));
+                    assertEquals(expected, hexes(encoder.digest(new ByteArrayInputStream(data))));
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+                    buffer.put(data).flip();
+                    assertEquals(expected, hexes(encoder.digest(buffer)));
+                    assertEquals(0, buffer.remaining());
+
+                    Path path = Files.createTempFile("multi", ".bin");
+                    try {
+                        Files.write(path, data);
+                        assertEquals(expected, hexes(encoder.digest(path)));
+                    } finally {
+                        Files.delete(path);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<String> hexes(List<Digests.DigestResult> results) {
+        return results.stream().map(Digests.DigestResult::asHex).collect(Collectors.toList());
+    }
+}
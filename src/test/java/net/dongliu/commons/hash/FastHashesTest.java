@@ -0,0 +1,110 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.Checksum;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FastHashesTest {
+
+    @Test
+    void xxHash64() {
+        assertEquals(0xEF46DB3751D8E999L, FastHashes.xxHash64().hash(""));
+        assertEquals(0xD24EC4F1A98C6E5BL, FastHashes.xxHash64().hash("a"));
+        assertEquals(0x44BC2CF5AD770999L, FastHashes.xxHash64().hash("abc"));
+        assertEquals(0xFBCEA83C8A378BF1L, FastHashes.xxHash64().hash("Nobody inspects the spammish repetition"));
+        assertEquals(0xB559B98D844E0635L, FastHashes.xxHash64(20141025).hash("xxhash"));
+        assertEquals("FBCEA83C8A378BF1",
+                FastHashes.xxHash64().digest("Nobody inspects the spammish repetition").asHex());
+    }
+
+    @Test
+    void murmur3_32() {
+        assertEquals(0, FastHashes.murmur3_32().hash(""));
+        assertEquals(0x514E28B7, FastHashes.murmur3_32(1).hash(""));
+        assertEquals(0x248BFA47, FastHashes.murmur3_32().hash("hello"));
+        assertEquals(0x2E4FF723, FastHashes.murmur3_32().hash("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void murmur3_128() {
+        assertEquals(0xe34bbc7bbc071b6cL, FastHashes.murmur3_128().hash("The quick brown fox jumps over the lazy dog"));
+        assertEquals("6C1B07BC7BBC4BE347939AC4A93C437A",
+                FastHashes.murmur3_128().digest("The quick brown fox jumps over the lazy dog").asHex());
+        assertEquals(0x629942693e10f867L, FastHashes.murmur3_128().hash("hell"));
+        assertEquals(0xa78ddff5adae8d10L, FastHashes.murmur3_128(1).hash("hello"));
+        assertEquals(0x8a486b23f422e826L, FastHashes.murmur3_128(2).hash("hello "));
+        assertEquals(0x79f6305a386c572cL, FastHashes.murmur3_128(4).hash("hello wo"));
+        assertEquals(0xc2219d213ec1f1b5L, FastHashes.murmur3_128(5).hash("hello wor"));
+    }
+
+    @Test
+    void crc32c() {
+        assertEquals(0xE3069283, FastHashes.crc32c().hash("123456789"));
+        assertEquals("E3069283", FastHashes.crc32c().digest("123456789").asHex());
+
+        Random random = new Random(0);
+        for (int size = 0; size < 100; size++) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            Checksum checksum = new Crc32c.PureJavaCrc32c();
+            checksum.update(data, 0, data.length);
+            assertEquals(FastHashes.crc32c().hash(data), (int) checksum.getValue());
+        }
+    }
+
+    @Test
+    void inputs() throws IOException {
+        FastHashes.Encoder[] encoders = {FastHashes.xxHash64(), FastHashes.murmur3_32(), FastHashes.murmur3_128(),
+                FastHashes.crc32c()};
+        Random random = new Random(0);
+        for (int size = 0; size < 200; size++) {
+            byte[] data = new byte[size + 3];
+            random.nextBytes(data);
+            byte[] range = new byte[size];
+            System.arraycopy(data, 3, range, 0, size);
+            ByteBuffer direct = ByteBuffer.allocateDirect(size);
+            direct.put(range).flip();
+            for (FastHashes.Encoder encoder : encoders) {
+                String expected = encoder.digest(data, 3, size).asHex();
+                assertEquals(expected, encoder.digest(range).asHex());
+                assertEquals(expected, encoder.digest(slowStream(range)).asHex());
+                assertEquals(expected, encoder.digest(direct.duplicate()).asHex());
+                if (encoder instanceof FastHashes.LongEncoder) {
+                    FastHashes.LongEncoder longEncoder = (FastHashes.LongEncoder) encoder;
+                    long value = longEncoder.hash(data, 3, size);
+                    assertEquals(value, longEncoder.hash(range));
+                    assertEquals(value, longEncoder.hash(slowStream(range)));
+                    assertEquals(value, longEncoder.hash(direct.duplicate()));
+                } else {
+                    FastHashes.IntEncoder intEncoder = (FastHashes.IntEncoder) encoder;
+                    int value = intEncoder.hash(data, 3, size);
+                    assertEquals(value, intEncoder.hash(range));
+                    assertEquals(value, intEncoder.hash(slowStream(range)));
+                    assertEquals(value, intEncoder.hash(direct.duplicate()));
+                }
+            }
+        }
+        assertEquals(FastHashes.xxHash64().hash("test"), FastHashes.xxHash64().hash("test".getBytes(US_ASCII)));
+    }
+
+    // input stream return data in small, uneven chunks
+    private static InputStream slowStream(byte[] data) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+            private int count;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, ++count % 7 + 1));
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HasherTest {
+
+    @Test
+    void primitives() {
+        ByteBuffer expected = ByteBuffer.allocate(1000).order(ByteOrder.LITTLE_ENDIAN);
+        Hasher hasher = Digests.sha256().newHasher();
+        for (int i = 0; i < 60; i++) {
+            expected.putInt(i).putLong(-i).put((byte) 1).put((byte) i);
+            hasher.putInt(i).putLong(-i).putBoolean(true).putByte((byte) i);
+        }
+        expected.flip();
+        assertEquals(Digests.sha256().digest(expected).asHex(), hasher.digest().asHex());
+    }
+
+    @Test
+    void putString() {
+        String[] strings = {"", "test", "test测试", "😀emoji", "bad\uD83Dsurrogate", "\uDE00", "end\uD83D"};
+        for (String str : strings) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                sb.append(str);
+            }
+            String longStr = sb.toString();
+            for (Charset charset : new Charset[]{UTF_8, UTF_16LE, ISO_8859_1, Charset.forName("GBK")}) {
+                assertEquals(Digests.md5().digest(longStr, charset).asHex(),
+                        Digests.md5().newHasher().putString(longStr, charset).digest().asHex());
+                assertEquals(FastHashes.xxHash64().hash(str, charset),
+                        FastHashes.xxHash64().newHasher().putString(new StringBuilder(str), charset).hashLong());
+            }
+        }
+    }
+
+    @Test
+    void fastHashes() {
+        byte[] data = new byte[3000];
+        new Random(0).nextBytes(data);
+        FastHashes.Encoder[] encoders = {FastHashes.xxHash64(), FastHashes.murmur3_32(), FastHashes.murmur3_128(),
+                FastHashes.crc32c()};
+        for (FastHashes.Encoder encoder : encoders) {
+            Hasher hasher = encoder.newHasher();
+            for (int i = 0; i < data.length; ) {
+                int len = Math.min(i % 700, data.length - i);
+                if (i % 2 == 0) {
+                    hasher.putBytes(data, i, len);
+                } else {
+                    hasher.putBytes(ByteBuffer.wrap(data, i, len));
+                }
+                i += len == 0 ? 1 : len;
+                if (len == 0) {
+                    hasher.putByte(data[i - 1]);
+                }
+            }
+            assertEquals(encoder.digest(data).asHex(), hasher.digest().asHex());
+        }
+        assertEquals(FastHashes.xxHash64().hash(data), FastHashes.xxHash64().newHasher().putBytes(data).hashLong());
+        assertEquals(FastHashes.murmur3_32().hash(data), FastHashes.murmur3_32().newHasher().putBytes(data).hashInt());
+        assertEquals(FastHashes.crc32c().hash(data), FastHashes.crc32c().newHasher().putBytes(data).hashInt());
+        Hasher hasher = FastHashes.xxHash64().newHasher();
+        assertEquals(FastHashes.xxHash64().hash(""), hasher.putInt(1).reset().hashLong());
+    }
+}
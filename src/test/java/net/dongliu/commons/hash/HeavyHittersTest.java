@@ -0,0 +1,78 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void top() {
+        for (int stripes : new int[]{1, 4}) {
+            HeavyHitters<String> hitters = HeavyHitters.create(100, stripes);
+            Random random = new Random(0);
+            for (int i = 0; i < 100_000; i++) {
+                // key0 ~ key4 are hot
+                int key = random.nextInt(10) < 5 ? random.nextInt(5) : random.nextInt(100_000);
+                hitters.add("key" + key);
+            }
+            List<HeavyHitters.Entry<String>> top = hitters.top(5);
+            assertEquals(5, top.size());
+            assertEquals(IntStream.range(0, 5).mapToObj(i -> "key" + i).collect(Collectors.toSet()),
+                    top.stream().map(HeavyHitters.Entry::element).collect(Collectors.toSet()));
+            for (HeavyHitters.Entry<String> entry : top) {
+                assertEquals(10_000, entry.count(), 1000);
+                assertTrue(entry.count() - entry.error() <= entry.count());
+                assertEquals(entry.count(), hitters.count(entry.element()));
+            }
+            for (int i = 1; i < top.size(); i++) {
+                assertTrue(top.get(i - 1).count() >= top.get(i).count());
+            }
+            assertEquals(100, hitters.top(1000).size());
+        }
+    }
+
+    @Test
+    void replace() {
+        HeavyHitters<String> hitters = HeavyHitters.create(2);
+        hitters.add("a", 5);
+        hitters.add("b", 3);
+        hitters.add("c");
+        // c replaces b, inherits its count as error
+        List<HeavyHitters.Entry<String>> top = hitters.top(2);
+        assertEquals("a", top.get(0).element());
+        assertEquals("c", top.get(1).element());
+        assertEquals(4, top.get(1).count());
+        assertEquals(3, top.get(1).error());
+        assertEquals(0, hitters.count("b"));
+    }
+
+    @Test
+    void decayAndReset() {
+        HeavyHitters<String> hitters = HeavyHitters.create(10);
+        hitters.add("a", 10);
+        hitters.add("b", 1);
+        hitters.decay();
+        assertEquals(5, hitters.count("a"));
+        assertEquals(0, hitters.count("b"));
+        assertEquals(1, hitters.top(10).size());
+        hitters.add("c", 7);
+        assertEquals("c", hitters.top(1).get(0).element());
+        hitters.reset();
+        assertTrue(hitters.top(10).isEmpty());
+    }
+
+    @Test
+    void concurrent() {
+        HeavyHitters<Integer> hitters = HeavyHitters.create(64, 8);
+        IntStream.range(0, 100_000).parallel().forEach(i -> hitters.add(i % 10));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(10_000, hitters.count(i));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void cardinality() {
+        assertEquals(0, HyperLogLog.create().cardinality());
+        for (int n : new int[]{1, 10, 1000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog hll = HyperLogLog.create();
+            HyperLogLog concurrent = HyperLogLog.createConcurrent(14);
+            for (int i = 0; i < n; i++) {
+                hll.add(i);
+                hll.add(i);
+                concurrent.add("key" + i);
+            }
+            assertEquals(n, hll.cardinality(), n * 0.03 + 0.5);
+            assertEquals(n, concurrent.cardinality(), n * 0.03 + 0.5);
+        }
+    }
+
+    @Test
+    void sparseExact() {
+        HyperLogLog hll = HyperLogLog.create();
+        for (int i = 0; i < 1000; i++) {
+            hll.add("key" + i);
+        }
+        // sparse representation with linear counting is nearly exact for small cardinality
+        assertEquals(1000, hll.cardinality(), 2);
+    }
+
+    @Test
+    void merge() {
+        for (int n : new int[]{100, 100_000}) {
+            HyperLogLog hll1 = HyperLogLog.create(12);
+            HyperLogLog hll2 = HyperLogLog.create(12);
+            HyperLogLog hll3 = HyperLogLog.createConcurrent(12);
+            HyperLogLog union = HyperLogLog.create(12);
+            for (int i = 0; i < n; i++) {
+                hll1.add(i);
+                hll2.add(i + n / 2);
+                hll3.add(i + n);
+                union.add(i);
+                union.add(i + n / 2);
+                union.add(i + n);
+            }
+            hll1.merge(hll2);
+            hll1.merge(hll3);
+            assertEquals(union.cardinality(), hll1.cardinality(), n * 0.01 + 1);
+
+            HyperLogLog merged = HyperLogLog.createConcurrent(12);
+            merged.merge(hll1);
+            assertEquals(hll1.cardinality(), merged.cardinality(), n * 0.01 + 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.create(12).merge(HyperLogLog.create(13)));
+    }
+
+    @Test
+    void serialization() {
+        for (int n : new int[]{0, 100, 100_000}) {
+            for (HyperLogLog hll : new HyperLogLog[]{HyperLogLog.create(10), HyperLogLog.createConcurrent(10)}) {
+                for (int i = 0; i < n; i++) {
+                    hll.add(i);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(hll.serializedSize());
+                hll.writeTo(buffer);
+                assertFalse(buffer.hasRemaining());
+                buffer.flip();
+                HyperLogLog read = HyperLogLog.readFrom(buffer);
+                assertEquals(hll.cardinality(), read.cardinality());
+                assertEquals(10, read.precision());
+            }
+        }
+        assertEquals(3 + 1024 * 6 / 8, HyperLogLog.createConcurrent(10).serializedSize());
+    }
+
+    @Test
+    void concurrent() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            HyperLogLog hll = HyperLogLog.createConcurrent(14);
+            HyperLogLog expected = HyperLogLog.createConcurrent(14);
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int start = t;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = start; i < 200_000; i += 4) {
+                        hll.add(i);
+                    }
+                }, executor));
+            }
+            for (int i = 0; i < 200_000; i++) {
+                expected.add(i);
+            }
+            futures.forEach(CompletableFuture::join);
+            assertEquals(expected.cardinality(), hll.cardinality());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
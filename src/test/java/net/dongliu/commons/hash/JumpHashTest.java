@@ -0,0 +1,37 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JumpHashTest {
+
+    @Test
+    void bucket() {
+        assertEquals(0, JumpHash.bucket(0, 1));
+        // values computed by the reference algorithm in the paper
+        assertEquals(0, JumpHash.bucket(0, 100));
+        assertEquals(55, JumpHash.bucket(1, 100));
+        assertEquals(87, JumpHash.bucket(0xDEADBEEFL, 100));
+
+        int[] counts = new int[10];
+        for (int i = 0; i < 100000; i++) {
+            counts[JumpHash.bucket("key-" + i, 10)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 9000 && count < 11000, "count: " + count);
+        }
+        assertThrows(IllegalArgumentException.class, () -> JumpHash.bucket(1, 0));
+    }
+
+    @Test
+    void minimalMove() {
+        for (int i = 0; i < 10000; i++) {
+            long key = XxHash64.hashLong(i, 0);
+            int before = JumpHash.bucket(key, 10);
+            int after = JumpHash.bucket(key, 11);
+            assertTrue(after == before || after == 10);
+        }
+        assertEquals(JumpHash.bucket("key".getBytes(), 7), JumpHash.bucket("key", 7));
+    }
+}
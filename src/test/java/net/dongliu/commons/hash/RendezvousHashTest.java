@@ -0,0 +1,46 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RendezvousHashTest {
+
+    @Test
+    void node() {
+        List<String> nodes = Arrays.asList("node-1", "node-2", "node-3", "node-4");
+        RendezvousHash<String> hash = RendezvousHash.create(nodes);
+        assertEquals(nodes, hash.nodes());
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 40000; i++) {
+            counts.merge(hash.node("key-" + i), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > 9000 && count < 11000, "count: " + count);
+        }
+        assertEquals(hash.node("key"), hash.node("key".getBytes()));
+        assertEquals(hash.node(1L), hash.nodeForHash(XxHash64.hashLong(1L, 0)));
+    }
+
+    @Test
+    void minimalMove() {
+        List<String> nodes = new ArrayList<>(Arrays.asList("node-1", "node-2", "node-3", "node-4", "node-5"));
+        RendezvousHash<String> hash = RendezvousHash.create(nodes);
+        nodes.remove("node-2");
+        RendezvousHash<String> removed = RendezvousHash.create(nodes, n -> n);
+        for (int i = 0; i < 10000; i++) {
+            String node = hash.node(i);
+            if (!node.equals("node-2")) {
+                assertEquals(node, removed.node(i));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> RendezvousHash.create(new ArrayList<>()));
+    }
+}
@@ -0,0 +1,82 @@
+package net.dongliu.commons.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeEncoderTest {
+
+    @Test
+    void digest() throws NoSuchAlgorithmException {
+        byte[] data = new byte[10];
+        new Random(0).nextBytes(data);
+        TreeEncoder encoder = Digests.sha256().tree(4);
+        TreeDigestResult result = encoder.digest(data);
+        assertEquals(3, result.leafCount());
+        assertEquals(4, result.leafSize());
+
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[][] leaves = new byte[3][];
+        for (int i = 0; i < 3; i++) {
+            md.update((byte) 0);
+            md.update(data, i * 4, Math.min(4, data.length - i * 4));
+            leaves[i] = md.digest();
+            assertArrayEquals(leaves[i], result.leaf(i).asBytes());
+        }
+        md.update((byte) 1);
+        md.update(leaves[0]);
+        md.update(leaves[1]);
+        byte[] node = md.digest();
+        md.update((byte) 1);
+        md.update(node);
+        md.update(leaves[2]);
+        assertArrayEquals(md.digest(), result.asBytes());
+        assertEquals(result.leaf(1).asHex(), encoder.leafDigest(data, 4, 4).asHex());
+    }
+
+    @Test
+    void empty() throws IOException {
+        TreeDigestResult result = Digests.sha1().tree(16).digest(new byte[0]);
+        assertEquals(1, result.leafCount());
+        assertEquals(result.leaf(0).asHex(), result.asHex());
+        TreeDigestResult streamResult = Digests.sha1().tree(16).digest(new ByteArrayInputStream(new byte[0]));
+        assertEquals(result.asHex(), streamResult.leaves().get(0).asHex());
+    }
+
+    @Test
+    void deterministic() throws IOException {
+        byte[] data = new byte[100_003];
+        new Random(0).nextBytes(data);
+        TreeEncoder encoder = Digests.sha256().tree(1000);
+        TreeDigestResult result = encoder.pool(new ForkJoinPool(1)).digest(data);
+        assertEquals(101, result.leafCount());
+        String expected = result.asHex();
+        assertEquals(expected, encoder.pool(new ForkJoinPool(7)).digest(data).asHex());
+        assertEquals(expected, encoder.digest(ByteBuffer.wrap(data)).asHex());
+        assertEquals(expected, encoder.pool(new ForkJoinPool(3)).digest(new ByteArrayInputStream(data)).asHex());
+        TreeDigestResult streamResult = encoder.digest(new ByteArrayInputStream(data));
+        for (int i = 0; i < result.leafCount(); i++) {
+            assertEquals(result.leaf(i).asHex(), streamResult.leaf(i).asHex());
+        }
+
+        Path path = Files.createTempFile("tree", ".bin");
+        try {
+            Files.write(path, data);
+            assertEquals(expected, encoder.digest(path).asHex());
+        } finally {
+            Files.delete(path);
+        }
+
+        assertNotEquals(expected, Digests.sha256().tree(1001).digest(data).asHex());
+    }
+}